@@ -0,0 +1,94 @@
+package net.mooctest;
+
+import java.util.HashMap;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Boxed HashMap against the primitive table; scores are operations per second. Add -prof gc to see the bytes
+// allocated per put, which is where the two differ most. The heap is fixed so the retained maps do not make
+// heap resizing part of the timings
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class HashTableBenchmark {
+    private static final int OPERATIONS = 1 << 20;
+
+    @Param({"65536", "2097152"})
+    public int entries;
+
+    private int[] values;
+    private int[] lookups;
+    private HashMap<Integer, Integer> boxed;
+    private IntIntHashMap primitive;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        Random random = new Random(42);
+        values = new int[entries];
+        for (int i = 0; i < entries; i++) {
+            values[i] = random.nextInt();
+        }
+        lookups = new int[OPERATIONS];
+        for (int i = 0; i < OPERATIONS; i++) {
+            lookups[i] = random.nextInt(entries);
+        }
+        boxed = boxedPut();
+        primitive = primitivePut();
+    }
+
+    // One put per entry, so a score of s means s * entries puts per second
+    @Benchmark
+    public HashMap<Integer, Integer> boxedPut() {
+        HashMap<Integer, Integer> map = new HashMap<>();
+        for (int i = 0; i < entries; i++) {
+            map.put(i, values[i]);
+        }
+        return map;
+    }
+
+    @Benchmark
+    public IntIntHashMap primitivePut() {
+        IntIntHashMap map = new IntIntHashMap();
+        for (int i = 0; i < entries; i++) {
+            map.put(i, values[i]);
+        }
+        return map;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long boxedGet() {
+        long checksum = 0;
+        for (int key : lookups) {
+            checksum += boxed.get(key);
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(OPERATIONS)
+    public long primitiveGet() {
+        long checksum = 0;
+        for (int key : lookups) {
+            checksum += primitive.get(key, 0);
+        }
+        return checksum;
+    }
+}
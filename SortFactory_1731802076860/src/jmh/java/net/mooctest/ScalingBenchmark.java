@@ -0,0 +1,93 @@
+package net.mooctest;
+
+import java.nio.file.Paths;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Thread scaling of the parallel algorithms; compare the scores across parallelism values of one size. Each trial
+// builds its own pool of exactly that many threads, since the shared resources cap pools at the core count
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class ScalingBenchmark {
+    @Param({"parallelmergesort", "parallelsamplesort", "radixsort", "externalsort"})
+    public String algorithm;
+
+    @Param({"1", "2", "4", "8", "16"})
+    public int parallelism;
+
+    @Param({"1000000", "10000000"})
+    public int size;
+
+    private Algorithm algo;
+    private ExecutorService pool;
+    private int[] input;
+    private DataStructure data;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        input = Distributions.generate("uniform", size, 42);
+        data = new ArrayDataStructure(size);
+        switch (algorithm) {
+            case "parallelmergesort":
+                pool = new ForkJoinPool(parallelism);
+                algo = new ParallelMergeSort((ForkJoinPool) pool);
+                break;
+            case "parallelsamplesort":
+                pool = new ForkJoinPool(parallelism);
+                algo = new ParallelSampleSort((ForkJoinPool) pool);
+                break;
+            case "radixsort":
+                pool = new ForkJoinPool(parallelism);
+                algo = new RadixSort((ForkJoinPool) pool);
+                break;
+            case "externalsort":
+                // Off-heap input larger than the budget, so the runs really are sorted by the pool's threads
+                pool = Executors.newFixedThreadPool(parallelism);
+                algo = new ExternalSort((long) size * Integer.BYTES / 8, parallelism,
+                        Paths.get(System.getProperty("java.io.tmpdir")), pool);
+                data = new OffHeapDataStructure();
+                break;
+            default:
+                throw new InvalidDataException("Not a parallel algorithm: " + algorithm);
+        }
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        data.fromArray(input);
+    }
+
+    @Benchmark
+    public DataStructure sort() {
+        algo.sort(data);
+        return data;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() {
+        pool.shutdown();
+        if (data instanceof OffHeapDataStructure) {
+            ((OffHeapDataStructure) data).close();
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package net.mooctest;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Sorting 2^20 elements as many short arrays: one AlgorithmManager call per array against the batch sorter
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SmallArrayBenchmark {
+    private static final int ELEMENTS = 1 << 20;
+
+    @Param({"4", "8", "16", "32", "64", "128"})
+    public int length;
+
+    private AlgorithmManager manager;
+    private SmallArraySorter sorter;
+    private int[] input;
+    private int[] buffer;
+    private int[][] arrays;
+    private ArrayDataStructure[] structures;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        manager = new AlgorithmManager();
+        manager.addAlgorithms(new AlgorithmFactory());
+        sorter = new SmallArraySorter();
+        Random random = new Random(47);
+        input = new int[ELEMENTS / length * length];
+        for (int i = 0; i < input.length; i++) {
+            input[i] = random.nextInt();
+        }
+        buffer = new int[input.length];
+        arrays = new int[input.length / length][length];
+        structures = new ArrayDataStructure[arrays.length];
+        for (int i = 0; i < structures.length; i++) {
+            structures[i] = new ArrayDataStructure(length);
+        }
+    }
+
+    // Every benchmark starts from the same unsorted arrays; copying them back is cheap next to the sorting
+    @Setup(Level.Invocation)
+    public void reset() {
+        System.arraycopy(input, 0, buffer, 0, input.length);
+        for (int i = 0; i < arrays.length; i++) {
+            System.arraycopy(input, i * length, arrays[i], 0, length);
+            structures[i].fromArray(arrays[i]);
+        }
+    }
+
+    @Benchmark
+    public ArrayDataStructure[] perArraySortData() throws Exception {
+        for (ArrayDataStructure data : structures) {
+            manager.sortData("introsort", data);
+        }
+        return structures;
+    }
+
+    @Benchmark
+    public int[][] sortAll() {
+        sorter.sortAll(arrays);
+        return arrays;
+    }
+
+    @Benchmark
+    public int[] sortFixedLength() {
+        sorter.sortFixedLength(buffer, length);
+        return buffer;
+    }
+}
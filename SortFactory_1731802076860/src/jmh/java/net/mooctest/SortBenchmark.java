@@ -0,0 +1,110 @@
+package net.mooctest;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Algorithm x structure x distribution x size matrix. The full matrix takes days, so narrow it with -p, e.g.
+// mvn -Pbenchmark verify -Djmh.args="SortBenchmark -p size=1000,100000 -p structure=ArrayDataStructure"
+// The JSON written to target/jmh-result.json can be loaded with PerformanceTracker.importPriors
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms4g", "-Xmx4g"})
+public class SortBenchmark {
+    private static final int QUADRATIC_LIMIT = 100000;
+    private static final int NODE_STRUCTURE_LIMIT = 10000000;
+
+    @Param({"quicksort", "bubblesort", "parallelmergesort", "parallelsamplesort", "radixsort", "introsort",
+            "naturalmergesort", "externalsort", "heapsort"})
+    public String algorithm;
+
+    @Param({"ArrayDataStructure", "LinkedListDataStructure", "HashTableDataStructure", "HeapDataStructure",
+            "BSTDataStructure", "OffHeapDataStructure", "FileDataStructure"})
+    public String structure;
+
+    @Param({"uniform", "sorted", "reversed", "fewunique", "organpipe", "zipf"})
+    public String distribution;
+
+    @Param({"1000", "10000", "100000", "1000000", "10000000", "100000000"})
+    public int size;
+
+    private Algorithm algo;
+    private int[] input;
+    private DataStructure data;
+    private Path file;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() throws IOException {
+        // Failing the setup skips the combination; JMH reports it and moves on to the next one
+        if ("bubblesort".equals(algorithm) && size > QUADRATIC_LIMIT) {
+            throw new InvalidDataException("BubbleSort is not run above " + QUADRATIC_LIMIT + " elements");
+        }
+        if (size > NODE_STRUCTURE_LIMIT && (structure.startsWith("BST") || structure.startsWith("HashTable"))) {
+            throw new InvalidDataException(structure + " is not run above " + NODE_STRUCTURE_LIMIT + " elements");
+        }
+        algo = new AlgorithmFactory().getAlgorithm(algorithm);
+        input = Distributions.generate(distribution, size, 42);
+        data = createStructure();
+    }
+
+    @Setup(Level.Invocation)
+    public void reset() {
+        data.fromArray(input);
+    }
+
+    @Benchmark
+    public DataStructure sort() {
+        algo.sort(data);
+        return data;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDownTrial() throws IOException {
+        if (data instanceof OffHeapDataStructure) {
+            ((OffHeapDataStructure) data).release();
+        } else if (data instanceof FileDataStructure) {
+            ((FileDataStructure) data).close();
+            Files.deleteIfExists(file);
+        }
+    }
+
+    private DataStructure createStructure() throws IOException {
+        switch (structure) {
+            case "ArrayDataStructure":
+                return new ArrayDataStructure(size);
+            case "LinkedListDataStructure":
+                return new LinkedListDataStructure();
+            case "HashTableDataStructure":
+                return new HashTableDataStructure();
+            case "HeapDataStructure":
+                return new HeapDataStructure();
+            case "BSTDataStructure":
+                return new BSTDataStructure();
+            case "OffHeapDataStructure":
+                return new OffHeapDataStructure();
+            case "FileDataStructure":
+                file = Files.createTempFile("sort-benchmark", ".bin");
+                return new FileDataStructure(file);
+            default:
+                throw new InvalidDataException("Unknown structure: " + structure);
+        }
+    }
+}
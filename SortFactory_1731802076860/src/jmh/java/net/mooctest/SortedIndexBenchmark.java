@@ -0,0 +1,89 @@
+package net.mooctest;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+// Lookup rate of the recursive binary search against the Eytzinger index; scores are lookups per second. Half
+// of the targets are present, the rest are random misses
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx2g"})
+public class SortedIndexBenchmark {
+    private static final int LOOKUPS = 1 << 20;
+
+    @Param({"1024", "65536", "4194304"})
+    public int size;
+
+    private OptimizedQuickSort recursive;
+    private ArrayDataStructure data;
+    private SortedIndex index;
+    private int[] targets;
+
+    @Setup(Level.Trial)
+    public void setUpTrial() {
+        Random random = new Random(42);
+        int[] sorted = new int[size];
+        for (int i = 0; i < size; i++) {
+            sorted[i] = random.nextInt();
+        }
+        Arrays.sort(sorted);
+        targets = new int[LOOKUPS];
+        for (int i = 0; i < LOOKUPS; i++) {
+            targets[i] = random.nextBoolean() ? sorted[random.nextInt(size)] : random.nextInt();
+        }
+        recursive = new OptimizedQuickSort();
+        data = new ArrayDataStructure(size);
+        data.fromArray(sorted);
+        index = new SortedIndex(data);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public long recursiveSearch() {
+        long checksum = 0;
+        for (int target : targets) {
+            checksum += recursive.search(data, target);
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public long indexSearch() {
+        long checksum = 0;
+        for (int target : targets) {
+            checksum += index.search(target);
+        }
+        return checksum;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int[] batchSearch() {
+        return index.search(targets);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(LOOKUPS)
+    public int[] parallelSearch() {
+        return index.parallelSearch(targets);
+    }
+}
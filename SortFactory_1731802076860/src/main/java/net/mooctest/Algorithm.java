@@ -1,7 +1,13 @@
 package net.mooctest;
 
 public interface Algorithm {
-    void sort(DataStructure data);
+    // Algorithms hold no per-call state; counters go to the metrics context of each call
+    void sort(DataStructure data, SortMetrics metrics);
+
+    default void sort(DataStructure data) {
+        sort(data, SortMetrics.DISABLED);
+    }
+
     int search(DataStructure data, int target);
     String getName();
     AlgorithmPerformance evaluatePerformance(DataStructure data);
@@ -1,16 +1,42 @@
 package net.mooctest;
 
+import java.util.ArrayList;
+import java.util.List;
+
 public class AlgorithmFactory {
+    public static final String[] ALGORITHM_NAMES = {
+            "quicksort", "bubblesort", "parallelmergesort", "parallelsamplesort", "radixsort", "introsort",
+            "naturalmergesort", "externalsort", "heapsort"
+    };
+
+    private AlgorithmRegistry registry;
+
+    // Uses the shared registry, so repeated lookups return the same instances and pools
+    public AlgorithmFactory() {
+    }
+
+    public AlgorithmFactory(AlgorithmRegistry registry) {
+        this.registry = registry;
+    }
+
+    public AlgorithmRegistry getRegistry() {
+        return registry != null ? registry : AlgorithmRegistry.getShared();
+    }
+
     public Algorithm getAlgorithm(String name) {
-        switch (name.toLowerCase()) {
-            case "quicksort":
-                return new OptimizedQuickSort();
-            case "bubblesort":
-                return new BubbleSort();
-            case "parallelmergesort":
-                return new ParallelMergeSort(4); // The default concurrency is 4
-            default:
-                throw new AlgorithmNotFoundException("Algorithm not found: " + name);
+        return getRegistry().get(name);
+    }
+
+    public Algorithm getAlgorithm(String name, int parallelism) {
+        return getRegistry().get(name, parallelism);
+    }
+
+    public List<Algorithm> getAllAlgorithms() {
+        List<Algorithm> result = new ArrayList<>();
+        AlgorithmRegistry current = getRegistry();
+        for (String name : current.getNames()) {
+            result.add(current.get(name));
         }
+        return result;
     }
 }
@@ -10,15 +10,25 @@ public class AlgorithmManager {
         algorithms.add(algo);
     }
 
+    public void addAlgorithms(AlgorithmFactory factory) {
+        algorithms.addAll(factory.getAllAlgorithms());
+    }
+
     public Algorithm getAlgorithm(String name) {
+        // "OptimizedQuickSort" and "Optimized Quick Sort" refer to the same algorithm
+        String key = normalizeName(name);
         for (Algorithm algo : algorithms) {
-            if (algo.getName().equalsIgnoreCase(name)) {
+            if (normalizeName(algo.getName()).equals(key)) {
                 return algo;
             }
         }
         return null;
     }
 
+    public String normalizeName(String name) {
+        return name.replace(" ", "").toLowerCase();
+    }
+
     public void sortData(String algoName, DataStructure data) throws Exception {
         Algorithm algo = getAlgorithm(algoName);
         if (algo == null) {
@@ -34,4 +44,22 @@ public class AlgorithmManager {
         }
         return algo.search(data, target);
     }
+
+    // Order statistics need no algorithm choice: selection is O(n) where sorting first would be O(n log n)
+    public int selectData(DataStructure data, int k) {
+        return Selection.select(data, k);
+    }
+
+    public void partialSortData(DataStructure data, int k) {
+        Selection.partialSort(data, k);
+    }
+
+    public int[] percentilesOf(DataStructure data, double... percents) {
+        return Selection.percentiles(data, percents);
+    }
+
+    // Inputs that are already sorted are combined in one k-way pass instead of being sorted again
+    public void mergeSortedData(List<? extends DataStructure> sources, DataStructure target) {
+        new KWayMerge().mergeInto(sources, target);
+    }
 }
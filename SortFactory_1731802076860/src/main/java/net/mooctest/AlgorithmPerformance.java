@@ -2,12 +2,26 @@ package net.mooctest;
 
 public class AlgorithmPerformance {
     private long timeTaken;
-    private int comparisons;
-    private int swaps;
+    private long comparisons;
+    private long swaps;
     private long memoryUsed;
     private int threadCount;
+    private int passes;
+    private long bytesMoved;
+    private long ioBytes;
+    private int runCount;
+    private long cpuTime = -1;
+    private long gcCount;
+    private long gcTime;
+    private int measuredRuns = 1;
+    private double meanTime;
+    private double stdDevTime;
+    private long minTime;
+    private long maxTime;
+    private long p90Time;
+    private long p99Time;
 
-    public AlgorithmPerformance(long timeTaken, int comparisons, int swaps, long memoryUsed, int threadCount) {
+    public AlgorithmPerformance(long timeTaken, long comparisons, long swaps, long memoryUsed, int threadCount) {
         this.timeTaken = timeTaken;
         this.comparisons = comparisons;
         this.swaps = swaps;
@@ -15,18 +29,21 @@ public class AlgorithmPerformance {
         this.threadCount = threadCount;
     }
 
+    // Wall time of the call; the median when several runs were measured
     public long getTimeTaken() {
         return timeTaken;
     }
 
-    public int getComparisons() {
+    public long getComparisons() {
         return comparisons;
     }
 
-    public int getSwaps() {
+    public long getSwaps() {
         return swaps;
     }
 
+    // Bytes allocated during the call by the calling thread and the algorithm's pool workers, -1 when the JVM
+    // cannot tell
     public long getMemoryUsed() {
         return memoryUsed;
     }
@@ -35,12 +52,149 @@ public class AlgorithmPerformance {
         return threadCount;
     }
 
+    // Distribution sorts do not compare elements, they report full passes over the data instead
+    public int getPasses() {
+        return passes;
+    }
+
+    public void setPasses(int passes) {
+        this.passes = passes;
+    }
+
+    public long getBytesMoved() {
+        return bytesMoved;
+    }
+
+    public void setBytesMoved(long bytesMoved) {
+        this.bytesMoved = bytesMoved;
+    }
+
+    // Out-of-core sorts report file traffic and the number of sorted runs they spilled
+    public long getIoBytes() {
+        return ioBytes;
+    }
+
+    public void setIoBytes(long ioBytes) {
+        this.ioBytes = ioBytes;
+    }
+
+    public int getRunCount() {
+        return runCount;
+    }
+
+    public void setRunCount(int runCount) {
+        this.runCount = runCount;
+    }
+
+    // CPU time of the calling thread and the algorithm's pool workers, so parallel sorts report more than their
+    // wall time
+    public long getCpuTime() {
+        return cpuTime;
+    }
+
+    public void setCpuTime(long cpuTime) {
+        this.cpuTime = cpuTime;
+    }
+
+    public long getGcCount() {
+        return gcCount;
+    }
+
+    public void setGcCount(long gcCount) {
+        this.gcCount = gcCount;
+    }
+
+    public long getGcTime() {
+        return gcTime;
+    }
+
+    public void setGcTime(long gcTime) {
+        this.gcTime = gcTime;
+    }
+
+    public int getMeasuredRuns() {
+        return measuredRuns;
+    }
+
+    public void setMeasuredRuns(int measuredRuns) {
+        this.measuredRuns = measuredRuns;
+    }
+
+    public double getMeanTime() {
+        return meanTime;
+    }
+
+    public void setMeanTime(double meanTime) {
+        this.meanTime = meanTime;
+    }
+
+    public double getStdDevTime() {
+        return stdDevTime;
+    }
+
+    public void setStdDevTime(double stdDevTime) {
+        this.stdDevTime = stdDevTime;
+    }
+
+    public long getMinTime() {
+        return minTime;
+    }
+
+    public void setMinTime(long minTime) {
+        this.minTime = minTime;
+    }
+
+    public long getMaxTime() {
+        return maxTime;
+    }
+
+    public void setMaxTime(long maxTime) {
+        this.maxTime = maxTime;
+    }
+
+    public long getP90Time() {
+        return p90Time;
+    }
+
+    public void setP90Time(long p90Time) {
+        this.p90Time = p90Time;
+    }
+
+    public long getP99Time() {
+        return p99Time;
+    }
+
+    public void setP99Time(long p99Time) {
+        this.p99Time = p99Time;
+    }
+
     public void report() {
         System.out.println("Performance Report:");
         System.out.println("Time taken: " + timeTaken + " ns");
-        System.out.println("Comparisons: " + comparisons);
-        System.out.println("Swaps: " + swaps);
-        System.out.println("Memory used: " + memoryUsed + " bytes");
+        if (measuredRuns > 1) {
+            System.out.println("Runs: " + measuredRuns + String.format(" (mean %.0f ns, stddev %.0f ns, p90 %d ns, p99 %d ns)",
+                    meanTime, stdDevTime, p90Time, p99Time));
+        }
+        if (cpuTime >= 0) {
+            System.out.println("CPU time: " + cpuTime + " ns");
+        }
+        if (passes > 0) {
+            System.out.println("Passes: " + passes);
+            if (bytesMoved > 0) {
+                System.out.println("Bytes moved: " + bytesMoved);
+            }
+        } else {
+            System.out.println("Comparisons: " + comparisons);
+            System.out.println("Swaps: " + swaps);
+        }
+        if (runCount > 0) {
+            System.out.println("Sorted runs: " + runCount);
+            System.out.println("I/O: " + ioBytes + " bytes");
+        }
+        System.out.println("Memory allocated: " + memoryUsed + " bytes");
+        if (gcCount > 0) {
+            System.out.println("GC: " + gcCount + " collections, " + gcTime + " ms");
+        }
         System.out.println("Thread count: " + threadCount);
     }
 }
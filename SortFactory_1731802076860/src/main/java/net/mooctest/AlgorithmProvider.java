@@ -0,0 +1,13 @@
+package net.mooctest;
+
+import java.util.List;
+
+// Service provider interface for algorithms: implementations listed in
+// META-INF/services/net.mooctest.AlgorithmProvider are picked up by AlgorithmRegistry
+public interface AlgorithmProvider {
+    // Lower-case names, as passed to AlgorithmFactory.getAlgorithm
+    List<String> getNames();
+
+    // Parallel algorithms should run on pools from the given resources rather than creating their own
+    Algorithm create(String name, int parallelism, ExecutionResources resources);
+}
@@ -0,0 +1,101 @@
+package net.mooctest;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Hands out one cached instance per algorithm name and parallelism. Algorithms are stateless, so an instance can
+// serve any number of concurrent callers, and parallel ones all borrow their pools from the same resources
+public class AlgorithmRegistry {
+    private static AlgorithmRegistry shared;
+
+    private ExecutionResources resources;
+    private Map<String, AlgorithmProvider> providers = new LinkedHashMap<>();
+    private ConcurrentMap<String, Algorithm> instances = new ConcurrentHashMap<>();
+
+    // Built-in algorithms first, then any found through ServiceLoader; a name keeps its first provider
+    public AlgorithmRegistry(ExecutionResources resources) {
+        this(ServiceLoader.load(AlgorithmProvider.class), resources);
+    }
+
+    public AlgorithmRegistry(Iterable<AlgorithmProvider> extraProviders, ExecutionResources resources) {
+        this.resources = resources;
+        register(new BuiltinAlgorithmProvider());
+        for (AlgorithmProvider provider : extraProviders) {
+            register(provider);
+        }
+    }
+
+    // Follows the shared execution resources: once those are shut down, the next call builds a new registry
+    public static synchronized AlgorithmRegistry getShared() {
+        ExecutionResources resources = ExecutionResources.getShared();
+        if (shared == null || shared.resources != resources) {
+            shared = new AlgorithmRegistry(resources);
+        }
+        return shared;
+    }
+
+    // Drops the instances built on the shared pools; holders of the old registry get fresh ones on their next get
+    public static synchronized void clearShared() {
+        if (shared != null) {
+            shared.detach();
+            shared = null;
+        }
+    }
+
+    private void register(AlgorithmProvider provider) {
+        for (String name : provider.getNames()) {
+            providers.putIfAbsent(name.toLowerCase(), provider);
+        }
+    }
+
+    public Algorithm get(String name) {
+        return get(name, currentResources().getMaxParallelism());
+    }
+
+    public Algorithm get(String name, int parallelism) {
+        ExecutionResources resources;
+        ConcurrentMap<String, Algorithm> cache;
+        synchronized (this) {
+            resources = currentResources();
+            cache = instances;
+        }
+        String key = name.toLowerCase();
+        AlgorithmProvider provider = providers.get(key);
+        if (provider == null) {
+            throw new AlgorithmNotFoundException("Algorithm not found: " + name);
+        }
+        int effective = resources.effectiveParallelism(parallelism);
+        return cache.computeIfAbsent(key + "@" + effective, cacheKey -> provider.create(key, effective, resources));
+    }
+
+    public List<String> getNames() {
+        return new ArrayList<>(providers.keySet());
+    }
+
+    public synchronized int getCachedInstanceCount() {
+        return instances.size();
+    }
+
+    public ExecutionResources getResources() {
+        return currentResources();
+    }
+
+    // A cleared shared registry moves on to the current shared resources
+    private synchronized ExecutionResources currentResources() {
+        if (resources == null) {
+            resources = ExecutionResources.getShared();
+        }
+        return resources;
+    }
+
+    // A fresh map, so a get that started before the detach cannot put an old instance back
+    private synchronized void detach() {
+        instances = new ConcurrentHashMap<>();
+        resources = null;
+    }
+}
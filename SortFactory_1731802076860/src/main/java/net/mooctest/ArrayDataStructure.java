@@ -50,4 +50,20 @@ public class ArrayDataStructure implements DataStructure {
         }
         array[index] = value;
     }
+
+    @Override
+    public void read(int from, int[] target, int offset, int count) {
+        if (from < 0 || from + count > size) {
+            throw new ArrayIndexOutOfBoundsException("Invalid range: " + from + "+" + count);
+        }
+        System.arraycopy(array, from, target, offset, count);
+    }
+
+    @Override
+    public void write(int from, int[] source, int offset, int count) {
+        if (from < 0 || from + count > size) {
+            throw new ArrayIndexOutOfBoundsException("Invalid range: " + from + "+" + count);
+        }
+        System.arraycopy(source, offset, array, from, count);
+    }
 }
@@ -1,50 +1,145 @@
 package net.mooctest;
 
+import java.util.Arrays;
+
+// AVL tree ordered by value, with subtree sizes so elements can be addressed by rank; duplicates are kept
 public class BSTDataStructure implements DataStructure {
+    private static final int MAX_HEIGHT = 64; // An AVL tree of 2^31 nodes is at most 45 levels deep
+
 	public class Node {
         int data;
         Node left, right;
+        int height;
+        int size;
 
         public Node(int data) {
             this.data = data;
             left = right = null;
+            height = 1;
+            size = 1;
         }
     }
 
     private Node root;
     private int size;
+    private Node[] path = new Node[MAX_HEIGHT]; // Scratch for add and removeAt only; readers keep their own stack
 
     public BSTDataStructure() {
         root = null;
         size = 0;
     }
 
-    public Node addRecursive(Node current, int value) {
-        if (current == null) {
-            return new Node(value);
-        }
-        if (value < current.data) {
-            current.left = addRecursive(current.left, value);
-        } else if (value > current.data) {
-            current.right = addRecursive(current.right, value);
-        }
-        return current;
-    }
-
+    // Equal values go right, so later duplicates rank after earlier ones
     @Override
     public void add(int value) {
-        root = addRecursive(root, value);
+        int depth = 0;
+        Node current = root;
+        while (current != null) {
+            path[depth++] = current;
+            current = value < current.data ? current.left : current.right;
+        }
+        Node node = new Node(value);
+        if (depth == 0) {
+            root = node;
+        } else if (value < path[depth - 1].data) {
+            path[depth - 1].left = node;
+        } else {
+            path[depth - 1].right = node;
+        }
         size++;
+        retrace(depth);
     }
 
+    // Element with the given rank in ascending order
     @Override
     public int get(int index) {
-        throw new UnsupportedOperationException("BST does not support index-based access");
+        checkIndex(index);
+        Node current = root;
+        while (true) {
+            int leftSize = size(current.left);
+            if (index < leftSize) {
+                current = current.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                current = current.right;
+            } else {
+                return current.data;
+            }
+        }
     }
 
+    // The tree stays sorted, so the new value takes whatever rank its order dictates
     @Override
     public void set(int index, int value) {
-        throw new UnsupportedOperationException("BST does not support index-based modification");
+        removeAt(index);
+        add(value);
+    }
+
+    public int removeAt(int index) {
+        checkIndex(index);
+        int depth = 0;
+        Node current = root;
+        while (true) {
+            path[depth++] = current;
+            int leftSize = size(current.left);
+            if (index < leftSize) {
+                current = current.left;
+            } else if (index > leftSize) {
+                index -= leftSize + 1;
+                current = current.right;
+            } else {
+                break;
+            }
+        }
+        int removed = current.data;
+        Node target = current;
+        if (target.left != null && target.right != null) {
+            // Replace the value with its in-order successor and unlink the successor instead
+            Node successor = target.right;
+            path[depth++] = successor;
+            while (successor.left != null) {
+                successor = successor.left;
+                path[depth++] = successor;
+            }
+            target.data = successor.data;
+            target = successor;
+        }
+        Node child = target.left != null ? target.left : target.right;
+        depth--;
+        if (depth == 0) {
+            root = child;
+        } else if (path[depth - 1].left == target) {
+            path[depth - 1].left = child;
+        } else {
+            path[depth - 1].right = child;
+        }
+        size--;
+        retrace(depth);
+        return removed;
+    }
+
+    // Rank of the first element >= value, or size() when all are smaller
+    public int lowerBound(int value) {
+        int rank = 0;
+        Node current = root;
+        while (current != null) {
+            if (current.data < value) {
+                rank += size(current.left) + 1;
+                current = current.right;
+            } else {
+                current = current.left;
+            }
+        }
+        return rank;
+    }
+
+    public int indexOf(int value) {
+        int rank = lowerBound(value);
+        return rank < size && get(rank) == value ? rank : -1;
+    }
+
+    public int height() {
+        return height(root);
     }
 
     @Override
@@ -55,24 +150,117 @@ public class BSTDataStructure implements DataStructure {
     @Override
     public int[] toArray() {
         int[] result = new int[size];
-        inorderToArray(root, result, new int[]{0});
+        Node[] stack = new Node[height(root)];
+        int index = 0;
+        int depth = 0;
+        Node current = root;
+        while (current != null || depth > 0) {
+            while (current != null) {
+                stack[depth++] = current;
+                current = current.left;
+            }
+            current = stack[--depth];
+            result[index++] = current.data;
+            current = current.right;
+        }
         return result;
     }
 
-    public void inorderToArray(Node node, int[] result, int[] index) {
-        if (node != null) {
-            inorderToArray(node.left, result, index);
-            result[index[0]++] = node.data;
-            inorderToArray(node.right, result, index);
+    // Builds a perfectly balanced tree in O(n) once the input is sorted
+    @Override
+    public void fromArray(int[] data) {
+        int[] sorted = data;
+        for (int i = 1; i < data.length; i++) {
+            if (data[i - 1] > data[i]) {
+                sorted = Arrays.copyOf(data, data.length);
+                Arrays.sort(sorted);
+                break;
+            }
+        }
+        root = build(sorted, 0, sorted.length);
+        size = sorted.length;
+    }
+
+    private Node build(int[] sorted, int from, int to) {
+        if (from >= to) {
+            return null;
         }
+        int mid = (from + to) >>> 1;
+        Node node = new Node(sorted[mid]);
+        node.left = build(sorted, from, mid);
+        node.right = build(sorted, mid + 1, to);
+        update(node);
+        return node;
     }
 
-    @Override
-    public void fromArray(int[] data) {
-        root = null;
-        size = 0;
-        for (int value : data) {
-            add(value);
+    // Walks back up the recorded path, fixing sizes and heights and rotating where the balance is off by two
+    private void retrace(int depth) {
+        for (int i = depth - 1; i >= 0; i--) {
+            Node node = path[i];
+            Node balanced = balance(node);
+            if (i == 0) {
+                root = balanced;
+            } else if (path[i - 1].left == node) {
+                path[i - 1].left = balanced;
+            } else {
+                path[i - 1].right = balanced;
+            }
+            path[i] = null;
+        }
+    }
+
+    private Node balance(Node node) {
+        update(node);
+        int balance = height(node.left) - height(node.right);
+        if (balance > 1) {
+            if (height(node.left.left) < height(node.left.right)) {
+                node.left = rotateLeft(node.left);
+            }
+            return rotateRight(node);
+        }
+        if (balance < -1) {
+            if (height(node.right.right) < height(node.right.left)) {
+                node.right = rotateRight(node.right);
+            }
+            return rotateLeft(node);
+        }
+        return node;
+    }
+
+    private Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = node;
+        update(node);
+        update(pivot);
+        return pivot;
+    }
+
+    private void update(Node node) {
+        node.height = 1 + Math.max(height(node.left), height(node.right));
+        node.size = 1 + size(node.left) + size(node.right);
+    }
+
+    private int height(Node node) {
+        return node == null ? 0 : node.height;
+    }
+
+    private int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException("Invalid index: " + index);
         }
     }
 }
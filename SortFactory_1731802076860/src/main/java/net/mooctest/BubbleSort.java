@@ -1,18 +1,13 @@
 package net.mooctest;
 
 public class BubbleSort implements Algorithm {
-    private int comparisons = 0;
-    private int swaps = 0;
-
     @Override
-    public void sort(DataStructure data) {
-        comparisons = 0;
-        swaps = 0;
+    public void sort(DataStructure data, SortMetrics metrics) {
         for (int i = 0; i < data.size() - 1; i++) {
             for (int j = 0; j < data.size() - i - 1; j++) {
-                comparisons++;
+                metrics.compare();
                 if (data.get(j) > data.get(j + 1)) {
-                    swaps++;
+                    metrics.swap();
                     swap(data, j, j + 1);
                 }
             }
@@ -42,10 +37,6 @@ public class BubbleSort implements Algorithm {
 
     @Override
     public AlgorithmPerformance evaluatePerformance(DataStructure data) {
-        long startTime = System.nanoTime();
-        sort(data);
-        long endTime = System.nanoTime();
-        long memoryUsed = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        return new AlgorithmPerformance(endTime - startTime, comparisons, swaps, memoryUsed, 1);
+        return new PerformanceMeter().measure(this, data, 1);
     }
 }
@@ -0,0 +1,39 @@
+package net.mooctest;
+
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.List;
+
+public class BuiltinAlgorithmProvider implements AlgorithmProvider {
+    @Override
+    public List<String> getNames() {
+        return Arrays.asList(AlgorithmFactory.ALGORITHM_NAMES);
+    }
+
+    @Override
+    public Algorithm create(String name, int parallelism, ExecutionResources resources) {
+        switch (name) {
+            case "quicksort":
+                return new OptimizedQuickSort();
+            case "bubblesort":
+                return new BubbleSort();
+            case "parallelmergesort":
+                return new ParallelMergeSort(resources.forkJoinPool(parallelism));
+            case "parallelsamplesort":
+                return new ParallelSampleSort(resources.forkJoinPool(parallelism));
+            case "radixsort":
+                return new RadixSort(resources.forkJoinPool(parallelism));
+            case "introsort":
+                return new IntroSort();
+            case "naturalmergesort":
+                return new NaturalMergeSort();
+            case "externalsort":
+                return new ExternalSort(Runtime.getRuntime().maxMemory() / 4, parallelism,
+                        Paths.get(System.getProperty("java.io.tmpdir")));
+            case "heapsort":
+                return new HeapSort();
+            default:
+                throw new AlgorithmNotFoundException("Algorithm not found: " + name);
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package net.mooctest;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+// Ascending ints stored as blocks of BLOCK_SIZE deltas bit-packed at one width per block (patched frame of
+// reference): the width is chosen so that a few large gaps become exceptions stored on the side instead of
+// widening every delta in the block. Each block has a header with its first value and where its bits start, so a
+// lookup binary-searches the headers and decodes a single block. The last, incomplete block is kept unpacked.
+// set switches to a plain positional copy, so in-place sorting algorithms work; the next sorted operation sorts
+// and packs that copy again
+public class CompressedSortedDataStructure implements DataStructure {
+    public static final int BLOCK_SHIFT = 7;
+    public static final int BLOCK_SIZE = 1 << BLOCK_SHIFT;
+    private static final int WORDS_PER_BIT = BLOCK_SIZE / Long.SIZE; // A block of width b takes exactly 2b longs
+    private static final int EXCEPTION_BITS = 2 * Integer.SIZE; // Position and high bits, an int each
+    private static final int HEADER_BYTES = 3 * Integer.BYTES + 1;
+
+    private int blockCount;
+    private int[] blockFirst = new int[16];
+    private int[] blockWord = new int[17];
+    private byte[] blockBits = new byte[16];
+    private int[] blockException = new int[17];
+    private long[] words = new long[64];
+    private int[] exceptions = new int[16];
+    private int[] tail = new int[BLOCK_SIZE];
+    private int tailSize;
+    private int[] deltas = new int[BLOCK_SIZE];
+    private int[] cached = new int[BLOCK_SIZE];
+    private int cachedBlock = -1;
+    private int[] positional; // Set after set(), until the next sorted operation
+    private int generation; // Bumped whenever packed blocks are thrown away, so iterators can notice
+
+    @Override
+    public int size() {
+        if (positional != null) {
+            return positional.length;
+        }
+        return blockCount * BLOCK_SIZE + tailSize;
+    }
+
+    // Values must arrive in ascending order; anything else would need the packed blocks rewritten
+    @Override
+    public void add(int value) {
+        settle();
+        int size = size();
+        if (size > 0 && value < last()) {
+            throw new InvalidDataException("Values must be added in ascending order: " + value + " after " + last());
+        }
+        tail[tailSize++] = value;
+        if (tailSize == BLOCK_SIZE) {
+            encodeBlock(tail, 0);
+            tailSize = 0;
+        }
+    }
+
+    @Override
+    public int get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new ArrayIndexOutOfBoundsException("Invalid index: " + index);
+        }
+        if (positional != null) {
+            return positional[index];
+        }
+        int block = index >>> BLOCK_SHIFT;
+        return block < blockCount ? decodeCached(block)[index & (BLOCK_SIZE - 1)] : tail[index - blockCount * BLOCK_SIZE];
+    }
+
+    // Packed blocks cannot be patched in place, so the first set decodes everything and later ones write there
+    @Override
+    public void set(int index, int value) {
+        if (index < 0 || index >= size()) {
+            throw new ArrayIndexOutOfBoundsException("Invalid index: " + index);
+        }
+        if (positional == null) {
+            positional = toArray();
+        }
+        positional[index] = value;
+    }
+
+    // Sorts a copy first, so sorting algorithms can write their result back through here
+    @Override
+    public void fromArray(int[] data) {
+        int[] sorted = data.clone();
+        Arrays.sort(sorted);
+        clear();
+        int full = sorted.length / BLOCK_SIZE;
+        for (int block = 0; block < full; block++) {
+            encodeBlock(sorted, block * BLOCK_SIZE);
+        }
+        tailSize = sorted.length - full * BLOCK_SIZE;
+        System.arraycopy(sorted, full * BLOCK_SIZE, tail, 0, tailSize);
+    }
+
+    @Override
+    public int[] toArray() {
+        int[] result = new int[size()];
+        read(0, result, 0, result.length);
+        return result;
+    }
+
+    // Bulk decode: whole blocks are unpacked straight into the target
+    @Override
+    public void read(int from, int[] target, int offset, int count) {
+        if (from < 0 || count < 0 || (long) from + count > size()) {
+            throw new ArrayIndexOutOfBoundsException("Invalid range: " + from + "+" + count);
+        }
+        if (positional != null) {
+            System.arraycopy(positional, from, target, offset, count);
+            return;
+        }
+        while (count > 0) {
+            int block = from >>> BLOCK_SHIFT;
+            int inBlock = from & (BLOCK_SIZE - 1);
+            int chunk;
+            if (block >= blockCount) {
+                chunk = count;
+                System.arraycopy(tail, from - blockCount * BLOCK_SIZE, target, offset, chunk);
+            } else if (inBlock == 0 && count >= BLOCK_SIZE) {
+                chunk = BLOCK_SIZE;
+                decodeBlock(block, target, offset);
+            } else {
+                chunk = Math.min(count, BLOCK_SIZE - inBlock);
+                System.arraycopy(decodeCached(block), inBlock, target, offset, chunk);
+            }
+            from += chunk;
+            offset += chunk;
+            count -= chunk;
+        }
+    }
+
+    // Rank of the first element >= value, or size() when all are smaller
+    public int lowerBound(int value) {
+        settle();
+        int low = 0;
+        int high = blockCount;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (blockFirst[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        // Every block before `low` starts below value, so the answer lies in block low - 1 or right after it
+        int block = low - 1;
+        if (block >= 0) {
+            int position = lowerBound(decodeCached(block), BLOCK_SIZE, value);
+            if (position < BLOCK_SIZE || block + 1 < blockCount) {
+                return block * BLOCK_SIZE + position;
+            }
+        } else if (blockCount > 0) {
+            return 0;
+        }
+        return blockCount * BLOCK_SIZE + lowerBound(tail, tailSize, value);
+    }
+
+    public int indexOf(int value) {
+        int rank = lowerBound(value);
+        return rank < size() && get(rank) == value ? rank : -1;
+    }
+
+    public boolean contains(int value) {
+        return indexOf(value) >= 0;
+    }
+
+    // Decodes one block at a time. Packed blocks never change, so copying the tail makes this a snapshot: values
+    // added later are not seen. Replacing the contents (fromArray, clear, re-sorting after set) ends the iteration
+    public PrimitiveIterator.OfInt iterator() {
+        settle();
+        int size = size();
+        int blocks = blockCount;
+        int[] tailCopy = Arrays.copyOf(tail, tailSize);
+        int expectedGeneration = generation;
+        return new PrimitiveIterator.OfInt() {
+            private int[] values = new int[BLOCK_SIZE];
+            private int decodedBlock = -1;
+            private int index = 0;
+
+            @Override
+            public boolean hasNext() {
+                return index < size;
+            }
+
+            @Override
+            public int nextInt() {
+                if (index >= size) {
+                    throw new NoSuchElementException();
+                }
+                if (generation != expectedGeneration) {
+                    throw new ConcurrentModificationException("Contents were replaced during iteration");
+                }
+                int block = index >>> BLOCK_SHIFT;
+                int inBlock = index & (BLOCK_SIZE - 1);
+                index++;
+                if (block >= blocks) {
+                    return tailCopy[inBlock];
+                }
+                if (block != decodedBlock) {
+                    decodeBlock(block, values, 0);
+                    decodedBlock = block;
+                }
+                return values[inBlock];
+            }
+        };
+    }
+
+    public int getBlockCount() {
+        settle();
+        return blockCount;
+    }
+
+    public int getBlockBits(int block) {
+        settle();
+        return blockBits[block];
+    }
+
+    public int getBlockExceptions(int block) {
+        settle();
+        return (blockException[block + 1] - blockException[block]) / 2;
+    }
+
+    // Bytes actually holding data: packed words, exceptions, block headers and the unpacked tail
+    public long getCompressedBytes() {
+        settle();
+        return (long) blockWord[blockCount] * Long.BYTES + (long) blockException[blockCount] * Integer.BYTES
+                + (long) blockCount * HEADER_BYTES + (long) tailSize * Integer.BYTES;
+    }
+
+    public void clear() {
+        blockCount = 0;
+        tailSize = 0;
+        cachedBlock = -1;
+        positional = null;
+        generation++;
+    }
+
+    // Sorts and packs the positional copy left by set
+    private void settle() {
+        if (positional != null) {
+            fromArray(positional);
+        }
+    }
+
+    // Writes values[from, from + BLOCK_SIZE) as a new block
+    private void encodeBlock(int[] values, int from) {
+        int[] widths = new int[Integer.SIZE + 1];
+        deltas[0] = 0;
+        widths[0]++;
+        for (int i = 1; i < BLOCK_SIZE; i++) {
+            // Ascending, so the difference fits in 32 bits when read as unsigned
+            deltas[i] = values[from + i] - values[from + i - 1];
+            widths[Integer.SIZE - Integer.numberOfLeadingZeros(deltas[i])]++;
+        }
+        // Cheapest width counting each delta that does not fit as an exception
+        int bits = Integer.SIZE;
+        long bestCost = Long.MAX_VALUE;
+        int exceptionCount = BLOCK_SIZE;
+        for (int width = 0; width <= Integer.SIZE; width++) {
+            exceptionCount -= widths[width];
+            long cost = (long) BLOCK_SIZE * width + (long) exceptionCount * EXCEPTION_BITS;
+            if (cost < bestCost) {
+                bestCost = cost;
+                bits = width;
+            }
+        }
+
+        ensureBlockCapacity(bits);
+        int block = blockCount;
+        int word = blockWord[block];
+        int exception = blockException[block];
+        Arrays.fill(words, word, word + bits * WORDS_PER_BIT, 0L);
+        long mask = (1L << bits) - 1;
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            long delta = deltas[i] & 0xFFFFFFFFL;
+            if (delta > mask) {
+                exceptions[exception++] = i;
+                exceptions[exception++] = (int) (delta >>> bits);
+            }
+            pack(word, i * bits, bits, delta & mask);
+        }
+        blockFirst[block] = values[from];
+        blockBits[block] = (byte) bits;
+        blockWord[block + 1] = word + bits * WORDS_PER_BIT;
+        blockException[block + 1] = exception;
+        blockCount++;
+    }
+
+    private void pack(int word, int bit, int bits, long value) {
+        if (bits == 0) {
+            return;
+        }
+        int index = word + (bit >>> 6);
+        int shift = bit & 63;
+        words[index] |= value << shift;
+        if (shift + bits > Long.SIZE) {
+            words[index + 1] |= value >>> (Long.SIZE - shift);
+        }
+    }
+
+    public void decodeBlock(int block, int[] target, int offset) {
+        if (block < 0 || block >= blockCount) {
+            throw new ArrayIndexOutOfBoundsException("Invalid block: " + block);
+        }
+        int bits = blockBits[block];
+        int word = blockWord[block];
+        long mask = (1L << bits) - 1;
+        if (bits == 0) {
+            Arrays.fill(deltas, 0);
+        } else {
+            for (int i = 0, bit = 0; i < BLOCK_SIZE; i++, bit += bits) {
+                int index = word + (bit >>> 6);
+                int shift = bit & 63;
+                long value = words[index] >>> shift;
+                if (shift + bits > Long.SIZE) {
+                    value |= words[index + 1] << (Long.SIZE - shift);
+                }
+                deltas[i] = (int) (value & mask);
+            }
+        }
+        for (int e = blockException[block]; e < blockException[block + 1]; e += 2) {
+            deltas[exceptions[e]] |= exceptions[e + 1] << bits;
+        }
+        // Prefix sum in wrapping int arithmetic gives back the original values
+        int value = blockFirst[block];
+        for (int i = 0; i < BLOCK_SIZE; i++) {
+            value += deltas[i];
+            target[offset + i] = value;
+        }
+    }
+
+    private int[] decodeCached(int block) {
+        if (block != cachedBlock) {
+            decodeBlock(block, cached, 0);
+            cachedBlock = block;
+        }
+        return cached;
+    }
+
+    private int last() {
+        if (tailSize > 0) {
+            return tail[tailSize - 1];
+        }
+        return decodeCached(blockCount - 1)[BLOCK_SIZE - 1];
+    }
+
+    private void ensureBlockCapacity(int bits) {
+        if (blockCount + 1 >= blockFirst.length) {
+            int capacity = blockFirst.length * 2;
+            blockFirst = Arrays.copyOf(blockFirst, capacity);
+            blockBits = Arrays.copyOf(blockBits, capacity);
+            blockWord = Arrays.copyOf(blockWord, capacity + 1);
+            blockException = Arrays.copyOf(blockException, capacity + 1);
+        }
+        int neededWords = blockWord[blockCount] + bits * WORDS_PER_BIT;
+        if (neededWords > words.length) {
+            words = Arrays.copyOf(words, Math.max(neededWords, words.length * 2));
+        }
+        int neededExceptions = blockException[blockCount] + 2 * BLOCK_SIZE;
+        if (neededExceptions > exceptions.length) {
+            exceptions = Arrays.copyOf(exceptions, Math.max(neededExceptions, exceptions.length * 2));
+        }
+    }
+
+    private static int lowerBound(int[] a, int length, int value) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (a[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
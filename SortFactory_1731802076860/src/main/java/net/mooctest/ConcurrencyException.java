@@ -4,4 +4,8 @@ public class ConcurrencyException extends RuntimeException {
     public ConcurrencyException(String message) {
         super(message);
     }
+
+    public ConcurrencyException(String message, Throwable cause) {
+        super(message, cause);
+    }
 }
@@ -1,14 +1,18 @@
 package net.mooctest;
 
 import java.util.concurrent.*;
-import java.util.concurrent.locks.ReentrantLock;
 
 public class ConcurrentAlgorithmManager extends AlgorithmManager {
+    // Algorithms are stateless, so sorts of different structures run concurrently without a global lock
     private ExecutorService threadPool;
-    private ReentrantLock lock = new ReentrantLock();
+    private volatile boolean shutdown;
 
     public ConcurrentAlgorithmManager(int threadCount) {
-        threadPool = Executors.newFixedThreadPool(threadCount);
+        this(ExecutionResources.getShared().fixedPool(threadCount));
+    }
+
+    public ConcurrentAlgorithmManager(ExecutorService threadPool) {
+        this.threadPool = threadPool;
     }
 
     public Future<AlgorithmPerformance> parallelSort(String algoName, DataStructure data) throws Exception {
@@ -16,14 +20,8 @@ public class ConcurrentAlgorithmManager extends AlgorithmManager {
         if (algo == null) {
             throw new AlgorithmNotFoundException("Algorithm not found: " + algoName);
         }
-        return threadPool.submit(() -> {
-            lock.lock();
-            try {
-                return algo.evaluatePerformance(data);
-            } finally {
-                lock.unlock();
-            }
-        });
+        checkOpen();
+        return threadPool.submit(() -> algo.evaluatePerformance(data));
     }
 
     public Future<Integer> parallelSearch(String algoName, DataStructure data, int target) throws Exception {
@@ -31,17 +29,18 @@ public class ConcurrentAlgorithmManager extends AlgorithmManager {
         if (algo == null) {
             throw new AlgorithmNotFoundException("Algorithm not found: " + algoName);
         }
-        return threadPool.submit(() -> {
-            lock.lock();
-            try {
-                return algo.search(data, target);
-            } finally {
-                lock.unlock();
-            }
-        });
+        checkOpen();
+        return threadPool.submit(() -> algo.search(data, target));
+    }
+
+    private void checkOpen() {
+        if (shutdown) {
+            throw new ConcurrencyException("Manager has been shut down");
+        }
     }
 
+    // The pool belongs to ExecutionResources and stays up for its other users; only this manager stops
     public void shutdown() {
-        threadPool.shutdown();
+        shutdown = true;
     }
 }
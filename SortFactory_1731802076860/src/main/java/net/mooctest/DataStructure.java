@@ -7,4 +7,17 @@ public interface DataStructure {
     void add(int value);
     int get(int index);
     void set(int index, int value);
+
+    // Bulk access to a range; structures with contiguous storage override these with block copies
+    default void read(int from, int[] target, int offset, int count) {
+        for (int i = 0; i < count; i++) {
+            target[offset + i] = get(from + i);
+        }
+    }
+
+    default void write(int from, int[] source, int offset, int count) {
+        for (int i = 0; i < count; i++) {
+            set(from + i, source[offset + i]);
+        }
+    }
 }
@@ -0,0 +1,71 @@
+package net.mooctest;
+
+import java.util.Arrays;
+import java.util.Random;
+
+// Input generators shared by the benchmarks and by PerformanceTracker when it maps benchmark results to features
+public class Distributions {
+    public static final String[] DISTRIBUTION_NAMES = {
+            "uniform", "sorted", "reversed", "fewunique", "organpipe", "zipf"
+    };
+
+    private static final int FEW_UNIQUE_VALUES = 16;
+    private static final int ZIPF_MAX_RANKS = 1 << 16;
+    private static final double ZIPF_EXPONENT = 1.0;
+
+    public static int[] generate(String name, int size, long seed) {
+        Random random = new Random(seed);
+        int[] values = new int[size];
+        switch (name.toLowerCase()) {
+            case "uniform":
+                for (int i = 0; i < size; i++) {
+                    values[i] = random.nextInt();
+                }
+                break;
+            case "sorted":
+                for (int i = 0; i < size; i++) {
+                    values[i] = i;
+                }
+                break;
+            case "reversed":
+                for (int i = 0; i < size; i++) {
+                    values[i] = size - i;
+                }
+                break;
+            case "fewunique":
+                for (int i = 0; i < size; i++) {
+                    values[i] = random.nextInt(FEW_UNIQUE_VALUES);
+                }
+                break;
+            case "organpipe":
+                for (int i = 0; i < size; i++) {
+                    values[i] = i < size / 2 ? i : size - 1 - i;
+                }
+                break;
+            case "zipf":
+                fillZipf(values, random);
+                break;
+            default:
+                throw new InvalidDataException("Unknown distribution: " + name);
+        }
+        return values;
+    }
+
+    // Rank k is drawn with probability proportional to 1 / k^s; ranks are scrambled so frequent values are not also small
+    private static void fillZipf(int[] values, Random random) {
+        int ranks = Math.max(1, Math.min(values.length, ZIPF_MAX_RANKS));
+        double[] cumulative = new double[ranks];
+        double total = 0;
+        for (int k = 0; k < ranks; k++) {
+            total += 1.0 / Math.pow(k + 1, ZIPF_EXPONENT);
+            cumulative[k] = total;
+        }
+        for (int i = 0; i < values.length; i++) {
+            int rank = Arrays.binarySearch(cumulative, random.nextDouble() * total);
+            if (rank < 0) {
+                rank = -rank - 1;
+            }
+            values[i] = (Math.min(rank, ranks - 1) + 1) * 0x9E3779B1;
+        }
+    }
+}
@@ -1,22 +1,151 @@
 package net.mooctest;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
 public class DynamicAlgorithmManager extends AlgorithmManager {
+    private static final double DEFAULT_EXPLORATION_RATE = 0.05;
+    private static final int FREE_EXPLORATION_BUCKET = 10; // Inputs up to 1024 elements are cheap enough to try any other algorithm
+    private static final double EXPLORATION_SLOWDOWN_LIMIT = 8.0;
+    // Quadratic or disk-bound at any size, so trying them never teaches the selector anything useful
+    private static final Set<String> NEVER_EXPLORED = new HashSet<>(Arrays.asList("Bubble Sort", "External Sort"));
+
     private PerformanceTracker performanceTracker;
+    private double explorationRate;
+    private Random random;
 
     public DynamicAlgorithmManager(PerformanceTracker performanceTracker) {
+        this(performanceTracker, DEFAULT_EXPLORATION_RATE, new Random());
+    }
+
+    public DynamicAlgorithmManager(PerformanceTracker performanceTracker, double explorationRate, Random random) {
         this.performanceTracker = performanceTracker;
+        this.explorationRate = explorationRate;
+        this.random = random;
+    }
+
+    public SelectionDecision autoSelectAndSort(DataStructure data) throws Exception {
+        SelectionDecision decision = selectAlgorithm(data);
+        decision.report();
+        Algorithm algo = getAlgorithm(decision.getAlgorithmName());
+        if (algo == null) {
+            throw new AlgorithmNotFoundException("Algorithm not found: " + decision.getAlgorithmName());
+        }
+        int size = data.size();
+        AlgorithmPerformance performance = algo.evaluatePerformance(data);
+        performanceTracker.recordRun(decision.getFeatures().getKey(), algo.getName(), size, performance);
+        return decision;
+    }
+
+    public SelectionDecision selectAlgorithm(DataStructure data) {
+        InputFeatures features = InputFeatures.extract(data);
+        String key = features.getKey();
+
+        // Exploit: the lowest median latency measured for inputs with these features, so one lucky run does not win.
+        // Without such runs the whole size bucket decides, whatever its order and duplicates; imported priors carry
+        // only a mean, so they decide until this manager has measured runs
+        Algorithm best = null;
+        long bestTime = Long.MAX_VALUE;
+        for (int pass = 0; pass < 2 && best == null; pass++) {
+            for (Algorithm algo : algorithms) {
+                LatencyHistogram histogram = pass == 0
+                        ? performanceTracker.getLatencyHistogram(algo.getName(), key)
+                        : performanceTracker.getLatencyHistogram(algo.getName(), features.getStructureType(),
+                                features.getSizeBucket());
+                if (histogram != null && histogram.getCount() > 0 && histogram.getValueAtPercentile(50) < bestTime) {
+                    best = algo;
+                    bestTime = histogram.getValueAtPercentile(50);
+                }
+            }
+        }
+        if (best == null) {
+            double bestCost = Double.MAX_VALUE;
+            for (Algorithm algo : algorithms) {
+                PerformanceTracker.RunHistory history = performanceTracker.getHistory(key, algo.getName());
+                if (history != null && history.getNanosPerElement() < bestCost) {
+                    best = algo;
+                    bestCost = history.getNanosPerElement();
+                }
+            }
+            if (best != null) {
+                bestTime = (long) (bestCost * Math.max(1, features.getSize()));
+            }
+        }
+
+        // Explore: occasionally run a plausible candidate with the least history so the model keeps adapting
+        if (best == null || random.nextDouble() < explorationRate) {
+            Algorithm candidate = explorationCandidate(features);
+            if (candidate != null && candidate != best) {
+                return new SelectionDecision(features, candidate.getName(), predict(key, candidate, features), true);
+            }
+        }
+        if (best == null) {
+            return new SelectionDecision(features, selectOptimalAlgorithm(features), -1, false);
+        }
+        return new SelectionDecision(features, best.getName(), bestTime, false);
     }
 
-    public void autoSelectAndSort(DataStructure data) throws Exception {
-        String optimalAlgo = selectOptimalAlgorithm(data);
-        System.out.println("Optimal algorithm selected: " + optimalAlgo);
-        sortData(optimalAlgo, data);
+    public Algorithm explorationCandidate(InputFeatures features) {
+        List<Algorithm> leastTried = new ArrayList<>();
+        long fewestRuns = Long.MAX_VALUE;
+        for (Algorithm algo : algorithms) {
+            if (!isWorthExploring(features, algo)) {
+                continue;
+            }
+            PerformanceTracker.RunHistory history = performanceTracker.getHistory(features.getKey(), algo.getName());
+            long runs = history == null ? 0 : history.getRuns();
+            if (runs < fewestRuns) {
+                leastTried.clear();
+                fewestRuns = runs;
+            }
+            if (runs == fewestRuns) {
+                leastTried.add(algo);
+            }
+        }
+        return leastTried.isEmpty() ? null : leastTried.get(random.nextInt(leastTried.size()));
+    }
+
+    // Large inputs are only tried with algorithms that did not fall far behind one size bucket down
+    public boolean isWorthExploring(InputFeatures features, Algorithm algo) {
+        if (NEVER_EXPLORED.contains(algo.getName())) {
+            return false;
+        }
+        if (features.getSizeBucket() <= FREE_EXPLORATION_BUCKET) {
+            return true;
+        }
+        String smallerKey = features.getSmallerKey();
+        PerformanceTracker.RunHistory history = performanceTracker.getHistory(smallerKey, algo.getName());
+        if (history == null) {
+            return false;
+        }
+        double bestCost = Double.MAX_VALUE;
+        for (Algorithm other : algorithms) {
+            PerformanceTracker.RunHistory otherHistory = performanceTracker.getHistory(smallerKey, other.getName());
+            if (otherHistory != null) {
+                bestCost = Math.min(bestCost, otherHistory.getNanosPerElement());
+            }
+        }
+        return history.getNanosPerElement() <= bestCost * EXPLORATION_SLOWDOWN_LIMIT;
+    }
+
+    private long predict(String key, Algorithm algo, InputFeatures features) {
+        PerformanceTracker.RunHistory history = performanceTracker.getHistory(key, algo.getName());
+        return history == null ? -1 : (long) (history.getNanosPerElement() * Math.max(1, features.getSize()));
     }
 
     public String selectOptimalAlgorithm(DataStructure data) {
-        if (isSorted(data)) {
-            return "InsertionSort";
-        } else if (data.size() > 1000) {
+        return selectOptimalAlgorithm(InputFeatures.extract(data));
+    }
+
+    // Built-in rules, used until the tracker has history for the input's features
+    public String selectOptimalAlgorithm(InputFeatures features) {
+        if ("sorted".equals(features.getOrderClass())) {
+            return "NaturalMergeSort";
+        } else if (features.getSize() > 1000) {
             return "ParallelMergeSort";
         } else {
             return "OptimizedQuickSort";
@@ -0,0 +1,176 @@
+package net.mooctest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Owns the thread pools that algorithms, searches and managers run on. Pools are shared by size, and sizes are
+// capped at maxParallelism, so asking for more threads than there are cores reuses a pool instead of adding one.
+// Nothing here creates threads until a pool is first requested; shutdown() releases them all
+public class ExecutionResources {
+    // Fixed pools are kept apart by purpose, so a task blocking on work in another pool can never starve it
+    public static final String JOBS = "jobs"; // Whole sort calls run by managers and services
+    public static final String IO = "io"; // Blocking file work such as external sort runs
+    public static final String BACKGROUND = "background"; // Housekeeping such as LSM compaction
+
+    private static ExecutionResources shared;
+
+    private int maxParallelism;
+    private Map<Integer, ForkJoinPool> forkJoinPools = new TreeMap<>();
+    private Map<String, ThreadPoolExecutor> fixedPools = new TreeMap<>();
+    private AtomicInteger threadNumber = new AtomicInteger();
+    private boolean shutdown;
+
+    public ExecutionResources() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public ExecutionResources(int maxParallelism) {
+        if (maxParallelism < 1) {
+            throw new InvalidDataException("Invalid parallelism: " + maxParallelism);
+        }
+        this.maxParallelism = maxParallelism;
+    }
+
+    // The process-wide instance; after shutdownShared() the next call starts a fresh set of pools
+    public static synchronized ExecutionResources getShared() {
+        if (shared == null || shared.isShutdown()) {
+            shared = new ExecutionResources();
+        }
+        return shared;
+    }
+
+    // Cached algorithms still point at the old pools, so the shared registry is cleared as well; that happens
+    // outside this class's lock because the registry takes its own lock first when it asks for the shared instance
+    public static void shutdownShared() {
+        synchronized (ExecutionResources.class) {
+            if (shared != null) {
+                shared.shutdown();
+                shared = null;
+            }
+        }
+        AlgorithmRegistry.clearShared();
+    }
+
+    public int getMaxParallelism() {
+        return maxParallelism;
+    }
+
+    public int effectiveParallelism(int requested) {
+        return Math.max(1, Math.min(requested, maxParallelism));
+    }
+
+    // One worker per core, the default for parallel algorithms
+    public ForkJoinPool forkJoinPool() {
+        return forkJoinPool(maxParallelism);
+    }
+
+    // For divide-and-conquer work (ForkJoinTasks)
+    public synchronized ForkJoinPool forkJoinPool(int parallelism) {
+        checkOpen();
+        return forkJoinPools.computeIfAbsent(effectiveParallelism(parallelism), ForkJoinPool::new);
+    }
+
+    // For independent, possibly blocking tasks; the threads are daemons so a forgotten shutdown never keeps
+    // the JVM alive
+    public ExecutorService fixedPool(int threads) {
+        return fixedPool(JOBS, threads);
+    }
+
+    public synchronized ExecutorService fixedPool(String purpose, int threads) {
+        checkOpen();
+        int size = effectiveParallelism(threads);
+        return fixedPools.computeIfAbsent(purpose + "-" + size, name -> new ThreadPoolExecutor(size, size,
+                0L, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<>(), new PoolThreadFactory("sortfactory-" + name)));
+    }
+
+    // Remembers its threads so PerformanceMeter can charge a call with the work done on the pool
+    public class PoolThreadFactory implements ThreadFactory {
+        private String prefix;
+        private Set<Thread> threads = ConcurrentHashMap.newKeySet();
+
+        public PoolThreadFactory(String prefix) {
+            this.prefix = prefix;
+        }
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, prefix + "-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            threads.add(thread);
+            return thread;
+        }
+
+        public List<Thread> getThreads() {
+            threads.removeIf(thread -> thread.getState() == Thread.State.TERMINATED);
+            return new ArrayList<>(threads);
+        }
+    }
+
+    private void checkOpen() {
+        if (shutdown) {
+            throw new ConcurrencyException("Execution resources are shut down");
+        }
+    }
+
+    public synchronized boolean isShutdown() {
+        return shutdown;
+    }
+
+    // Running tasks finish; no further pools are handed out
+    public synchronized void shutdown() {
+        shutdown = true;
+        for (ForkJoinPool pool : forkJoinPools.values()) {
+            pool.shutdown();
+        }
+        for (ThreadPoolExecutor pool : fixedPools.values()) {
+            pool.shutdown();
+        }
+    }
+
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long deadline = System.nanoTime() + unit.toNanos(timeout);
+        List<ExecutorService> pools = new ArrayList<>();
+        synchronized (this) {
+            pools.addAll(forkJoinPools.values());
+            pools.addAll(fixedPools.values());
+        }
+        for (ExecutorService pool : pools) {
+            if (!pool.awaitTermination(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public synchronized List<PoolStats> getPoolStats() {
+        List<PoolStats> stats = new ArrayList<>();
+        for (ForkJoinPool pool : forkJoinPools.values()) {
+            stats.add(new PoolStats("fork-join", pool.getParallelism(), pool.getPoolSize(), pool.getActiveThreadCount(),
+                    pool.getQueuedTaskCount() + pool.getQueuedSubmissionCount(), -1, pool.getStealCount()));
+        }
+        for (ThreadPoolExecutor pool : fixedPools.values()) {
+            stats.add(new PoolStats("fixed", pool.getCorePoolSize(), pool.getPoolSize(), pool.getActiveCount(),
+                    pool.getQueue().size(), pool.getCompletedTaskCount(), 0));
+        }
+        return stats;
+    }
+
+    public void report() {
+        System.out.println("Execution Resources Report:");
+        System.out.println("Max parallelism: " + maxParallelism + (isShutdown() ? " (shut down)" : ""));
+        for (PoolStats stats : getPoolStats()) {
+            System.out.println(stats);
+        }
+    }
+}
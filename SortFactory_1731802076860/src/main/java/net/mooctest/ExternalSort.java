@@ -0,0 +1,488 @@
+package net.mooctest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class ExternalSort implements Algorithm {
+    private static final int MIN_RUN_LENGTH = 1 << 10;
+    private static final int MIN_MERGE_BUFFER_BYTES = 1 << 12;
+    private static final int TARGET_MERGE_BUFFER_BYTES = 1 << 20;
+    private static final int MAX_MERGE_BUFFER_BYTES = 1 << 22;
+
+    private long memoryBudget;
+    private int parallelism;
+    private Path tempDirectory;
+    private ExecutorService runPool; // null: the shared I/O pool
+
+    public ExternalSort() {
+        this(Runtime.getRuntime().maxMemory() / 4, Runtime.getRuntime().availableProcessors(),
+                Paths.get(System.getProperty("java.io.tmpdir")));
+    }
+
+    // memoryBudget bounds the heap used for run buffers and merge buffers together
+    public ExternalSort(long memoryBudget, int parallelism, Path tempDirectory) {
+        this.memoryBudget = memoryBudget;
+        this.parallelism = parallelism;
+        this.tempDirectory = tempDirectory;
+    }
+
+    // Run generation uses the given pool, which should have at least parallelism threads
+    public ExternalSort(long memoryBudget, int parallelism, Path tempDirectory, ExecutorService runPool) {
+        this(memoryBudget, parallelism, tempDirectory);
+        this.runPool = runPool;
+    }
+
+    @Override
+    public void sort(DataStructure data, SortMetrics metrics) {
+        boolean largeOffHeap = data instanceof OffHeapDataStructure
+                && (long) data.size() * Integer.BYTES > memoryBudget;
+        if (!(data instanceof FileDataStructure) && !largeOffHeap) {
+            // Heap-resident structures, and off-heap ones within budget, fit in memory
+            int[] array = data.toArray();
+            Arrays.parallelSort(array);
+            data.fromArray(array);
+            return;
+        }
+
+        List<Path> temporaryFiles = new ArrayList<>();
+        try {
+            if (data instanceof FileDataStructure) {
+                FileDataStructure file = (FileDataStructure) data;
+                List<Path> runs = createRuns(file, temporaryFiles, metrics);
+                metrics.addRuns(runs.size());
+                mergeRuns(runs, file, temporaryFiles, metrics);
+            } else {
+                sortOffHeap((OffHeapDataStructure) data, metrics);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("External sort failed", e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyException("External sort interrupted");
+        } catch (ExecutionException e) {
+            throw new ConcurrencyException("Run generation failed", e.getCause());
+        } finally {
+            for (Path path : temporaryFiles) {
+                try {
+                    Files.deleteIfExists(path);
+                } catch (IOException ignored) {
+                    // Leftover temp files are harmless, the sort result is what matters
+                }
+            }
+        }
+    }
+
+    // Sorts every slice of the file on the heap and spills it to its own run file
+    public List<Path> createRuns(FileDataStructure file, List<Path> temporaryFiles, SortMetrics metrics)
+            throws IOException, InterruptedException, ExecutionException {
+        long length = file.getLength();
+        int runLength = runLength();
+        int runTotal = (int) ((length + runLength - 1) / runLength);
+        Path[] runs = new Path[runTotal];
+        for (int run = 0; run < runTotal; run++) {
+            runs[run] = newTemporaryFile(temporaryFiles);
+        }
+
+        metrics.addIoBytes(forEachRun(runTotal, (int) Math.min(runLength, length), (run, buffer) -> {
+            long from = (long) run * runLength;
+            int count = (int) Math.min(runLength, length - from);
+            file.read(from, buffer, 0, count);
+            Arrays.sort(buffer, 0, count);
+            try (FileDataStructure output = new FileDataStructure(runs[run])) {
+                output.write(0, buffer, 0, count);
+            }
+            return 2L * count * Integer.BYTES;
+        }));
+        return new ArrayList<>(Arrays.asList(runs));
+    }
+
+    // Runs are sorted in place through the bulk path, then merged pass by pass between two off-heap copies
+    public void sortOffHeap(OffHeapDataStructure data, SortMetrics metrics)
+            throws IOException, InterruptedException, ExecutionException {
+        int n = data.size();
+        int runLength = runLength();
+        int runTotal = (int) (((long) n + runLength - 1) / runLength);
+        metrics.addRuns(runTotal);
+        metrics.addIoBytes(forEachRun(runTotal, Math.min(runLength, n), (run, buffer) -> {
+            int from = run * runLength;
+            int count = Math.min(runLength, n - from);
+            data.read(from, buffer, 0, count);
+            Arrays.sort(buffer, 0, count);
+            data.write(from, buffer, 0, count);
+            return 2L * count * Integer.BYTES;
+        }));
+        if (runTotal <= 1) {
+            return;
+        }
+
+        int fanIn = fanIn();
+        OffHeapDataStructure spare = data.newEmptyCopy(n);
+        OffHeapDataStructure source = data;
+        OffHeapDataStructure target = spare;
+        try {
+            for (long width = runLength; width < n; width *= fanIn) {
+                long groupWidth = width * fanIn;
+                for (long start = 0; start < n; start += groupWidth) {
+                    int end = (int) Math.min(n, start + groupWidth);
+                    int k = (int) ((end - start + width - 1) / width);
+                    int bufferInts = mergeBufferBytes(k) / Integer.BYTES;
+                    RunReader[] readers = new RunReader[k];
+                    for (int i = 0; i < k; i++) {
+                        int from = (int) (start + i * width);
+                        readers[i] = new RangeRunReader(source, from, (int) Math.min(end, from + width), bufferInts);
+                    }
+                    merge(readers, new RangeRunWriter(target, (int) start, bufferInts), metrics);
+                }
+                OffHeapDataStructure swap = source;
+                source = target;
+                target = swap;
+                metrics.addPasses(1);
+            }
+            if (source == spare) {
+                data.transferFrom(spare);
+            }
+        } finally {
+            spare.release();
+        }
+    }
+
+    public interface RunBody {
+        // Returns the bytes read and written for the run
+        long sortRun(int run, int[] buffer) throws IOException;
+    }
+
+    // Each worker repeatedly claims the next run and sorts it in its own heap buffer; returns the total I/O
+    private long forEachRun(int runTotal, int bufferLength, RunBody body) throws InterruptedException, ExecutionException {
+        ExecutorService pool = runPool();
+        AtomicInteger nextRun = new AtomicInteger();
+        try {
+            AtomicLong ioBytes = new AtomicLong();
+            List<Future<?>> workers = new ArrayList<>();
+            for (int worker = 0; worker < Math.min(parallelism, runTotal); worker++) {
+                workers.add(pool.submit(() -> {
+                    int[] buffer = new int[bufferLength];
+                    int run;
+                    while ((run = nextRun.getAndIncrement()) < runTotal) {
+                        ioBytes.addAndGet(body.sortRun(run, buffer));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+            return ioBytes.get();
+        } finally {
+            // The pool is not ours to shut down, so after a failure the remaining workers just stop claiming runs
+            nextRun.set(runTotal);
+        }
+    }
+
+    private ExecutorService runPool() {
+        return runPool != null ? runPool : ExecutionResources.getShared().fixedPool(ExecutionResources.IO, parallelism);
+    }
+
+    private int runLength() {
+        return (int) Math.max(MIN_RUN_LENGTH, Math.min(Integer.MAX_VALUE - 8, memoryBudget / Integer.BYTES / parallelism));
+    }
+
+    // Wide merges with tiny buffers turn into random I/O, so the fan-in keeps each of the k + 1 buffers near 1 MB
+    // and more runs take extra merge passes
+    private int fanIn() {
+        return (int) Math.max(2, memoryBudget / 2 / TARGET_MERGE_BUFFER_BYTES - 1);
+    }
+
+    private int mergeBufferBytes(int k) {
+        return (int) Math.max(MIN_MERGE_BUFFER_BYTES,
+                Math.min(MAX_MERGE_BUFFER_BYTES, memoryBudget / 2 / (k + 1))) & ~(Integer.BYTES - 1);
+    }
+
+    // Merges at most fanIn runs at a time until one final merge can write straight back into the file
+    public void mergeRuns(List<Path> runs, FileDataStructure file, List<Path> temporaryFiles, SortMetrics metrics)
+            throws IOException {
+        int fanIn = fanIn();
+        while (runs.size() > fanIn) {
+            List<Path> merged = new ArrayList<>();
+            for (int i = 0; i < runs.size(); i += fanIn) {
+                List<Path> group = runs.subList(i, Math.min(runs.size(), i + fanIn));
+                if (group.size() == 1) {
+                    merged.add(group.get(0));
+                    continue;
+                }
+                Path target = newTemporaryFile(temporaryFiles);
+                try (FileChannel output = FileChannel.open(target, StandardOpenOption.WRITE)) {
+                    merge(group, output, metrics);
+                }
+                for (Path run : group) {
+                    Files.deleteIfExists(run);
+                }
+                merged.add(target);
+            }
+            runs = merged;
+            metrics.addPasses(1);
+        }
+        if (!runs.isEmpty()) {
+            merge(runs, file.getChannel(), metrics);
+            metrics.addPasses(1);
+        }
+    }
+
+    public void merge(List<Path> runs, FileChannel output, SortMetrics metrics) throws IOException {
+        int k = runs.size();
+        int bufferBytes = mergeBufferBytes(k);
+        RunReader[] readers = new RunReader[k];
+        try {
+            for (int i = 0; i < k; i++) {
+                readers[i] = new FileRunReader(runs.get(i), bufferBytes);
+            }
+            merge(readers, new FileRunWriter(output, bufferBytes), metrics);
+        } finally {
+            for (RunReader reader : readers) {
+                if (reader != null) {
+                    reader.close();
+                }
+            }
+        }
+    }
+
+    public void merge(RunReader[] readers, RunWriter writer, SortMetrics metrics) throws IOException {
+        LoserTree tree = new LoserTree(readers.length);
+        for (int i = 0; i < readers.length; i++) {
+            if (readers[i].hasNext()) {
+                tree.setKey(i, readers[i].next());
+            } else {
+                tree.setExhausted(i);
+            }
+        }
+        tree.build();
+        while (!tree.isDone()) {
+            int winner = tree.winner();
+            writer.write(tree.winnerKey());
+            if (readers[winner].hasNext()) {
+                tree.replaceWinner(readers[winner].next());
+            } else {
+                tree.exhaustWinner();
+            }
+        }
+        writer.flush();
+        long ioBytes = writer.getIoBytes();
+        for (RunReader reader : readers) {
+            ioBytes += reader.getIoBytes();
+        }
+        metrics.addIoBytes(ioBytes);
+    }
+
+    private Path newTemporaryFile(List<Path> temporaryFiles) throws IOException {
+        Path path = Files.createTempFile(tempDirectory, "sortfactory-run-", ".bin");
+        temporaryFiles.add(path);
+        return path;
+    }
+
+    // Readers and writers belong to one merge on one thread, so they count their traffic in plain fields
+    public abstract static class RunReader implements Closeable {
+        protected long ioBytes = 0;
+
+        public abstract boolean hasNext() throws IOException;
+
+        public abstract int next();
+
+        @Override
+        public void close() throws IOException {
+        }
+
+        public long getIoBytes() {
+            return ioBytes;
+        }
+    }
+
+    public abstract static class RunWriter {
+        protected long ioBytes = 0;
+
+        public abstract void write(int value) throws IOException;
+
+        public abstract void flush() throws IOException;
+
+        public long getIoBytes() {
+            return ioBytes;
+        }
+    }
+
+    public static class FileRunReader extends RunReader {
+        private FileChannel channel;
+        private ByteBuffer buffer;
+        private long position = 0;
+
+        public FileRunReader(Path path, int bufferBytes) throws IOException {
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            buffer = ByteBuffer.allocateDirect(bufferBytes);
+            buffer.flip();
+        }
+
+        @Override
+        public boolean hasNext() throws IOException {
+            if (buffer.hasRemaining()) {
+                return true;
+            }
+            // Refill with one large sequential read; runs only ever hold whole ints
+            buffer.clear();
+            int read;
+            while (buffer.hasRemaining() && (read = channel.read(buffer, position)) > 0) {
+                position += read;
+                ioBytes += read;
+            }
+            buffer.flip();
+            return buffer.hasRemaining();
+        }
+
+        @Override
+        public int next() {
+            return buffer.getInt();
+        }
+
+        @Override
+        public void close() throws IOException {
+            channel.close();
+        }
+    }
+
+    public static class FileRunWriter extends RunWriter {
+        private FileChannel channel;
+        private ByteBuffer buffer;
+        private long position = 0;
+
+        public FileRunWriter(FileChannel channel, int bufferBytes) {
+            this.channel = channel;
+            this.buffer = ByteBuffer.allocateDirect(bufferBytes);
+        }
+
+        @Override
+        public void write(int value) throws IOException {
+            buffer.putInt(value);
+            if (!buffer.hasRemaining()) {
+                flush();
+            }
+        }
+
+        @Override
+        public void flush() throws IOException {
+            buffer.flip();
+            while (buffer.hasRemaining()) {
+                int written = channel.write(buffer, position);
+                position += written;
+                ioBytes += written;
+            }
+            buffer.clear();
+        }
+    }
+
+    // Reads a sorted range of a structure in blocks through its bulk read
+    public static class RangeRunReader extends RunReader {
+        private DataStructure source;
+        private int position;
+        private int end;
+        private int[] buffer;
+        private int index = 0;
+        private int limit = 0;
+
+        public RangeRunReader(DataStructure source, int from, int to, int bufferInts) {
+            this.source = source;
+            this.position = from;
+            this.end = to;
+            this.buffer = new int[Math.max(1, Math.min(bufferInts, to - from))];
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (index < limit) {
+                return true;
+            }
+            if (position >= end) {
+                return false;
+            }
+            limit = Math.min(buffer.length, end - position);
+            source.read(position, buffer, 0, limit);
+            position += limit;
+            index = 0;
+            ioBytes += (long) limit * Integer.BYTES;
+            return true;
+        }
+
+        @Override
+        public int next() {
+            return buffer[index++];
+        }
+    }
+
+    public static class RangeRunWriter extends RunWriter {
+        private DataStructure target;
+        private int position;
+        private int[] buffer;
+        private int count = 0;
+
+        public RangeRunWriter(DataStructure target, int from, int bufferInts) {
+            this.target = target;
+            this.position = from;
+            this.buffer = new int[Math.max(1, bufferInts)];
+        }
+
+        @Override
+        public void write(int value) {
+            buffer[count++] = value;
+            if (count == buffer.length) {
+                flush();
+            }
+        }
+
+        @Override
+        public void flush() {
+            target.write(position, buffer, 0, count);
+            position += count;
+            ioBytes += (long) count * Integer.BYTES;
+            count = 0;
+        }
+    }
+
+    @Override
+    public int search(DataStructure data, int target) {
+        int low = 0;
+        int high = data.size() - 1;
+        while (low <= high) {
+            int mid = low + (high - low) / 2;
+            int value = data.get(mid);
+            if (value == target) {
+                return mid;
+            }
+            if (value > target) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String getName() {
+        return "External Sort";
+    }
+
+    @Override
+    public AlgorithmPerformance evaluatePerformance(DataStructure data) {
+        return new PerformanceMeter().measure(this, data, parallelism, runPool());
+    }
+}
@@ -0,0 +1,184 @@
+package net.mooctest;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+public class FileDataStructure implements DataStructure, Closeable {
+    public static final int IO_BUFFER_BYTES = 1 << 20;
+
+    private Path path;
+    private FileChannel channel;
+    private long length;
+    private ByteBuffer element = ByteBuffer.allocate(Integer.BYTES);
+
+    // Opens (or creates) a file of big-endian ints; existing contents are kept
+    public FileDataStructure(Path path) {
+        this.path = path;
+        try {
+            channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+            length = channel.size() / Integer.BYTES;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open " + path, e);
+        }
+    }
+
+    public Path getPath() {
+        return path;
+    }
+
+    public FileChannel getChannel() {
+        return channel;
+    }
+
+    // Files may hold more than Integer.MAX_VALUE ints, so the element count is a long
+    public long getLength() {
+        return length;
+    }
+
+    @Override
+    public int size() {
+        if (length > Integer.MAX_VALUE) {
+            throw new InvalidDataException("File holds " + length + " ints, use getLength() instead");
+        }
+        return (int) length;
+    }
+
+    @Override
+    public int[] toArray() {
+        int[] result = new int[size()];
+        read(0, result, 0, result.length);
+        return result;
+    }
+
+    @Override
+    public void fromArray(int[] data) {
+        try {
+            channel.truncate(0);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot truncate " + path, e);
+        }
+        length = 0;
+        write(0, data, 0, data.length);
+    }
+
+    @Override
+    public void add(int value) {
+        element.clear();
+        element.putInt(value).flip();
+        writeFully(element, length * Integer.BYTES);
+        length++;
+    }
+
+    @Override
+    public int get(int index) {
+        checkIndex(index);
+        element.clear();
+        readFully(element, (long) index * Integer.BYTES);
+        element.flip();
+        return element.getInt();
+    }
+
+    @Override
+    public void set(int index, int value) {
+        checkIndex(index);
+        element.clear();
+        element.putInt(value).flip();
+        writeFully(element, (long) index * Integer.BYTES);
+    }
+
+    @Override
+    public void read(int from, int[] target, int offset, int count) {
+        read((long) from, target, offset, count);
+    }
+
+    @Override
+    public void write(int from, int[] source, int offset, int count) {
+        write((long) from, source, offset, count);
+    }
+
+    // Bulk read through a direct buffer; safe to call from several threads at once
+    public void read(long from, int[] target, int offset, int count) {
+        if (from < 0 || from + count > length) {
+            throw new ArrayIndexOutOfBoundsException("Invalid range: " + from + "+" + count);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.min(IO_BUFFER_BYTES, (long) count * Integer.BYTES));
+        long position = from * Integer.BYTES;
+        while (count > 0) {
+            int chunk = Math.min(count, buffer.capacity() / Integer.BYTES);
+            buffer.clear().limit(chunk * Integer.BYTES);
+            readFully(buffer, position);
+            buffer.flip();
+            buffer.asIntBuffer().get(target, offset, chunk);
+            position += (long) chunk * Integer.BYTES;
+            offset += chunk;
+            count -= chunk;
+        }
+    }
+
+    public void write(long from, int[] source, int offset, int count) {
+        if (from < 0 || from > length) {
+            throw new ArrayIndexOutOfBoundsException("Invalid position: " + from);
+        }
+        ByteBuffer buffer = ByteBuffer.allocateDirect((int) Math.max(Integer.BYTES,
+                Math.min(IO_BUFFER_BYTES, (long) count * Integer.BYTES)));
+        long position = from * Integer.BYTES;
+        int remaining = count;
+        while (remaining > 0) {
+            int chunk = Math.min(remaining, buffer.capacity() / Integer.BYTES);
+            buffer.clear();
+            IntBuffer ints = buffer.asIntBuffer();
+            ints.put(source, offset, chunk);
+            buffer.limit(chunk * Integer.BYTES);
+            writeFully(buffer, position);
+            position += (long) chunk * Integer.BYTES;
+            offset += chunk;
+            remaining -= chunk;
+        }
+        length = Math.max(length, from + count);
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= length) {
+            throw new ArrayIndexOutOfBoundsException("Invalid index: " + index);
+        }
+    }
+
+    private void readFully(ByteBuffer buffer, long position) {
+        try {
+            while (buffer.hasRemaining()) {
+                int read = channel.read(buffer, position);
+                if (read < 0) {
+                    throw new IOException("Unexpected end of file at " + position);
+                }
+                position += read;
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + path, e);
+        }
+    }
+
+    private void writeFully(ByteBuffer buffer, long position) {
+        try {
+            while (buffer.hasRemaining()) {
+                position += channel.write(buffer, position);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write " + path, e);
+        }
+    }
+
+    @Override
+    public void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close " + path, e);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package net.mooctest;
+
+import java.util.concurrent.RecursiveAction;
+import java.util.function.IntConsumer;
+
+public class ForEachTask extends RecursiveAction {
+    private static final long serialVersionUID = 1L;
+
+    private int low, high;
+    private IntConsumer body;
+
+    public ForEachTask(int low, int high, IntConsumer body) {
+        this.low = low;
+        this.high = high;
+        this.body = body;
+    }
+
+    @Override
+    protected void compute() {
+        if (high - low == 1) {
+            body.accept(low);
+        } else if (high > low) {
+            int mid = (low + high) >>> 1;
+            invokeAll(new ForEachTask(low, mid, body), new ForEachTask(mid, high, body));
+        }
+    }
+}
@@ -1,49 +1,56 @@
 package net.mooctest;
 
-import java.util.HashMap;
-
 public class HashTableDataStructure implements DataStructure {
-    private HashMap<Integer, Integer> hashTable;
+    private IntIntHashMap hashTable;
+    private int size;
 
     public HashTableDataStructure() {
-        hashTable = new HashMap<>();
+        hashTable = new IntIntHashMap();
     }
 
     @Override
     public int[] toArray() {
-        int[] array = new int[hashTable.size()];
-        int index = 0;
-        for (int key : hashTable.keySet()) {
-            array[index++] = hashTable.get(key);
+        int[] array = new int[size];
+        for (int i = 0; i < size; i++) {
+            array[i] = hashTable.get(i, 0);
         }
         return array;
     }
 
     @Override
     public void fromArray(int[] data) {
-        hashTable.clear();
+        hashTable = new IntIntHashMap(data.length);
         for (int i = 0; i < data.length; i++) {
             hashTable.put(i, data[i]);
         }
+        size = data.length;
     }
 
     @Override
     public int size() {
-        return hashTable.size();
+        return size;
     }
 
     @Override
     public void add(int value) {
-        hashTable.put(hashTable.size(), value);
+        hashTable.put(size++, value);
     }
 
     @Override
     public int get(int index) {
-        return hashTable.get(index);
+        checkIndex(index);
+        return hashTable.get(index, 0);
     }
 
     @Override
     public void set(int index, int value) {
+        checkIndex(index); // Writing past the end used to leave holes in the index range
         hashTable.put(index, value);
     }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException("Invalid index: " + index);
+        }
+    }
 }
@@ -1,30 +1,24 @@
 package net.mooctest;
 
-import java.util.PriorityQueue;
-
 public class HeapDataStructure implements DataStructure {
-    private PriorityQueue<Integer> heap;
+    private IntHeap heap;
 
     public HeapDataStructure() {
-        heap = new PriorityQueue<>(); // Default minimum heap
+        heap = new IntHeap(false); // Default minimum heap
+    }
+
+    public HeapDataStructure(boolean maxHeap) {
+        heap = new IntHeap(maxHeap);
     }
 
     @Override
     public int[] toArray() {
-        Object[] tempArray = heap.toArray();
-        int[] result = new int[tempArray.length];
-        for (int i = 0; i < tempArray.length; i++) {
-            result[i] = (int) tempArray[i];
-        }
-        return result;
+        return heap.toArray();
     }
 
     @Override
     public void fromArray(int[] data) {
-        heap.clear();
-        for (int value : data) {
-            heap.add(value);
-        }
+        heap.heapify(data);
     }
 
     @Override
@@ -34,16 +28,26 @@ public class HeapDataStructure implements DataStructure {
 
     @Override
     public void add(int value) {
-        heap.add(value);
+        heap.push(value);
     }
 
+    // Index addresses the underlying slots, so get(0) is the top unless set was called after the last heap
+    // operation; set never moves values, and peek, poll and add restore the heap order first
     @Override
     public int get(int index) {
-        throw new UnsupportedOperationException("Heap does not support random access");
+        return heap.get(index);
     }
 
     @Override
     public void set(int index, int value) {
-        throw new UnsupportedOperationException("Heap does not support setting specific elements");
+        heap.set(index, value);
+    }
+
+    public int peek() {
+        return heap.peek();
+    }
+
+    public int poll() {
+        return heap.poll();
     }
 }
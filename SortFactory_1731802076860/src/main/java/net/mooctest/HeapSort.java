@@ -0,0 +1,82 @@
+package net.mooctest;
+
+public class HeapSort implements Algorithm {
+    private static final int ARITY = IntHeap.ARITY;
+
+    @Override
+    public void sort(DataStructure data, SortMetrics metrics) {
+        int[] array = data.toArray();
+        heapSort(array, 0, array.length, metrics);
+        data.fromArray(array);
+    }
+
+    // In-place 4-ary max-heap sort of array[from, to)
+    public void heapSort(int[] array, int from, int to, SortMetrics metrics) {
+        int n = to - from;
+        if (n < 2) {
+            return;
+        }
+        for (int i = (n - 2) / ARITY; i >= 0; i--) {
+            siftDown(array, from, i, n, array[from + i], metrics);
+        }
+        for (int last = n - 1; last > 0; last--) {
+            int top = array[from];
+            siftDown(array, from, 0, last, array[from + last], metrics);
+            array[from + last] = top;
+            metrics.swap();
+        }
+    }
+
+    private void siftDown(int[] array, int base, int index, int n, int value, SortMetrics metrics) {
+        while (true) {
+            int first = index * ARITY + 1;
+            if (first >= n) {
+                break;
+            }
+            int best = first;
+            int end = Math.min(first + ARITY, n);
+            for (int child = first + 1; child < end; child++) {
+                metrics.compare();
+                if (array[base + child] > array[base + best]) {
+                    best = child;
+                }
+            }
+            metrics.compare();
+            if (array[base + best] <= value) {
+                break;
+            }
+            array[base + index] = array[base + best];
+            index = best;
+        }
+        array[base + index] = value;
+    }
+
+    @Override
+    public int search(DataStructure data, int target) {
+        int low = 0;
+        int high = data.size() - 1;
+        while (low <= high) {
+            int mid = low + (high - low) / 2;
+            int value = data.get(mid);
+            if (value == target) {
+                return mid;
+            }
+            if (value > target) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String getName() {
+        return "Heap Sort";
+    }
+
+    @Override
+    public AlgorithmPerformance evaluatePerformance(DataStructure data) {
+        return new PerformanceMeter().measure(this, data, 1);
+    }
+}
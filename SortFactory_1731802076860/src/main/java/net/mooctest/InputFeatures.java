@@ -0,0 +1,106 @@
+package net.mooctest;
+
+import java.util.Arrays;
+
+public class InputFeatures {
+    private static final int SAMPLE_SIZE = 128;
+
+    private int size;
+    private int sizeBucket;
+    private String structureType;
+    private double presortedness;
+    private double duplicateRatio;
+
+    public InputFeatures(int size, String structureType, double presortedness, double duplicateRatio) {
+        this.size = size;
+        this.sizeBucket = size == 0 ? 0 : 32 - Integer.numberOfLeadingZeros(size);
+        this.structureType = structureType;
+        this.presortedness = presortedness;
+        this.duplicateRatio = duplicateRatio;
+    }
+
+    // Reads at most 2 * SAMPLE_SIZE elements at evenly spaced positions instead of scanning the whole input
+    public static InputFeatures extract(DataStructure data) {
+        int size = data.size();
+        int samples = Math.min(SAMPLE_SIZE, size - 1);
+        if (samples <= 0) {
+            return new InputFeatures(size, data.getClass().getSimpleName(), 1.0, 0.0);
+        }
+        int stride = (size - 1) / samples;
+        int ascending = 0;
+        int[] values = new int[samples];
+        for (int i = 0; i < samples; i++) {
+            int index = i * stride;
+            int value = data.get(index);
+            if (value <= data.get(index + 1)) {
+                ascending++;
+            }
+            values[i] = value;
+        }
+
+        Arrays.sort(values);
+        int duplicates = 0;
+        for (int i = 1; i < samples; i++) {
+            if (values[i] == values[i - 1]) {
+                duplicates++;
+            }
+        }
+        return new InputFeatures(size, data.getClass().getSimpleName(), (double) ascending / samples,
+                samples > 1 ? (double) duplicates / (samples - 1) : 0.0);
+    }
+
+    public int getSize() {
+        return size;
+    }
+
+    public int getSizeBucket() {
+        return sizeBucket;
+    }
+
+    public String getStructureType() {
+        return structureType;
+    }
+
+    public double getPresortedness() {
+        return presortedness;
+    }
+
+    public double getDuplicateRatio() {
+        return duplicateRatio;
+    }
+
+    public String getOrderClass() {
+        if (presortedness >= 0.95) {
+            return "sorted";
+        } else if (presortedness >= 0.75) {
+            return "mostly-sorted";
+        } else if (presortedness <= 0.1) {
+            return "reversed";
+        }
+        return "random";
+    }
+
+    public String getDuplicateClass() {
+        if (duplicateRatio >= 0.5) {
+            return "heavy-duplicates";
+        } else if (duplicateRatio >= 0.1) {
+            return "some-duplicates";
+        }
+        return "unique";
+    }
+
+    // Runs that share a key are assumed to cost the same per element
+    public String getKey() {
+        return structureType + "|2^" + sizeBucket + "|" + getOrderClass() + "|" + getDuplicateClass();
+    }
+
+    public String getSmallerKey() {
+        return structureType + "|2^" + (sizeBucket - 1) + "|" + getOrderClass() + "|" + getDuplicateClass();
+    }
+
+    @Override
+    public String toString() {
+        return getKey() + " (size=" + size + ", presortedness=" + presortedness
+                + ", duplicateRatio=" + duplicateRatio + ")";
+    }
+}
@@ -0,0 +1,153 @@
+package net.mooctest;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+
+// 4-ary heap of primitive ints: a shallower tree than a binary heap, and each node's children share a cache line
+public class IntHeap {
+    public static final int ARITY = 4;
+    private static final int DEFAULT_CAPACITY = 16;
+
+    private int[] heap;
+    private int size;
+    private boolean maxHeap;
+    private boolean ordered = true; // False after set, until the next heap operation restores the order
+
+    public IntHeap(boolean maxHeap) {
+        this(DEFAULT_CAPACITY, maxHeap);
+    }
+
+    public IntHeap(int capacity, boolean maxHeap) {
+        this.heap = new int[Math.max(1, capacity)];
+        this.maxHeap = maxHeap;
+    }
+
+    public boolean isMaxHeap() {
+        return maxHeap;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void clear() {
+        size = 0;
+        ordered = true;
+    }
+
+    public void push(int value) {
+        ensureOrdered();
+        if (size == heap.length) {
+            heap = Arrays.copyOf(heap, heap.length * 2);
+        }
+        siftUp(size++, value);
+    }
+
+    public int peek() {
+        ensureOrdered();
+        if (size == 0) {
+            throw new NoSuchElementException("Heap is empty");
+        }
+        return heap[0];
+    }
+
+    public int poll() {
+        int top = peek();
+        int last = heap[--size];
+        if (size > 0) {
+            siftDown(0, last);
+        }
+        return top;
+    }
+
+    // Removes the top and inserts value with a single sift, cheaper than poll followed by push
+    public int replaceTop(int value) {
+        int top = peek();
+        siftDown(0, value);
+        return top;
+    }
+
+    // Bottom-up heap construction over a copy of data, O(n)
+    public void heapify(int[] data) {
+        heap = Arrays.copyOf(data, Math.max(1, data.length));
+        size = data.length;
+        ordered = false;
+        ensureOrdered();
+    }
+
+    // Raw slot in heap order
+    public int get(int index) {
+        checkIndex(index);
+        return heap[index];
+    }
+
+    // Overwrites a raw slot and leaves the value there, so get/set behave like an array and in-place sorting
+    // algorithms work; the heap order is rebuilt on the next peek, poll, push or replaceTop
+    public void set(int index, int value) {
+        checkIndex(index);
+        heap[index] = value;
+        ordered = false;
+    }
+
+    // Elements in heap order
+    public int[] toArray() {
+        return Arrays.copyOf(heap, size);
+    }
+
+    private void ensureOrdered() {
+        if (!ordered) {
+            for (int i = (size - 2) / ARITY; i >= 0; i--) {
+                siftDown(i, heap[i]);
+            }
+            ordered = true;
+        }
+    }
+
+    private void siftUp(int index, int value) {
+        while (index > 0) {
+            int parent = (index - 1) / ARITY;
+            if (!before(value, heap[parent])) {
+                break;
+            }
+            heap[index] = heap[parent];
+            index = parent;
+        }
+        heap[index] = value;
+    }
+
+    private void siftDown(int index, int value) {
+        while (true) {
+            int first = index * ARITY + 1;
+            if (first >= size) {
+                break;
+            }
+            int best = first;
+            int end = Math.min(first + ARITY, size);
+            for (int child = first + 1; child < end; child++) {
+                if (before(heap[child], heap[best])) {
+                    best = child;
+                }
+            }
+            if (!before(heap[best], value)) {
+                break;
+            }
+            heap[index] = heap[best];
+            index = best;
+        }
+        heap[index] = value;
+    }
+
+    private boolean before(int a, int b) {
+        return maxHeap ? a > b : a < b;
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new ArrayIndexOutOfBoundsException("Invalid index: " + index);
+        }
+    }
+}
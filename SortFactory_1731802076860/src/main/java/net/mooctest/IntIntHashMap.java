@@ -0,0 +1,145 @@
+package net.mooctest;
+
+import java.util.Arrays;
+
+public class IntIntHashMap {
+    private static final int FREE_KEY = 0; // Marks empty slots; the real key 0 is stored beside the table
+    private static final double LOAD_FACTOR = 0.75;
+    private static final int MIN_CAPACITY = 32;
+    private static final int RUN_BITS = 4; // 16 consecutive keys share one 64-byte line of slots
+
+    private int[] keys;
+    private int[] values;
+    private int mask;
+    private int blockShift;
+    private int size;
+    private int threshold;
+    private boolean hasFreeKey;
+    private int freeKeyValue;
+
+    public IntIntHashMap() {
+        this(MIN_CAPACITY);
+    }
+
+    public IntIntHashMap(int expectedSize) {
+        allocate(capacityFor(expectedSize));
+    }
+
+    // Maps each value to the index of its first occurrence, for repeated lookups in unsorted data
+    public static IntIntHashMap indexOf(int[] data) {
+        IntIntHashMap index = new IntIntHashMap(data.length);
+        for (int i = 0; i < data.length; i++) {
+            index.putIfAbsent(data[i], i);
+        }
+        return index;
+    }
+
+    public int size() {
+        return size + (hasFreeKey ? 1 : 0);
+    }
+
+    public boolean containsKey(int key) {
+        if (key == FREE_KEY) {
+            return hasFreeKey;
+        }
+        return keys[findSlot(key)] != FREE_KEY;
+    }
+
+    public int get(int key, int defaultValue) {
+        if (key == FREE_KEY) {
+            return hasFreeKey ? freeKeyValue : defaultValue;
+        }
+        int slot = findSlot(key);
+        return keys[slot] == FREE_KEY ? defaultValue : values[slot];
+    }
+
+    public void put(int key, int value) {
+        if (key == FREE_KEY) {
+            hasFreeKey = true;
+            freeKeyValue = value;
+            return;
+        }
+        int slot = findSlot(key);
+        if (keys[slot] == FREE_KEY) {
+            insertAt(slot, key, value);
+        } else {
+            values[slot] = value;
+        }
+    }
+
+    // Stores the value only if the key is missing; returns the value now mapped to the key
+    public int putIfAbsent(int key, int value) {
+        if (key == FREE_KEY) {
+            if (!hasFreeKey) {
+                hasFreeKey = true;
+                freeKeyValue = value;
+            }
+            return freeKeyValue;
+        }
+        int slot = findSlot(key);
+        if (keys[slot] == FREE_KEY) {
+            insertAt(slot, key, value);
+            return value;
+        }
+        return values[slot];
+    }
+
+    public void clear() {
+        Arrays.fill(keys, FREE_KEY);
+        size = 0;
+        hasFreeKey = false;
+    }
+
+    // Linear probing: the key's slot, or the empty slot where it would go
+    private int findSlot(int key) {
+        int slot = slotOf(key);
+        while (keys[slot] != FREE_KEY && keys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insertAt(int slot, int key, int value) {
+        keys[slot] = key;
+        values[slot] = value;
+        if (++size > threshold) {
+            rehash(keys.length * 2);
+        }
+    }
+
+    private void rehash(int capacity) {
+        int[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != FREE_KEY) {
+                int slot = findSlot(oldKeys[i]);
+                keys[slot] = oldKeys[i];
+                values[slot] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        keys = new int[capacity];
+        values = new int[capacity];
+        mask = capacity - 1;
+        blockShift = Integer.numberOfLeadingZeros(capacity - 1) + RUN_BITS;
+        threshold = (int) (capacity * LOAD_FACTOR);
+    }
+
+    private static int capacityFor(int expectedSize) {
+        long needed = (long) Math.ceil(Math.max(expectedSize, 1) / LOAD_FACTOR) + 1;
+        if (needed > 1 << 30) {
+            throw new InvalidDataException("Too many entries: " + expectedSize);
+        }
+        return Math.max(MIN_CAPACITY, Integer.highestOneBit((int) needed - 1) << 1);
+    }
+
+    // Fibonacci hashing picks a block from the high product bits, so strided keys still spread out, while keys
+    // differing only in their low bits stay adjacent and dense keys such as 0..n-1 are written almost sequentially
+    private int slotOf(int key) {
+        int block = ((key >>> RUN_BITS) * 0x9E3779B9) >>> blockShift;
+        return ((block << RUN_BITS) | (key & ((1 << RUN_BITS) - 1))) & mask;
+    }
+}
@@ -0,0 +1,227 @@
+package net.mooctest;
+
+public class IntroSort implements Algorithm {
+    private static final int INSERTION_SORT_THRESHOLD = 24;
+
+    @Override
+    public void sort(DataStructure data, SortMetrics metrics) {
+        int[] array = data.toArray();
+        if (array.length > 1) {
+            introSort(array, 0, array.length - 1, depthLimit(array.length), metrics);
+        }
+        data.fromArray(array);
+    }
+
+    public int depthLimit(int n) {
+        return 2 * (31 - Integer.numberOfLeadingZeros(n));
+    }
+
+    public void introSort(int[] array, int low, int high, int depthLimit, SortMetrics metrics) {
+        // Recurse into the two smaller parts and loop on the largest one, so the stack stays O(log n)
+        while (high - low >= INSERTION_SORT_THRESHOLD) {
+            if (depthLimit-- == 0) {
+                heapSort(array, low, high, metrics);
+                return;
+            }
+            int[] bounds = partition(array, low, high, metrics);
+            int leftEnd = bounds[0] - 1;
+            int middleStart = bounds[1];
+            int middleEnd = bounds[2];
+            int rightStart = bounds[3] + 1;
+
+            int leftSize = leftEnd - low;
+            int middleSize = middleEnd - middleStart;
+            int rightSize = high - rightStart;
+            if (leftSize >= middleSize && leftSize >= rightSize) {
+                introSort(array, middleStart, middleEnd, depthLimit, metrics);
+                introSort(array, rightStart, high, depthLimit, metrics);
+                high = leftEnd;
+            } else if (rightSize >= middleSize) {
+                introSort(array, low, leftEnd, depthLimit, metrics);
+                introSort(array, middleStart, middleEnd, depthLimit, metrics);
+                low = rightStart;
+            } else {
+                introSort(array, low, leftEnd, depthLimit, metrics);
+                introSort(array, rightStart, high, depthLimit, metrics);
+                low = middleStart;
+                high = middleEnd;
+            }
+        }
+        insertionSort(array, low, high, metrics);
+    }
+
+    // Dual-pivot partition; returns {pivot1 index, middle start, middle end, pivot2 index}
+    public int[] partition(int[] array, int low, int high, SortMetrics metrics) {
+        choosePivots(array, low, high, metrics);
+        int pivot1 = array[low];
+        int pivot2 = array[high];
+
+        int less = low + 1;
+        int great = high - 1;
+        for (int k = less; k <= great; k++) {
+            int value = array[k];
+            metrics.compare();
+            if (value < pivot1) {
+                swap(array, k, less++, metrics);
+            } else {
+                metrics.compare();
+                if (value > pivot2) {
+                    while (k < great && array[great] > pivot2) {
+                        metrics.compare();
+                        great--;
+                    }
+                    swap(array, k, great--, metrics);
+                    metrics.compare();
+                    if (array[k] < pivot1) {
+                        swap(array, k, less++, metrics);
+                    }
+                }
+            }
+        }
+        swap(array, low, --less, metrics);
+        swap(array, high, ++great, metrics);
+
+        int middleStart = less + 1;
+        int middleEnd = great - 1;
+        if (pivot1 == pivot2) {
+            // Everything between two equal pivots equals them, so the middle part is already in place
+            return new int[] {less, great, great - 1, great};
+        }
+        if (middleEnd - middleStart > (high - low) / 2) {
+            // A large middle part usually means many duplicates of the pivots: pull them out of the way
+            while (middleStart <= middleEnd && array[middleStart] == pivot1) {
+                metrics.compare();
+                middleStart++;
+            }
+            while (middleStart <= middleEnd && array[middleEnd] == pivot2) {
+                metrics.compare();
+                middleEnd--;
+            }
+            for (int k = middleStart; k <= middleEnd; k++) {
+                int value = array[k];
+                metrics.compare();
+                if (value == pivot1) {
+                    swap(array, k, middleStart++, metrics);
+                } else if (value == pivot2) {
+                    while (k < middleEnd && array[middleEnd] == pivot2) {
+                        metrics.compare();
+                        middleEnd--;
+                    }
+                    swap(array, k, middleEnd--, metrics);
+                    metrics.compare();
+                    if (array[k] == pivot1) {
+                        swap(array, k, middleStart++, metrics);
+                    }
+                }
+            }
+        }
+        return new int[] {less, middleStart, middleEnd, great};
+    }
+
+    // Sorts five evenly spaced samples and moves the second and fourth to the ends as pivots
+    public void choosePivots(int[] array, int low, int high, SortMetrics metrics) {
+        int seventh = (high - low + 1) / 7;
+        int e3 = (low + high) >>> 1;
+        int e2 = e3 - seventh;
+        int e1 = e2 - seventh;
+        int e4 = e3 + seventh;
+        int e5 = e4 + seventh;
+        int[] samples = {e1, e2, e3, e4, e5};
+        for (int i = 1; i < samples.length; i++) {
+            for (int j = i; j > 0; j--) {
+                metrics.compare();
+                if (array[samples[j - 1]] <= array[samples[j]]) {
+                    break;
+                }
+                swap(array, samples[j - 1], samples[j], metrics);
+            }
+        }
+        swap(array, low, e2, metrics);
+        swap(array, high, e4, metrics);
+    }
+
+    public void heapSort(int[] array, int low, int high, SortMetrics metrics) {
+        int n = high - low + 1;
+        for (int i = n / 2 - 1; i >= 0; i--) {
+            siftDown(array, low, i, n, metrics);
+        }
+        for (int end = n - 1; end > 0; end--) {
+            swap(array, low, low + end, metrics);
+            siftDown(array, low, 0, end, metrics);
+        }
+    }
+
+    public void siftDown(int[] array, int offset, int root, int n, SortMetrics metrics) {
+        int value = array[offset + root];
+        int child;
+        while ((child = 2 * root + 1) < n) {
+            if (child + 1 < n) {
+                metrics.compare();
+                if (array[offset + child + 1] > array[offset + child]) {
+                    child++;
+                }
+            }
+            metrics.compare();
+            if (value >= array[offset + child]) {
+                break;
+            }
+            array[offset + root] = array[offset + child];
+            metrics.swap();
+            root = child;
+        }
+        array[offset + root] = value;
+    }
+
+    public void insertionSort(int[] array, int low, int high, SortMetrics metrics) {
+        for (int i = low + 1; i <= high; i++) {
+            int key = array[i];
+            int j = i - 1;
+            while (j >= low) {
+                metrics.compare();
+                if (array[j] <= key) {
+                    break;
+                }
+                array[j + 1] = array[j];
+                j--;
+            }
+            metrics.swap();
+            array[j + 1] = key;
+        }
+    }
+
+    public void swap(int[] array, int i, int j, SortMetrics metrics) {
+        int temp = array[i];
+        array[i] = array[j];
+        array[j] = temp;
+        metrics.swap();
+    }
+
+    @Override
+    public int search(DataStructure data, int target) {
+        int low = 0;
+        int high = data.size() - 1;
+        while (low <= high) {
+            int mid = low + (high - low) / 2;
+            int value = data.get(mid);
+            if (value == target) {
+                return mid;
+            }
+            if (value > target) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String getName() {
+        return "Intro Sort";
+    }
+
+    @Override
+    public AlgorithmPerformance evaluatePerformance(DataStructure data) {
+        return new PerformanceMeter().measure(this, data, 1);
+    }
+}
@@ -0,0 +1,210 @@
+package net.mooctest;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+// Merges any number of ascending int sequences into one. Each output element costs log2(k) comparisons in a
+// LoserTree. Large merges split the output into slices with multiway co-ranking: for an output rank r it finds
+// how many elements of each source come before r, so every slice is an independent k-way merge of sub-ranges
+// written straight to its place in the result. Equal values keep source order, lower source index first
+public class KWayMerge {
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int MIN_SLICE = 1 << 14;
+    private static final int SLICES_PER_THREAD = 4; // Slack for sources whose values bunch up in a few slices
+
+    private ForkJoinPool forkJoinPool;
+
+    public KWayMerge() {
+        this(ExecutionResources.getShared().forkJoinPool());
+    }
+
+    public KWayMerge(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    public int[] merge(int[]... sources) {
+        long total = checkSorted(sources);
+        if (total > Integer.MAX_VALUE - 8) {
+            throw new InvalidDataException("Merged length " + total + " does not fit in an array");
+        }
+        int[] result = new int[(int) total];
+        int slices = (int) Math.min(total / MIN_SLICE, (long) forkJoinPool.getParallelism() * SLICES_PER_THREAD);
+        if (total < PARALLEL_THRESHOLD || slices <= 1) {
+            merge(sources, new int[sources.length], lengths(sources), result, 0);
+            return result;
+        }
+        int[][] splits = new int[slices + 1][];
+        forkJoinPool.invoke(new ForEachTask(0, slices + 1, slice -> splits[slice] = coRank(sources, total * slice / slices)));
+        forkJoinPool.invoke(new ForEachTask(0, slices, slice ->
+                merge(sources, splits[slice], splits[slice + 1], result, (int) (total * slice / slices))));
+        return result;
+    }
+
+    // Sources are read in bulk, so structures with contiguous storage are copied rather than walked
+    public int[] merge(List<? extends DataStructure> sources) {
+        int[][] arrays = new int[sources.size()][];
+        for (int s = 0; s < arrays.length; s++) {
+            arrays[s] = sources.get(s).toArray();
+        }
+        return merge(arrays);
+    }
+
+    public void mergeInto(List<? extends DataStructure> sources, DataStructure target) {
+        target.fromArray(merge(sources));
+    }
+
+    // Single-threaded merge without the sortedness check, for callers that keep their sources sorted themselves
+    public static int[] mergeSequential(int[][] sources) {
+        int[] ends = lengths(sources);
+        long total = 0;
+        for (int length : ends) {
+            total += length;
+        }
+        int[] result = new int[(int) total];
+        merge(sources, new int[sources.length], ends, result, 0);
+        return result;
+    }
+
+    // Merges sources[s][starts[s], ends[s]) for every s into target from offset on
+    public static void merge(int[][] sources, int[] starts, int[] ends, int[] target, int offset) {
+        int k = sources.length;
+        if (k == 1) {
+            System.arraycopy(sources[0], starts[0], target, offset, ends[0] - starts[0]);
+            return;
+        }
+        if (k == 2) {
+            int[] left = sources[0];
+            int[] right = sources[1];
+            int i = starts[0];
+            int j = starts[1];
+            while (i < ends[0] && j < ends[1]) {
+                target[offset++] = left[i] <= right[j] ? left[i++] : right[j++];
+            }
+            System.arraycopy(left, i, target, offset, ends[0] - i);
+            System.arraycopy(right, j, target, offset + ends[0] - i, ends[1] - j);
+            return;
+        }
+        int[] positions = starts.clone();
+        LoserTree tree = new LoserTree(k);
+        int count = 0;
+        for (int s = 0; s < k; s++) {
+            if (positions[s] < ends[s]) {
+                tree.setKey(s, sources[s][positions[s]]);
+                count += ends[s] - positions[s];
+            } else {
+                tree.setExhausted(s);
+            }
+        }
+        tree.build();
+        for (int end = offset + count; offset < end; offset++) {
+            int s = tree.winner();
+            target[offset] = tree.winnerKey();
+            if (++positions[s] < ends[s]) {
+                tree.replaceWinner(sources[s][positions[s]]);
+            } else {
+                tree.exhaustWinner();
+            }
+        }
+    }
+
+    // Per-source counts of the first `rank` merged elements. The value v at that rank is found by binary search
+    // over values; everything below v comes first, then copies of v in source order until the rank is reached
+    public static int[] coRank(int[][] sources, long rank) {
+        int k = sources.length;
+        int[] split = new int[k];
+        long total = 0;
+        long low = Integer.MAX_VALUE;
+        long high = Integer.MIN_VALUE;
+        for (int[] source : sources) {
+            total += source.length;
+            if (source.length > 0) {
+                low = Math.min(low, source[0]);
+                high = Math.max(high, source[source.length - 1]);
+            }
+        }
+        if (rank < 0 || rank > total) {
+            throw new InvalidDataException("Rank " + rank + " outside 0.." + total);
+        }
+        if (rank == total) {
+            for (int s = 0; s < k; s++) {
+                split[s] = sources[s].length;
+            }
+            return split;
+        }
+        // Smallest value with more than rank elements at or below it
+        while (low < high) {
+            long mid = (low + high) >> 1;
+            long atMost = 0;
+            for (int[] source : sources) {
+                atMost += upperBound(source, (int) mid);
+            }
+            if (atMost > rank) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        int value = (int) low;
+        long remaining = rank;
+        for (int s = 0; s < k; s++) {
+            split[s] = lowerBound(sources[s], value);
+            remaining -= split[s];
+        }
+        for (int s = 0; s < k && remaining > 0; s++) {
+            int ties = (int) Math.min(remaining, upperBound(sources[s], value) - split[s]);
+            split[s] += ties;
+            remaining -= ties;
+        }
+        return split;
+    }
+
+    private static long checkSorted(int[][] sources) {
+        long total = 0;
+        for (int s = 0; s < sources.length; s++) {
+            int[] source = sources[s];
+            for (int i = 1; i < source.length; i++) {
+                if (source[i - 1] > source[i]) {
+                    throw new InvalidDataException("Source " + s + " is not sorted at index " + i);
+                }
+            }
+            total += source.length;
+        }
+        return total;
+    }
+
+    private static int[] lengths(int[][] sources) {
+        int[] lengths = new int[sources.length];
+        for (int s = 0; s < sources.length; s++) {
+            lengths[s] = sources[s].length;
+        }
+        return lengths;
+    }
+
+    private static int lowerBound(int[] a, int value) {
+        int low = 0;
+        int high = a.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (a[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    private static int upperBound(int[] a, int value) {
+        int low = 0;
+        int high = a.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (a[mid] <= value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
@@ -0,0 +1,236 @@
+package net.mooctest;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.IntConsumer;
+
+// Stable sort of parallel primitive arrays: numeric keys with an int payload (a row id, say) moved alongside,
+// so column-oriented records are ordered without creating objects. Small inputs use a merge sort, larger ones
+// an LSD radix sort over 8-bit digits that skips digits every key shares, with chunked parallel passes
+public class KeyPayloadSort {
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    private static final int MASK = RADIX - 1;
+    private static final int DIGITS = Long.SIZE / DIGIT_BITS;
+    private static final long SIGN_FLIP = Long.MIN_VALUE;
+    private static final int INT_SIGN_FLIP = 0x80000000;
+    private static final int INSERTION_SORT_THRESHOLD = 24;
+    private static final int MERGE_THRESHOLD = 1 << 10; // Below this, eight histogram passes cost more than merging
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int MIN_CHUNK = 1 << 14;
+
+    private ForkJoinPool forkJoinPool;
+
+    public KeyPayloadSort() {
+        this(ExecutionResources.getShared().forkJoinPool());
+    }
+
+    public KeyPayloadSort(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    // Orders keys ascending; equal keys keep their payloads in input order
+    public void sort(long[] keys, int[] payloads) {
+        if (keys.length != payloads.length) {
+            throw new InvalidDataException("Keys and payloads differ in length: " + keys.length + " vs " + payloads.length);
+        }
+        int n = keys.length;
+        if (n < MERGE_THRESHOLD) {
+            mergeSort(keys, payloads, new long[n], new int[n], 0, n);
+        } else {
+            radixSort(keys, payloads);
+        }
+    }
+
+    // Int keys are widened as unsigned offsets from Integer.MIN_VALUE, so the upper four digits are constant
+    // and skipped instead of costing passes for sign extension
+    public void sort(int[] keys, int[] payloads) {
+        if (keys.length != payloads.length) {
+            throw new InvalidDataException("Keys and payloads differ in length: " + keys.length + " vs " + payloads.length);
+        }
+        long[] wide = widen(keys);
+        sort(wide, payloads);
+        for (int i = 0; i < keys.length; i++) {
+            keys[i] = (int) wide[i] ^ INT_SIGN_FLIP;
+        }
+    }
+
+    // The permutation that sorts the keys (stably); the keys themselves are not moved
+    public int[] argsort(long[] keys) {
+        int[] order = identity(keys.length);
+        sort(keys.clone(), order);
+        return order;
+    }
+
+    public int[] argsort(int[] keys) {
+        int[] order = identity(keys.length);
+        sort(widen(keys), order);
+        return order;
+    }
+
+    private static long[] widen(int[] keys) {
+        long[] wide = new long[keys.length];
+        for (int i = 0; i < keys.length; i++) {
+            wide[i] = (keys[i] ^ INT_SIGN_FLIP) & 0xFFFFFFFFL;
+        }
+        return wide;
+    }
+
+    private static int[] identity(int n) {
+        int[] order = new int[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+        }
+        return order;
+    }
+
+    public void radixSort(long[] keys, int[] payloads) {
+        int n = keys.length;
+        int chunkCount = n < PARALLEL_THRESHOLD ? 1
+                : Math.max(1, Math.min(forkJoinPool.getParallelism() * 4, n / MIN_CHUNK));
+        int[] bounds = new int[chunkCount + 1];
+        for (int chunk = 0; chunk <= chunkCount; chunk++) {
+            bounds[chunk] = (int) ((long) n * chunk / chunkCount);
+        }
+        int[][][] digitCounts = new int[chunkCount][DIGITS][RADIX];
+        forEach(chunkCount, chunk -> {
+            int[][] counts = digitCounts[chunk];
+            for (int i = bounds[chunk]; i < bounds[chunk + 1]; i++) {
+                long key = keys[i] ^ SIGN_FLIP;
+                for (int digit = 0; digit < DIGITS; digit++) {
+                    counts[digit][(int) (key >>> (digit * DIGIT_BITS)) & MASK]++;
+                }
+            }
+        });
+
+        long[] keySource = keys;
+        long[] keyTarget = null;
+        int[] payloadSource = payloads;
+        int[] payloadTarget = null;
+        boolean fresh = true;
+        for (int digit = 0; digit < DIGITS; digit++) {
+            int total = 0;
+            for (int[][] counts : digitCounts) {
+                total += counts[digit][digitOf(keys[0], digit)];
+            }
+            if (total == n) {
+                continue; // Every key shares this digit, the pass would not reorder anything
+            }
+            if (keyTarget == null) {
+                keyTarget = new long[n];
+                payloadTarget = new int[n];
+            }
+            int[][] counts = null;
+            // The initial histograms describe the input order, so only the first pass can use them per chunk
+            if (fresh || chunkCount == 1) {
+                counts = new int[chunkCount][];
+                for (int chunk = 0; chunk < chunkCount; chunk++) {
+                    counts[chunk] = digitCounts[chunk][digit].clone();
+                }
+                fresh = false;
+            }
+            scatter(keySource, payloadSource, keyTarget, payloadTarget, bounds, digit, counts);
+            long[] keySwap = keySource;
+            keySource = keyTarget;
+            keyTarget = keySwap;
+            int[] payloadSwap = payloadSource;
+            payloadSource = payloadTarget;
+            payloadTarget = payloadSwap;
+        }
+        if (keySource != keys) {
+            System.arraycopy(keySource, 0, keys, 0, n);
+            System.arraycopy(payloadSource, 0, payloads, 0, n);
+        }
+    }
+
+    private void scatter(long[] keySource, int[] payloadSource, long[] keyTarget, int[] payloadTarget,
+            int[] bounds, int digit, int[][] counts) {
+        int chunkCount = bounds.length - 1;
+        int shift = digit * DIGIT_BITS;
+        if (counts == null) {
+            int[][] recount = new int[chunkCount][RADIX];
+            forEach(chunkCount, chunk -> {
+                int[] count = recount[chunk];
+                for (int i = bounds[chunk]; i < bounds[chunk + 1]; i++) {
+                    count[(int) ((keySource[i] ^ SIGN_FLIP) >>> shift) & MASK]++;
+                }
+            });
+            counts = recount;
+        }
+
+        // Bucket-major prefix sums keep the scatter stable across chunks
+        int offset = 0;
+        for (int bucket = 0; bucket < RADIX; bucket++) {
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                int c = counts[chunk][bucket];
+                counts[chunk][bucket] = offset;
+                offset += c;
+            }
+        }
+
+        int[][] offsets = counts;
+        forEach(chunkCount, chunk -> {
+            int[] next = offsets[chunk];
+            for (int i = bounds[chunk]; i < bounds[chunk + 1]; i++) {
+                long key = keySource[i];
+                int position = next[(int) ((key ^ SIGN_FLIP) >>> shift) & MASK]++;
+                keyTarget[position] = key;
+                payloadTarget[position] = payloadSource[i];
+            }
+        });
+    }
+
+    // Top-down merge sort of [from, to) using the buffers as scratch space
+    public void mergeSort(long[] keys, int[] payloads, long[] keyBuffer, int[] payloadBuffer, int from, int to) {
+        if (to - from <= INSERTION_SORT_THRESHOLD) {
+            insertionSort(keys, payloads, from, to);
+            return;
+        }
+        int mid = (from + to) >>> 1;
+        mergeSort(keys, payloads, keyBuffer, payloadBuffer, from, mid);
+        mergeSort(keys, payloads, keyBuffer, payloadBuffer, mid, to);
+        if (keys[mid - 1] <= keys[mid]) {
+            return; // Already in order
+        }
+        System.arraycopy(keys, from, keyBuffer, from, to - from);
+        System.arraycopy(payloads, from, payloadBuffer, from, to - from);
+        int left = from;
+        int right = mid;
+        for (int i = from; i < to; i++) {
+            // Taking from the left on ties keeps the sort stable
+            if (right >= to || (left < mid && keyBuffer[left] <= keyBuffer[right])) {
+                keys[i] = keyBuffer[left];
+                payloads[i] = payloadBuffer[left++];
+            } else {
+                keys[i] = keyBuffer[right];
+                payloads[i] = payloadBuffer[right++];
+            }
+        }
+    }
+
+    private static void insertionSort(long[] keys, int[] payloads, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            long key = keys[i];
+            int payload = payloads[i];
+            int j = i - 1;
+            while (j >= from && keys[j] > key) {
+                keys[j + 1] = keys[j];
+                payloads[j + 1] = payloads[j];
+                j--;
+            }
+            keys[j + 1] = key;
+            payloads[j + 1] = payload;
+        }
+    }
+
+    private static int digitOf(long key, int digit) {
+        return (int) ((key ^ SIGN_FLIP) >>> (digit * DIGIT_BITS)) & MASK;
+    }
+
+    private void forEach(int count, IntConsumer body) {
+        if (count == 1) {
+            body.accept(0);
+        } else {
+            forkJoinPool.invoke(new ForEachTask(0, count, body));
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package net.mooctest;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Log-linear histogram of non-negative longs (nanoseconds, usually), in the style of HdrHistogram: values below
+// 2 * SUB_BUCKETS are counted exactly, and every power of two above that is split into SUB_BUCKETS linear buckets,
+// so any recorded value is known to within about 3%. Recording is lock-free and touches one bucket counter,
+// which keeps concurrent recorders of different latencies from contending on the same cache line
+public class LatencyHistogram {
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKET_COUNT = (Long.SIZE - 1 - SUB_BUCKET_BITS) * SUB_BUCKETS + 2 * SUB_BUCKETS;
+
+    private AtomicLongArray counts = new AtomicLongArray(BUCKET_COUNT);
+    private LongAdder count = new LongAdder();
+    private LongAdder sum = new LongAdder();
+    private AtomicLong min = new AtomicLong(Long.MAX_VALUE);
+    private AtomicLong max = new AtomicLong(-1);
+    // Totals at the previous intervalSnapshot(), used to report only what was recorded since
+    private LatencyHistogram lastInterval;
+
+    public void record(long value) {
+        long clamped = Math.max(0, value);
+        counts.incrementAndGet(indexOf(clamped));
+        count.increment();
+        sum.add(clamped);
+        if (clamped < min.get()) {
+            min.accumulateAndGet(clamped, Math::min);
+        }
+        if (clamped > max.get()) {
+            max.accumulateAndGet(clamped, Math::max);
+        }
+    }
+
+    public static int indexOf(long value) {
+        int shift = Math.max(0, (Long.SIZE - 1 - Long.numberOfLeadingZeros(value | 1)) - SUB_BUCKET_BITS);
+        return shift * SUB_BUCKETS + (int) (value >>> shift);
+    }
+
+    public static long lowestValueAt(int index) {
+        int shift = index < 2 * SUB_BUCKETS ? 0 : (index >> SUB_BUCKET_BITS) - 1;
+        return (long) (index - shift * SUB_BUCKETS) << shift;
+    }
+
+    public static long highestValueAt(int index) {
+        int shift = index < 2 * SUB_BUCKETS ? 0 : (index >> SUB_BUCKET_BITS) - 1;
+        return lowestValueAt(index) + (1L << shift) - 1;
+    }
+
+    public long getCount() {
+        return count.sum();
+    }
+
+    public long getMin() {
+        long value = min.get();
+        return value == Long.MAX_VALUE ? -1 : value;
+    }
+
+    public long getMax() {
+        return max.get();
+    }
+
+    public double getMean() {
+        long n = count.sum();
+        return n == 0 ? 0 : (double) sum.sum() / n;
+    }
+
+    // Nearest-rank percentile, reported as the highest value of its bucket but never above the recorded maximum
+    public long getValueAtPercentile(double percent) {
+        long n = 0;
+        long[] snapshot = new long[BUCKET_COUNT];
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            snapshot[i] = counts.get(i);
+            n += snapshot[i];
+        }
+        if (n == 0) {
+            return -1;
+        }
+        long rank = Math.max(1, (long) Math.ceil(Math.min(100, Math.max(0, percent)) / 100 * n));
+        long seen = 0;
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            seen += snapshot[i];
+            if (seen >= rank) {
+                long highest = getMax();
+                return highest >= 0 ? Math.min(highestValueAt(i), highest) : highestValueAt(i);
+            }
+        }
+        return getMax();
+    }
+
+    public void add(LatencyHistogram other) {
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = other.counts.get(i);
+            if (c != 0) {
+                counts.addAndGet(i, c);
+            }
+        }
+        count.add(other.count.sum());
+        sum.add(other.sum.sum());
+        if (other.getCount() > 0) {
+            min.accumulateAndGet(other.min.get(), Math::min);
+            max.accumulateAndGet(other.max.get(), Math::max);
+        }
+    }
+
+    // Recordings racing with the copy may or may not be included, but each is either fully in or out of a bucket
+    public LatencyHistogram copy() {
+        LatencyHistogram copy = new LatencyHistogram();
+        copy.add(this);
+        return copy;
+    }
+
+    // What was recorded since the previous call (or since creation). Min and max are bucket bounds here,
+    // since the exact extremes of an interval are not tracked
+    public synchronized LatencyHistogram intervalSnapshot() {
+        LatencyHistogram now = copy();
+        LatencyHistogram interval = new LatencyHistogram();
+        long intervalSum = now.sum.sum();
+        for (int i = 0; i < BUCKET_COUNT; i++) {
+            long c = now.counts.get(i) - (lastInterval == null ? 0 : lastInterval.counts.get(i));
+            if (c > 0) {
+                interval.counts.set(i, c);
+                interval.count.add(c);
+                interval.min.accumulateAndGet(lowestValueAt(i), Math::min);
+                interval.max.accumulateAndGet(Math.min(highestValueAt(i), now.getMax()), Math::max);
+            }
+        }
+        if (lastInterval != null) {
+            intervalSum -= lastInterval.sum.sum();
+        }
+        interval.sum.add(intervalSum);
+        lastInterval = now;
+        return interval;
+    }
+}
@@ -1,32 +1,56 @@
 package net.mooctest;
 
+import java.util.NoSuchElementException;
+
+// Unrolled doubly linked list: each node holds up to NODE_CAPACITY ints, so index lookups skip whole chunks
 public class LinkedListDataStructure implements DataStructure {
+    public static final int NODE_CAPACITY = 64;
+
 	public class Node {
-        int data;
-        Node next;
+        int[] data;
+        int count;
+        Node next, prev;
 
-        public Node(int data) {
-            this.data = data;
+        public Node() {
+            this.data = new int[NODE_CAPACITY];
+            this.count = 0;
             this.next = null;
+            this.prev = null;
+        }
+    }
+
+    // Immutable, so threads working on disjoint ranges can share the cache; a stale finger only costs a longer walk
+    private static class Finger {
+        final Node node;
+        final int start;
+
+        Finger(Node node, int start) {
+            this.node = node;
+            this.start = start;
         }
     }
 
     private Node head;
+    private Node tail;
     private int size;
+    // Two fingers, so access patterns that alternate between two regions (partition, merge) both stay cheap
+    private Finger firstFinger;
+    private Finger secondFinger;
+    private boolean replaceFirst;
 
     public LinkedListDataStructure() {
         head = null;
+        tail = null;
         size = 0;
     }
 
     @Override
     public int[] toArray() {
         int[] array = new int[size];
-        Node current = head;
         int i = 0;
-        while (current != null) {
-            array[i++] = current.data;
-            current = current.next;
+        for (Node current = head; current != null; current = current.next) {
+            System.arraycopy(current.data, 0, array, i, current.count);
+            i += current.count;
         }
         return array;
     }
@@ -34,9 +58,15 @@ public class LinkedListDataStructure implements DataStructure {
     @Override
     public void fromArray(int[] data) {
         head = null;
+        tail = null;
         size = 0;
-        for (int value : data) {
-            add(value);
+        firstFinger = null;
+        secondFinger = null;
+        for (int from = 0; from < data.length; from += NODE_CAPACITY) {
+            Node node = appendNode();
+            node.count = Math.min(NODE_CAPACITY, data.length - from);
+            System.arraycopy(data, from, node.data, 0, node.count);
+            size += node.count;
         }
     }
 
@@ -47,40 +77,210 @@ public class LinkedListDataStructure implements DataStructure {
 
     @Override
     public void add(int value) {
-        Node newNode = new Node(value);
-        if (head == null) {
-            head = newNode;
+        Node node = tail == null || tail.count == NODE_CAPACITY ? appendNode() : tail;
+        node.data[node.count++] = value;
+        size++;
+    }
+
+    private Node appendNode() {
+        Node node = new Node();
+        if (tail == null) {
+            head = node;
         } else {
-            Node current = head;
-            while (current.next != null) {
-                current = current.next;
-            }
-            current.next = newNode;
+            tail.next = node;
+            node.prev = tail;
         }
-        size++;
+        tail = node;
+        return node;
     }
 
     @Override
     public int get(int index) {
-        if (index >= size) {
-            throw new ArrayIndexOutOfBoundsException("Invalid index: " + index);
+        checkIndex(index);
+        Finger finger = locate(index);
+        return finger.node.data[index - finger.start];
+    }
+
+    @Override
+    public void set(int index, int value) {
+        checkIndex(index);
+        Finger finger = locate(index);
+        finger.node.data[index - finger.start] = value;
+    }
+
+    @Override
+    public void read(int from, int[] target, int offset, int count) {
+        checkRange(from, count);
+        if (count == 0) {
+            return;
         }
-        Node current = head;
-        for (int i = 0; i < index; i++) {
-            current = current.next;
+        Finger finger = locate(from);
+        Node node = finger.node;
+        int position = from - finger.start;
+        while (count > 0) {
+            int chunk = Math.min(count, node.count - position);
+            System.arraycopy(node.data, position, target, offset, chunk);
+            offset += chunk;
+            count -= chunk;
+            node = node.next;
+            position = 0;
         }
-        return current.data;
     }
 
     @Override
-    public void set(int index, int value) {
-        if (index >= size) {
+    public void write(int from, int[] source, int offset, int count) {
+        checkRange(from, count);
+        if (count == 0) {
+            return;
+        }
+        Finger finger = locate(from);
+        Node node = finger.node;
+        int position = from - finger.start;
+        while (count > 0) {
+            int chunk = Math.min(count, node.count - position);
+            System.arraycopy(source, offset, node.data, position, chunk);
+            offset += chunk;
+            count -= chunk;
+            node = node.next;
+            position = 0;
+        }
+    }
+
+    // Starts from whichever of head, tail or the two fingers is nearest and walks node by node
+    private Finger locate(int index) {
+        Finger first = firstFinger;
+        Finger second = secondFinger;
+        if (first != null && index >= first.start && index < first.start + first.node.count) {
+            return first;
+        }
+        if (second != null && index >= second.start && index < second.start + second.node.count) {
+            return second;
+        }
+
+        Node node = head;
+        int start = 0;
+        int distance = index;
+        if (size - index < distance) {
+            node = tail;
+            start = size - tail.count;
+            distance = size - index;
+        }
+        if (first != null && Math.abs(index - first.start) < distance) {
+            node = first.node;
+            start = first.start;
+            distance = Math.abs(index - first.start);
+        }
+        if (second != null && Math.abs(index - second.start) < distance) {
+            node = second.node;
+            start = second.start;
+        }
+        while (index >= start + node.count) {
+            start += node.count;
+            node = node.next;
+        }
+        while (index < start) {
+            node = node.prev;
+            start -= node.count;
+        }
+
+        Finger finger = new Finger(node, start);
+        if (replaceFirst) {
+            firstFinger = finger;
+        } else {
+            secondFinger = finger;
+        }
+        replaceFirst = !replaceFirst;
+        return finger;
+    }
+
+    public Cursor cursor(int index) {
+        if (index < 0 || index > size) {
+            throw new ArrayIndexOutOfBoundsException("Invalid index: " + index);
+        }
+        return new Cursor(index);
+    }
+
+    // Sequential access without any index lookups; set() overwrites the element last returned by next or previous
+    public class Cursor {
+        private Node node;
+        private int position; // Slot in node of the element next() returns
+        private int index;
+        private Node lastNode;
+        private int lastPosition;
+
+        private Cursor(int index) {
+            this.index = index;
+            if (index < size) {
+                Finger finger = locate(index);
+                node = finger.node;
+                position = index - finger.start;
+            } else {
+                node = tail;
+                position = tail == null ? 0 : tail.count;
+            }
+        }
+
+        public boolean hasNext() {
+            return index < size;
+        }
+
+        public int next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException("No element at index " + index);
+            }
+            if (node == null) {
+                node = head; // The list was empty when the cursor was created
+                position = 0;
+            } else if (position == node.count) {
+                node = node.next;
+                position = 0;
+            }
+            lastNode = node;
+            lastPosition = position;
+            index++;
+            return node.data[position++];
+        }
+
+        public boolean hasPrevious() {
+            return index > 0;
+        }
+
+        public int previous() {
+            if (!hasPrevious()) {
+                throw new NoSuchElementException("No element before index 0");
+            }
+            if (position == 0) {
+                node = node.prev;
+                position = node.count;
+            }
+            position--;
+            index--;
+            lastNode = node;
+            lastPosition = position;
+            return node.data[position];
+        }
+
+        public void set(int value) {
+            if (lastNode == null) {
+                throw new IllegalStateException("next() or previous() has not been called");
+            }
+            lastNode.data[lastPosition] = value;
+        }
+
+        public int nextIndex() {
+            return index;
+        }
+    }
+
+    private void checkIndex(int index) {
+        if (index < 0 || index >= size) {
             throw new ArrayIndexOutOfBoundsException("Invalid index: " + index);
         }
-        Node current = head;
-        for (int i = 0; i < index; i++) {
-            current = current.next;
+    }
+
+    private void checkRange(int from, int count) {
+        if (from < 0 || count < 0 || (long) from + count > size) {
+            throw new ArrayIndexOutOfBoundsException("Invalid range: " + from + "+" + count);
         }
-        current.data = value;
     }
 }
@@ -0,0 +1,88 @@
+package net.mooctest;
+
+import java.util.Arrays;
+
+public class LoserTree {
+    private int size;
+    private int[] keys;
+    private boolean[] exhausted;
+    private int[] losers; // losers[0] holds the overall winner, losers[1..size-1] the loser of each match
+
+    public LoserTree(int size) {
+        this.size = size;
+        keys = new int[size];
+        exhausted = new boolean[size];
+        losers = new int[Math.max(1, size)];
+    }
+
+    public void setKey(int source, int key) {
+        keys[source] = key;
+        exhausted[source] = false;
+    }
+
+    public void setExhausted(int source) {
+        exhausted[source] = true;
+    }
+
+    // Plays every match once; index `size` stands for minus infinity until all leaves are in
+    public void build() {
+        Arrays.fill(losers, size);
+        for (int source = size - 1; source >= 0; source--) {
+            adjust(source);
+        }
+    }
+
+    public boolean isDone() {
+        return size == 0 || exhausted[losers[0]];
+    }
+
+    public int winner() {
+        return losers[0];
+    }
+
+    public int winnerKey() {
+        return keys[losers[0]];
+    }
+
+    public void replaceWinner(int key) {
+        int source = losers[0];
+        keys[source] = key;
+        adjust(source);
+    }
+
+    public void exhaustWinner() {
+        int source = losers[0];
+        exhausted[source] = true;
+        adjust(source);
+    }
+
+    // Replays only the matches on the path from the leaf to the root: log2(size) comparisons
+    private void adjust(int source) {
+        int winner = source;
+        for (int node = (source + size) >> 1; node > 0; node >>= 1) {
+            if (beats(losers[node], winner)) {
+                int temp = losers[node];
+                losers[node] = winner;
+                winner = temp;
+            }
+        }
+        losers[0] = winner;
+    }
+
+    // Ties go to the lower source index, which keeps merges stable
+    private boolean beats(int a, int b) {
+        if (a == size) {
+            return true;
+        }
+        if (b == size) {
+            return false;
+        }
+        if (exhausted[a]) {
+            return false;
+        }
+        if (exhausted[b]) {
+            return true;
+        }
+        return keys[a] < keys[b] || (keys[a] == keys[b] && a < b);
+    }
+}
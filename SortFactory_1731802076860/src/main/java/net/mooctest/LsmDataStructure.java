@@ -0,0 +1,381 @@
+package net.mooctest;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.concurrent.ExecutorService;
+
+// Sorted multiset for streams of appends, organised like a log-structured merge tree. Values collect in an
+// unsorted buffer; a full buffer is sorted and becomes the newest run, and adjacent runs are merged whenever the
+// older one is less than GROWTH_FACTOR times the newer. Run sizes therefore grow geometrically, there are
+// O(log n) of them and each element takes part in O(log n) merges. Merges run on the compactor while reads use
+// the published runs, which are never modified. get(i) is the i-th smallest value. set switches to a plain
+// positional copy, so in-place sorting algorithms see ordinary array semantics; the next sorted operation sorts
+// that copy back into a single run. Callers must not share an instance between threads; only the compaction
+// runs elsewhere
+public class LsmDataStructure implements DataStructure {
+    public static final int DEFAULT_BUFFER_SIZE = 1024;
+    private static final int GROWTH_FACTOR = 2;
+    private static final int MAX_PENDING_RUNS = 64; // Past this appends merge inline, so a slow compactor cannot fall far behind
+
+    private final int bufferSize;
+    private final ExecutorService compactor;
+    private final Object compactionLock = new Object();
+    private int[] buffer;
+    private int buffered;
+    private boolean bufferSorted = true;
+    private int runElements;
+    private volatile int[][] runs = new int[0][];
+    private boolean compactionScheduled;
+    private long mergedElements;
+    private int[] positional; // Set after set(), until the next sorted operation
+
+    public LsmDataStructure() {
+        this(DEFAULT_BUFFER_SIZE, ExecutionResources.getShared().fixedPool(ExecutionResources.BACKGROUND, 1));
+    }
+
+    // A null compactor merges runs on the appending thread
+    public LsmDataStructure(int bufferSize, ExecutorService compactor) {
+        if (bufferSize <= 0) {
+            throw new InvalidDataException("Buffer size must be positive: " + bufferSize);
+        }
+        this.bufferSize = bufferSize;
+        this.compactor = compactor;
+        this.buffer = new int[bufferSize];
+    }
+
+    @Override
+    public void add(int value) {
+        settle();
+        buffer[buffered++] = value;
+        bufferSorted = false;
+        if (buffered == bufferSize) {
+            flush();
+        }
+    }
+
+    @Override
+    public int size() {
+        if (positional != null) {
+            return positional.length;
+        }
+        return runElements + buffered;
+    }
+
+    @Override
+    public int get(int index) {
+        if (index < 0 || index >= size()) {
+            throw new ArrayIndexOutOfBoundsException("Invalid index: " + index);
+        }
+        if (positional != null) {
+            return positional[index];
+        }
+        sortBuffer();
+        int[][] current = runs;
+        if (current.length == 0) {
+            return buffer[index];
+        }
+        if (current.length == 1 && buffered == 0) {
+            return current[0][index];
+        }
+        // Smallest value with more than index elements at or below it
+        long low = buffered > 0 ? buffer[0] : Integer.MAX_VALUE;
+        long high = buffered > 0 ? buffer[buffered - 1] : Integer.MIN_VALUE;
+        for (int[] run : current) {
+            low = Math.min(low, run[0]);
+            high = Math.max(high, run[run.length - 1]);
+        }
+        while (low < high) {
+            long mid = (low + high) >> 1;
+            if (countAtMost(current, (int) mid) > index) {
+                high = mid;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return (int) low;
+    }
+
+    // Runs are immutable, so the first set copies the values out and later ones write to that copy
+    @Override
+    public void set(int index, int value) {
+        if (index < 0 || index >= size()) {
+            throw new ArrayIndexOutOfBoundsException("Invalid index: " + index);
+        }
+        if (positional == null) {
+            positional = toArray();
+        }
+        positional[index] = value;
+    }
+
+    @Override
+    public void read(int from, int[] target, int offset, int count) {
+        if (from < 0 || count < 0 || (long) from + count > size()) {
+            throw new ArrayIndexOutOfBoundsException("Invalid range: " + from + "+" + count);
+        }
+        if (positional != null) {
+            System.arraycopy(positional, from, target, offset, count);
+            return;
+        }
+        int[][] current = runs;
+        if (current.length == 1 && buffered == 0) {
+            System.arraycopy(current[0], from, target, offset, count);
+            return;
+        }
+        // Co-ranking finds where the range starts and ends in every run, so only the range itself is merged
+        sortBuffer();
+        int[][] sources = sources();
+        KWayMerge.merge(sources, KWayMerge.coRank(sources, from), KWayMerge.coRank(sources, (long) from + count),
+                target, offset);
+    }
+
+    @Override
+    public int[] toArray() {
+        if (positional != null) {
+            return positional.clone();
+        }
+        sortBuffer();
+        return KWayMerge.mergeSequential(sources());
+    }
+
+    @Override
+    public void fromArray(int[] data) {
+        int[] run = data.clone();
+        Arrays.sort(run);
+        synchronized (compactionLock) {
+            synchronized (this) {
+                runs = run.length == 0 ? new int[0][] : new int[][] {run};
+            }
+        }
+        runElements = run.length;
+        buffered = 0;
+        bufferSorted = true;
+        positional = null;
+    }
+
+    // Rank of the first element >= value, or size() when all are smaller
+    public int lowerBound(int value) {
+        settle();
+        sortBuffer();
+        int rank = lowerBound(buffer, buffered, value);
+        for (int[] run : runs) {
+            rank += lowerBound(run, run.length, value);
+        }
+        return rank;
+    }
+
+    public int indexOf(int value) {
+        return contains(value) ? lowerBound(value) : -1;
+    }
+
+    public boolean contains(int value) {
+        settle();
+        sortBuffer();
+        int position = lowerBound(buffer, buffered, value);
+        if (position < buffered && buffer[position] == value) {
+            return true;
+        }
+        for (int[] run : runs) {
+            position = lowerBound(run, run.length, value);
+            if (position < run.length && run[position] == value) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Ascending iteration over a snapshot; later appends are not seen
+    public PrimitiveIterator.OfInt iterator() {
+        settle();
+        sortBuffer();
+        int[][] sources = sources();
+        int[] positions = new int[sources.length];
+        LoserTree tree = new LoserTree(sources.length);
+        for (int source = 0; source < sources.length; source++) {
+            if (sources[source].length > 0) {
+                tree.setKey(source, sources[source][0]);
+            } else {
+                tree.setExhausted(source);
+            }
+        }
+        tree.build();
+        return new PrimitiveIterator.OfInt() {
+            @Override
+            public boolean hasNext() {
+                return !tree.isDone();
+            }
+
+            @Override
+            public int nextInt() {
+                if (tree.isDone()) {
+                    throw new NoSuchElementException();
+                }
+                int source = tree.winner();
+                int value = tree.winnerKey();
+                if (++positions[source] < sources[source].length) {
+                    tree.replaceWinner(sources[source][positions[source]]);
+                } else {
+                    tree.exhaustWinner();
+                }
+                return value;
+            }
+        };
+    }
+
+    // Major compaction: the buffer and every run become a single run, after which get is a plain array access
+    public void compact() {
+        settle();
+        if (buffered > 0) {
+            flush();
+        }
+        synchronized (compactionLock) {
+            int[][] current = runs;
+            if (current.length <= 1) {
+                return;
+            }
+            int[] merged = KWayMerge.mergeSequential(current);
+            synchronized (this) {
+                runs = new int[][] {merged};
+                mergedElements += merged.length;
+            }
+        }
+    }
+
+    public int getRunCount() {
+        settle();
+        return runs.length;
+    }
+
+    // Oldest run first
+    public int[] getRunSizes() {
+        settle();
+        int[][] current = runs;
+        int[] sizes = new int[current.length];
+        for (int i = 0; i < current.length; i++) {
+            sizes[i] = current[i].length;
+        }
+        return sizes;
+    }
+
+    // Total elements written by merges so far, a measure of write amplification
+    public synchronized long getMergedElements() {
+        return mergedElements;
+    }
+
+    // Sorts the positional copy left by set back into a single run
+    private void settle() {
+        if (positional != null) {
+            fromArray(positional);
+        }
+    }
+
+    private void flush() {
+        sortBuffer();
+        int[] run = Arrays.copyOf(buffer, buffered);
+        runElements += buffered;
+        buffered = 0;
+        boolean inline;
+        synchronized (this) {
+            int[][] current = runs;
+            int[][] next = Arrays.copyOf(current, current.length + 1);
+            next[current.length] = run;
+            runs = next;
+            inline = compactor == null || next.length > MAX_PENDING_RUNS;
+            if (!inline && !compactionScheduled && findMerge(next) >= 0) {
+                compactionScheduled = true;
+                compactor.execute(this::compactInBackground);
+            }
+        }
+        if (inline) {
+            synchronized (compactionLock) {
+                mergeUntilBalanced();
+            }
+        }
+    }
+
+    private void compactInBackground() {
+        while (true) {
+            synchronized (compactionLock) {
+                mergeUntilBalanced();
+            }
+            // Checked under the same lock flush uses, so a run appended after the last merge is never missed
+            synchronized (this) {
+                if (findMerge(runs) < 0) {
+                    compactionScheduled = false;
+                    return;
+                }
+            }
+        }
+    }
+
+    // Caller holds compactionLock, so in the meantime runs can only be appended and the pair stays in place
+    private void mergeUntilBalanced() {
+        int i;
+        while ((i = findMerge(runs)) >= 0) {
+            int[] older = runs[i];
+            int[] newer = runs[i + 1];
+            int[] merged = KWayMerge.mergeSequential(new int[][] {older, newer});
+            synchronized (this) {
+                int[][] latest = runs;
+                int[][] next = new int[latest.length - 1][];
+                System.arraycopy(latest, 0, next, 0, i);
+                next[i] = merged;
+                System.arraycopy(latest, i + 2, next, i + 1, latest.length - i - 2);
+                runs = next;
+                mergedElements += merged.length;
+            }
+        }
+    }
+
+    // Newest adjacent pair breaking the geometric size invariant, or -1
+    private static int findMerge(int[][] runs) {
+        for (int i = runs.length - 2; i >= 0; i--) {
+            if (runs[i].length < (long) GROWTH_FACTOR * runs[i + 1].length) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private int[][] sources() {
+        int[][] current = runs;
+        if (buffered == 0) {
+            return current;
+        }
+        int[][] sources = Arrays.copyOf(current, current.length + 1);
+        sources[current.length] = Arrays.copyOf(buffer, buffered);
+        return sources;
+    }
+
+    private void sortBuffer() {
+        if (!bufferSorted) {
+            Arrays.sort(buffer, 0, buffered);
+            bufferSorted = true;
+        }
+    }
+
+    private int countAtMost(int[][] current, int value) {
+        if (value == Integer.MAX_VALUE) {
+            return size();
+        }
+        int count = lowerBound(buffer, buffered, value + 1);
+        for (int[] run : current) {
+            count += lowerBound(run, run.length, value + 1);
+        }
+        return count;
+    }
+
+    private static int lowerBound(int[] a, int length, int value) {
+        int low = 0;
+        int high = length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (a[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+}
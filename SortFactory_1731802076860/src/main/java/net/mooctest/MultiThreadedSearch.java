@@ -1,33 +1,123 @@
 package net.mooctest;
 
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
 
 public class MultiThreadedSearch {
-    private ThreadPoolExecutor executor;
+    private static final int DEFAULT_CHUNK_SIZE = 1 << 14;
+
+    private ForkJoinPool forkJoinPool;
+    private int chunkSize;
+    private volatile boolean shutdown;
 
     public MultiThreadedSearch(int threadCount) {
-        // Use ThreadPoolExecutor instead of ExecutorService
-        executor = (ThreadPoolExecutor) Executors.newFixedThreadPool(threadCount);
+        this(threadCount, DEFAULT_CHUNK_SIZE);
     }
 
-    public int parallelSearch(int[] data, int target) throws InterruptedException, ExecutionException {
-        int partitionSize = data.length / executor.getPoolSize(); // Fixed to getPoolSize() to obtain thread pool size
-        Future<Integer>[] futures = new Future[executor.getPoolSize()];
+    public MultiThreadedSearch(int threadCount, int chunkSize) {
+        this(ExecutionResources.getShared().forkJoinPool(threadCount), chunkSize);
+    }
 
-        for (int i = 0; i < executor.getPoolSize(); i++) {
-            final int start = i * partitionSize;
-            final int end = (i == executor.getPoolSize() - 1) ? data.length : start + partitionSize;
-            futures[i] = executor.submit(() -> linearSearch(data, target, start, end));
+    public MultiThreadedSearch(ForkJoinPool forkJoinPool, int chunkSize) {
+        if (chunkSize < 1) {
+            throw new InvalidDataException("Invalid chunk size: " + chunkSize);
         }
+        this.forkJoinPool = forkJoinPool;
+        this.chunkSize = chunkSize;
+    }
 
-        // Check the results of each partition
-        for (Future<Integer> future : futures) {
-            int result = future.get();
-            if (result != -1) {
-                return result;
+    public int parallelSearch(int[] data, int target) throws InterruptedException, ExecutionException {
+        return search(data, target).getIndex();
+    }
+
+    // Workers claim fixed-size chunks in ascending order and stop as soon as no unclaimed chunk can beat the best hit
+    public SearchResult search(int[] data, int target) {
+        long startTime = System.nanoTime();
+        int totalChunks = (data.length + chunkSize - 1) / chunkSize;
+        AtomicInteger nextChunk = new AtomicInteger();
+        AtomicInteger chunksScanned = new AtomicInteger();
+        AtomicInteger lowestHit = new AtomicInteger(Integer.MAX_VALUE);
+        AtomicLong firstHitTime = new AtomicLong(-1);
+
+        runWorkers(totalChunks, () -> {
+            int chunk;
+            while ((chunk = nextChunk.getAndIncrement()) < totalChunks) {
+                int start = chunk * chunkSize;
+                if (start >= lowestHit.get()) {
+                    return;
+                }
+                chunksScanned.incrementAndGet();
+                int end = Math.min(data.length, start + chunkSize);
+                int hit = linearSearch(data, target, start, end);
+                if (hit != -1) {
+                    lowestHit.accumulateAndGet(hit, Math::min);
+                    firstHitTime.compareAndSet(-1, System.nanoTime() - startTime);
+                }
             }
+        });
+
+        int index = lowestHit.get() == Integer.MAX_VALUE ? -1 : lowestHit.get();
+        return new SearchResult(new int[] {index}, chunksScanned.get(), totalChunks, firstHitTime.get(),
+                System.nanoTime() - startTime);
+    }
+
+    // Looks up every target in a single pass over the data; result i is the lowest index of targets[i] or -1
+    public SearchResult batchSearch(int[] data, int[] targets) {
+        long startTime = System.nanoTime();
+        // Each distinct target gets a slot; the table is only read while the workers scan
+        IntIntHashMap slots = new IntIntHashMap(targets.length);
+        for (int target : targets) {
+            slots.putIfAbsent(target, slots.size());
+        }
+        int totalChunks = (data.length + chunkSize - 1) / chunkSize;
+        AtomicInteger nextChunk = new AtomicInteger();
+        AtomicInteger chunksScanned = new AtomicInteger();
+        AtomicIntegerArray lowestHits = new AtomicIntegerArray(slots.size());
+        for (int i = 0; i < slots.size(); i++) {
+            lowestHits.set(i, Integer.MAX_VALUE);
+        }
+        AtomicLong firstHitTime = new AtomicLong(-1);
+
+        if (slots.size() > 0) {
+            runWorkers(totalChunks, () -> {
+                int chunk;
+                while ((chunk = nextChunk.getAndIncrement()) < totalChunks) {
+                    chunksScanned.incrementAndGet();
+                    int end = Math.min(data.length, (chunk + 1) * chunkSize);
+                    for (int i = chunk * chunkSize; i < end; i++) {
+                        int slot = slots.get(data[i], -1);
+                        if (slot >= 0 && i < lowestHits.get(slot)) {
+                            lowestHits.accumulateAndGet(slot, i, Math::min);
+                            firstHitTime.compareAndSet(-1, System.nanoTime() - startTime);
+                        }
+                    }
+                }
+            });
+        }
+
+        int[] indices = new int[targets.length];
+        for (int i = 0; i < targets.length; i++) {
+            int hit = lowestHits.get(slots.get(targets[i], -1));
+            indices[i] = hit == Integer.MAX_VALUE ? -1 : hit;
+        }
+        return new SearchResult(indices, chunksScanned.get(), totalChunks, firstHitTime.get(),
+                System.nanoTime() - startTime);
+    }
+
+    private void runWorkers(int totalChunks, Runnable worker) {
+        if (shutdown) {
+            throw new ConcurrencyException("Search has been shut down");
+        }
+        int workers = Math.min(forkJoinPool.getParallelism(), totalChunks);
+        ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[workers];
+        for (int i = 0; i < workers; i++) {
+            tasks[i] = forkJoinPool.submit(worker);
+        }
+        for (ForkJoinTask<?> task : tasks) {
+            task.join();
         }
-        return -1; // If all partitions cannot find the target, return -1
     }
 
     public int linearSearch(int[] data, int target, int start, int end) {
@@ -39,7 +129,8 @@ public class MultiThreadedSearch {
         return -1;
     }
 
+    // The pool belongs to ExecutionResources and stays up for its other users; only this search stops
     public void shutdown() {
-        executor.shutdown(); // Normal shutdown of thread pool
+        shutdown = true;
     }
 }
@@ -0,0 +1,509 @@
+package net.mooctest;
+
+public class NaturalMergeSort implements Algorithm {
+    private static final int MIN_MERGE = 32;
+    private static final int MIN_GALLOP = 7;
+    private static final int MAX_RUN_STACK = 49; // Enough for any int length given the run length invariants
+
+    @Override
+    public void sort(DataStructure data, SortMetrics metrics) {
+        int[] array = data.toArray();
+        timSort(array, metrics);
+        data.fromArray(array);
+    }
+
+    public void timSort(int[] array, SortMetrics metrics) {
+        int n = array.length;
+        if (n < 2) {
+            return;
+        }
+        if (n < MIN_MERGE) {
+            int runLength = countRunAndMakeAscending(array, 0, n, metrics);
+            binaryInsertionSort(array, 0, n, runLength, metrics);
+            return;
+        }
+
+        MergeState state = new MergeState(array, metrics);
+        int minRun = minRunLength(n);
+        int low = 0;
+        int remaining = n;
+        do {
+            int runLength = countRunAndMakeAscending(array, low, low + remaining, metrics);
+            if (runLength < minRun) {
+                // Extend short runs to minRun so the merge tree stays balanced
+                int forced = Math.min(remaining, minRun);
+                binaryInsertionSort(array, low, low + forced, low + runLength, metrics);
+                runLength = forced;
+            }
+            state.pushRun(low, runLength);
+            state.mergeCollapse();
+            low += runLength;
+            remaining -= runLength;
+        } while (remaining != 0);
+        state.mergeForceCollapse();
+    }
+
+    public int minRunLength(int n) {
+        int carry = 0;
+        while (n >= MIN_MERGE) {
+            carry |= (n & 1);
+            n >>= 1;
+        }
+        return n + carry;
+    }
+
+    // Strictly descending runs are reversed in place, which keeps the sort stable
+    public int countRunAndMakeAscending(int[] array, int low, int high, SortMetrics metrics) {
+        int runHigh = low + 1;
+        if (runHigh == high) {
+            return 1;
+        }
+        metrics.compare();
+        if (array[runHigh++] < array[low]) {
+            while (runHigh < high && array[runHigh] < array[runHigh - 1]) {
+                metrics.compare();
+                runHigh++;
+            }
+            reverseRange(array, low, runHigh, metrics);
+        } else {
+            while (runHigh < high && array[runHigh] >= array[runHigh - 1]) {
+                metrics.compare();
+                runHigh++;
+            }
+        }
+        return runHigh - low;
+    }
+
+    public void reverseRange(int[] array, int low, int high, SortMetrics metrics) {
+        high--;
+        while (low < high) {
+            int temp = array[low];
+            array[low++] = array[high];
+            array[high--] = temp;
+            metrics.swap();
+        }
+    }
+
+    public void binaryInsertionSort(int[] array, int low, int high, int start, SortMetrics metrics) {
+        if (start == low) {
+            start++;
+        }
+        for (; start < high; start++) {
+            int pivot = array[start];
+            int left = low;
+            int right = start;
+            while (left < right) {
+                int mid = (left + right) >>> 1;
+                metrics.compare();
+                if (pivot < array[mid]) {
+                    right = mid;
+                } else {
+                    left = mid + 1;
+                }
+            }
+            System.arraycopy(array, left, array, left + 1, start - left);
+            array[left] = pivot;
+            metrics.swap();
+        }
+    }
+
+    // Returns k such that array[base + k - 1] < key <= array[base + k]
+    public int gallopLeft(int key, int[] array, int base, int length, int hint, SortMetrics metrics) {
+        int lastOffset = 0;
+        int offset = 1;
+        metrics.compare();
+        if (key > array[base + hint]) {
+            int maxOffset = length - hint;
+            while (offset < maxOffset && key > array[base + hint + offset]) {
+                metrics.compare();
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            lastOffset += hint;
+            offset += hint;
+        } else {
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && key <= array[base + hint - offset]) {
+                metrics.compare();
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            int temp = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - temp;
+        }
+
+        lastOffset++;
+        while (lastOffset < offset) {
+            int mid = lastOffset + ((offset - lastOffset) >>> 1);
+            metrics.compare();
+            if (key > array[base + mid]) {
+                lastOffset = mid + 1;
+            } else {
+                offset = mid;
+            }
+        }
+        return offset;
+    }
+
+    // Returns k such that array[base + k - 1] <= key < array[base + k]
+    public int gallopRight(int key, int[] array, int base, int length, int hint, SortMetrics metrics) {
+        int lastOffset = 0;
+        int offset = 1;
+        metrics.compare();
+        if (key < array[base + hint]) {
+            int maxOffset = hint + 1;
+            while (offset < maxOffset && key < array[base + hint - offset]) {
+                metrics.compare();
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            int temp = lastOffset;
+            lastOffset = hint - offset;
+            offset = hint - temp;
+        } else {
+            int maxOffset = length - hint;
+            while (offset < maxOffset && key >= array[base + hint + offset]) {
+                metrics.compare();
+                lastOffset = offset;
+                offset = (offset << 1) + 1;
+                if (offset <= 0) {
+                    offset = maxOffset;
+                }
+            }
+            if (offset > maxOffset) {
+                offset = maxOffset;
+            }
+            lastOffset += hint;
+            offset += hint;
+        }
+
+        lastOffset++;
+        while (lastOffset < offset) {
+            int mid = lastOffset + ((offset - lastOffset) >>> 1);
+            metrics.compare();
+            if (key < array[base + mid]) {
+                offset = mid;
+            } else {
+                lastOffset = mid + 1;
+            }
+        }
+        return offset;
+    }
+
+    public class MergeState {
+        private int[] array;
+        private SortMetrics metrics;
+        private int[] temp = new int[0];
+        private int[] runBase = new int[MAX_RUN_STACK];
+        private int[] runLength = new int[MAX_RUN_STACK];
+        private int stackSize = 0;
+        private int minGallop = MIN_GALLOP;
+
+        public MergeState(int[] array, SortMetrics metrics) {
+            this.array = array;
+            this.metrics = metrics;
+        }
+
+        public void pushRun(int base, int length) {
+            runBase[stackSize] = base;
+            runLength[stackSize] = length;
+            stackSize++;
+        }
+
+        public void mergeCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLength[n - 1] <= runLength[n] + runLength[n + 1]
+                        || n > 1 && runLength[n - 2] <= runLength[n] + runLength[n - 1]) {
+                    if (runLength[n - 1] < runLength[n + 1]) {
+                        n--;
+                    }
+                } else if (runLength[n] > runLength[n + 1]) {
+                    break;
+                }
+                mergeAt(n);
+            }
+        }
+
+        public void mergeForceCollapse() {
+            while (stackSize > 1) {
+                int n = stackSize - 2;
+                if (n > 0 && runLength[n - 1] < runLength[n + 1]) {
+                    n--;
+                }
+                mergeAt(n);
+            }
+        }
+
+        public void mergeAt(int i) {
+            int base1 = runBase[i];
+            int length1 = runLength[i];
+            int base2 = runBase[i + 1];
+            int length2 = runLength[i + 1];
+
+            runLength[i] = length1 + length2;
+            if (i == stackSize - 3) {
+                runBase[i + 1] = runBase[i + 2];
+                runLength[i + 1] = runLength[i + 2];
+            }
+            stackSize--;
+
+            // Elements of run1 already below run2's head, and of run2 above run1's tail, stay where they are
+            int skip = gallopRight(array[base2], array, base1, length1, 0, metrics);
+            base1 += skip;
+            length1 -= skip;
+            if (length1 == 0) {
+                return;
+            }
+            length2 = gallopLeft(array[base1 + length1 - 1], array, base2, length2, length2 - 1, metrics);
+            if (length2 == 0) {
+                return;
+            }
+            if (length1 <= length2) {
+                mergeLow(base1, length1, base2, length2);
+            } else {
+                mergeHigh(base1, length1, base2, length2);
+            }
+        }
+
+        public void mergeLow(int base1, int length1, int base2, int length2) {
+            int[] a = array;
+            int[] tmp = ensureCapacity(length1);
+            System.arraycopy(a, base1, tmp, 0, length1);
+            int cursor1 = 0;
+            int cursor2 = base2;
+            int dest = base1;
+
+            a[dest++] = a[cursor2++];
+            if (--length2 == 0) {
+                System.arraycopy(tmp, cursor1, a, dest, length1);
+                return;
+            }
+            if (length1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, length2);
+                a[dest + length2] = tmp[cursor1];
+                return;
+            }
+
+            int gallop = minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+                do {
+                    metrics.compare();
+                    if (a[cursor2] < tmp[cursor1]) {
+                        a[dest++] = a[cursor2++];
+                        count2++;
+                        count1 = 0;
+                        if (--length2 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest++] = tmp[cursor1++];
+                        count1++;
+                        count2 = 0;
+                        if (--length1 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < gallop);
+
+                // One run keeps winning: switch to galloping and copy whole stretches at once
+                do {
+                    count1 = gallopRight(a[cursor2], tmp, cursor1, length1, 0, metrics);
+                    if (count1 != 0) {
+                        System.arraycopy(tmp, cursor1, a, dest, count1);
+                        dest += count1;
+                        cursor1 += count1;
+                        length1 -= count1;
+                        if (length1 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = a[cursor2++];
+                    if (--length2 == 0) {
+                        break outer;
+                    }
+
+                    count2 = gallopLeft(tmp[cursor1], a, cursor2, length2, 0, metrics);
+                    if (count2 != 0) {
+                        System.arraycopy(a, cursor2, a, dest, count2);
+                        dest += count2;
+                        cursor2 += count2;
+                        length2 -= count2;
+                        if (length2 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest++] = tmp[cursor1++];
+                    if (--length1 == 1) {
+                        break outer;
+                    }
+                    gallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (gallop < 0) {
+                    gallop = 0;
+                }
+                gallop += 2;
+            }
+            minGallop = gallop < 1 ? 1 : gallop;
+
+            if (length1 == 1) {
+                System.arraycopy(a, cursor2, a, dest, length2);
+                a[dest + length2] = tmp[cursor1];
+            } else {
+                System.arraycopy(tmp, cursor1, a, dest, length1);
+            }
+        }
+
+        public void mergeHigh(int base1, int length1, int base2, int length2) {
+            int[] a = array;
+            int[] tmp = ensureCapacity(length2);
+            System.arraycopy(a, base2, tmp, 0, length2);
+            int cursor1 = base1 + length1 - 1;
+            int cursor2 = length2 - 1;
+            int dest = base2 + length2 - 1;
+
+            a[dest--] = a[cursor1--];
+            if (--length1 == 0) {
+                System.arraycopy(tmp, 0, a, dest - (length2 - 1), length2);
+                return;
+            }
+            if (length2 == 1) {
+                dest -= length1;
+                cursor1 -= length1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, length1);
+                a[dest] = tmp[cursor2];
+                return;
+            }
+
+            int gallop = minGallop;
+            outer:
+            while (true) {
+                int count1 = 0;
+                int count2 = 0;
+                do {
+                    metrics.compare();
+                    if (tmp[cursor2] < a[cursor1]) {
+                        a[dest--] = a[cursor1--];
+                        count1++;
+                        count2 = 0;
+                        if (--length1 == 0) {
+                            break outer;
+                        }
+                    } else {
+                        a[dest--] = tmp[cursor2--];
+                        count2++;
+                        count1 = 0;
+                        if (--length2 == 1) {
+                            break outer;
+                        }
+                    }
+                } while ((count1 | count2) < gallop);
+
+                do {
+                    count1 = length1 - gallopRight(tmp[cursor2], a, base1, length1, length1 - 1, metrics);
+                    if (count1 != 0) {
+                        dest -= count1;
+                        cursor1 -= count1;
+                        length1 -= count1;
+                        System.arraycopy(a, cursor1 + 1, a, dest + 1, count1);
+                        if (length1 == 0) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = tmp[cursor2--];
+                    if (--length2 == 1) {
+                        break outer;
+                    }
+
+                    count2 = length2 - gallopLeft(a[cursor1], tmp, 0, length2, length2 - 1, metrics);
+                    if (count2 != 0) {
+                        dest -= count2;
+                        cursor2 -= count2;
+                        length2 -= count2;
+                        System.arraycopy(tmp, cursor2 + 1, a, dest + 1, count2);
+                        if (length2 <= 1) {
+                            break outer;
+                        }
+                    }
+                    a[dest--] = a[cursor1--];
+                    if (--length1 == 0) {
+                        break outer;
+                    }
+                    gallop--;
+                } while (count1 >= MIN_GALLOP | count2 >= MIN_GALLOP);
+                if (gallop < 0) {
+                    gallop = 0;
+                }
+                gallop += 2;
+            }
+            minGallop = gallop < 1 ? 1 : gallop;
+
+            if (length2 == 1) {
+                dest -= length1;
+                cursor1 -= length1;
+                System.arraycopy(a, cursor1 + 1, a, dest + 1, length1);
+                a[dest] = tmp[cursor2];
+            } else {
+                System.arraycopy(tmp, 0, a, dest - (length2 - 1), length2);
+            }
+        }
+
+        private int[] ensureCapacity(int minCapacity) {
+            if (temp.length < minCapacity) {
+                temp = new int[Math.max(minCapacity, Math.min(array.length >>> 1, minCapacity * 2))];
+            }
+            return temp;
+        }
+    }
+
+    @Override
+    public int search(DataStructure data, int target) {
+        int low = 0;
+        int high = data.size() - 1;
+        while (low <= high) {
+            int mid = low + (high - low) / 2;
+            int value = data.get(mid);
+            if (value == target) {
+                return mid;
+            }
+            if (value > target) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String getName() {
+        return "Natural Merge Sort";
+    }
+
+    @Override
+    public AlgorithmPerformance evaluatePerformance(DataStructure data) {
+        return new PerformanceMeter().measure(this, data, 1);
+    }
+}
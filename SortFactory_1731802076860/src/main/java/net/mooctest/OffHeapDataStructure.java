@@ -0,0 +1,187 @@
+package net.mooctest;
+
+import java.io.Closeable;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class OffHeapDataStructure implements DataStructure, Closeable {
+    private static final int DEFAULT_SEGMENT_SHIFT = 24; // 16M ints, 64 MB of direct memory per segment
+    private static final int MIN_SEGMENT_SHIFT = 10;
+    private static final int MAX_SEGMENT_SHIFT = 28; // 1 GB; a larger segment overflows the int buffer capacity
+
+    private int segmentShift;
+    private int segmentSize;
+    private int segmentMask;
+    private List<ByteBuffer> segments = new ArrayList<>();
+    private List<IntBuffer> views = new ArrayList<>();
+    private int size;
+
+    public OffHeapDataStructure() {
+        this(DEFAULT_SEGMENT_SHIFT);
+    }
+
+    public OffHeapDataStructure(int segmentShift) {
+        if (segmentShift < MIN_SEGMENT_SHIFT || segmentShift > MAX_SEGMENT_SHIFT) {
+            throw new InvalidDataException("Segment shift must be between " + MIN_SEGMENT_SHIFT + " and "
+                    + MAX_SEGMENT_SHIFT + ": " + segmentShift);
+        }
+        this.segmentShift = segmentShift;
+        this.segmentSize = 1 << segmentShift;
+        this.segmentMask = segmentSize - 1;
+        this.size = 0;
+    }
+
+    @Override
+    public int[] toArray() {
+        int[] result = new int[size];
+        read(0, result, 0, size);
+        return result;
+    }
+
+    @Override
+    public void fromArray(int[] data) {
+        ensureCapacity(data.length);
+        size = data.length;
+        write(0, data, 0, data.length);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void add(int value) {
+        ensureCapacity(size + 1);
+        views.get(size >>> segmentShift).put(size & segmentMask, value);
+        size++;
+    }
+
+    @Override
+    public int get(int index) {
+        if (index >= size) {
+            throw new ArrayIndexOutOfBoundsException("Invalid index: " + index);
+        }
+        return views.get(index >>> segmentShift).get(index & segmentMask);
+    }
+
+    @Override
+    public void set(int index, int value) {
+        if (index >= size) {
+            throw new ArrayIndexOutOfBoundsException("Invalid index: " + index);
+        }
+        views.get(index >>> segmentShift).put(index & segmentMask, value);
+    }
+
+    // Copies segment by segment; disjoint ranges may be read and written from several threads at once
+    @Override
+    public void read(int from, int[] target, int offset, int count) {
+        checkRange(from, count);
+        while (count > 0) {
+            int inSegment = from & segmentMask;
+            int chunk = Math.min(count, segmentSize - inSegment);
+            IntBuffer view = views.get(from >>> segmentShift).duplicate();
+            view.position(inSegment);
+            view.get(target, offset, chunk);
+            from += chunk;
+            offset += chunk;
+            count -= chunk;
+        }
+    }
+
+    @Override
+    public void write(int from, int[] source, int offset, int count) {
+        checkRange(from, count);
+        while (count > 0) {
+            int inSegment = from & segmentMask;
+            int chunk = Math.min(count, segmentSize - inSegment);
+            IntBuffer view = views.get(from >>> segmentShift).duplicate();
+            view.position(inSegment);
+            view.put(source, offset, chunk);
+            from += chunk;
+            offset += chunk;
+            count -= chunk;
+        }
+    }
+
+    public long getCapacity() {
+        return (long) segments.size() * segmentSize;
+    }
+
+    // Growth only appends segments, existing data is never copied
+    public void ensureCapacity(int capacity) {
+        while (getCapacity() < capacity) {
+            ByteBuffer segment = ByteBuffer.allocateDirect(segmentSize * Integer.BYTES).order(ByteOrder.nativeOrder());
+            segments.add(segment);
+            views.add(segment.asIntBuffer());
+        }
+    }
+
+    // Takes over the other structure's segments, releasing the current ones; the other is left empty
+    public void transferFrom(OffHeapDataStructure other) {
+        if (other.segmentShift != segmentShift) {
+            throw new InvalidDataException("Segment sizes differ: " + other.segmentSize + " vs " + segmentSize);
+        }
+        release();
+        segments = other.segments;
+        views = other.views;
+        size = other.size;
+        other.segments = new ArrayList<>();
+        other.views = new ArrayList<>();
+        other.size = 0;
+    }
+
+    public OffHeapDataStructure newEmptyCopy(int capacity) {
+        OffHeapDataStructure copy = new OffHeapDataStructure(segmentShift);
+        copy.ensureCapacity(capacity);
+        copy.size = capacity;
+        return copy;
+    }
+
+    // Frees the direct memory now instead of waiting for the garbage collector to notice the buffers
+    public void release() {
+        for (ByteBuffer segment : segments) {
+            freeDirectBuffer(segment);
+        }
+        segments = new ArrayList<>();
+        views = new ArrayList<>();
+        size = 0;
+    }
+
+    @Override
+    public void close() {
+        release();
+    }
+
+    private void checkRange(int from, int count) {
+        if (from < 0 || count < 0 || (long) from + count > size) {
+            throw new ArrayIndexOutOfBoundsException("Invalid range: " + from + "+" + count);
+        }
+    }
+
+    private static void freeDirectBuffer(ByteBuffer buffer) {
+        try {
+            // Java 9+: sun.misc.Unsafe.invokeCleaner
+            Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+            Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            invokeCleaner.invoke(theUnsafe.get(null), buffer);
+        } catch (ReflectiveOperationException | RuntimeException java9Failure) {
+            try {
+                // Java 8: DirectByteBuffer.cleaner().clean()
+                Method cleanerMethod = buffer.getClass().getMethod("cleaner");
+                cleanerMethod.setAccessible(true);
+                Object cleaner = cleanerMethod.invoke(buffer);
+                cleaner.getClass().getMethod("clean").invoke(cleaner);
+            } catch (ReflectiveOperationException | RuntimeException java8Failure) {
+                // Leave it to the garbage collector
+            }
+        }
+    }
+}
@@ -1,77 +1,73 @@
 package net.mooctest;
 
 public class OptimizedQuickSort implements Algorithm {
-    private int comparisons = 0;
-    private int swaps = 0;
-
     @Override
-    public void sort(DataStructure data) {
-        comparisons = 0;
-        swaps = 0;
-        quickSort(data, 0, data.size() - 1);
+    public void sort(DataStructure data, SortMetrics metrics) {
+        quickSort(data, 0, data.size() - 1, metrics);
     }
 
-    public void quickSort(DataStructure data, int low, int high) {
+    public void quickSort(DataStructure data, int low, int high, SortMetrics metrics) {
         if (low < high) {
             if (high - low <= 10) {
                 // Optimizing insertion sort for small-scale arrays
-                insertionSort(data, low, high);
+                insertionSort(data, low, high, metrics);
             } else {
-                int pi = partition(data, low, high);
-                quickSort(data, low, pi - 1);
-                quickSort(data, pi + 1, high);
+                int pi = partition(data, low, high, metrics);
+                quickSort(data, low, pi - 1, metrics);
+                quickSort(data, pi + 1, high, metrics);
             }
         }
     }
 
-    public void insertionSort(DataStructure data, int low, int high) {
+    public void insertionSort(DataStructure data, int low, int high, SortMetrics metrics) {
         for (int i = low + 1; i <= high; i++) {
             int key = data.get(i);
             int j = i - 1;
             while (j >= low && data.get(j) > key) {
-                comparisons++;
+                metrics.compare();
                 data.set(j + 1, data.get(j));
                 j--;
             }
-            swaps++;
+            metrics.swap();
             data.set(j + 1, key);
         }
     }
 
-    public int partition(DataStructure data, int low, int high) {
-        int pivot = medianOfThree(data, low, high);
+    public int partition(DataStructure data, int low, int high, SortMetrics metrics) {
+        // The pivot is parked at high - 1 and data[high] is already no smaller, so only low..high-2 is scanned
+        int pivot = medianOfThree(data, low, high, metrics);
         int i = low - 1;
-        for (int j = low; j < high; j++) {
-            comparisons++;
+        for (int j = low; j < high - 1; j++) {
+            metrics.compare();
             if (data.get(j) < pivot) {
                 i++;
-                swap(data, i, j);
+                swap(data, i, j, metrics);
             }
         }
-        swap(data, i + 1, high);
+        swap(data, i + 1, high - 1, metrics);
         return i + 1;
     }
 
-    public int medianOfThree(DataStructure data, int low, int high) {
+    public int medianOfThree(DataStructure data, int low, int high, SortMetrics metrics) {
         int mid = low + (high - low) / 2;
         if (data.get(low) > data.get(mid)) {
-            swap(data, low, mid);
+            swap(data, low, mid, metrics);
         }
         if (data.get(low) > data.get(high)) {
-            swap(data, low, high);
+            swap(data, low, high, metrics);
         }
         if (data.get(mid) > data.get(high)) {
-            swap(data, mid, high);
+            swap(data, mid, high, metrics);
         }
-        swap(data, mid, high - 1);
+        swap(data, mid, high - 1, metrics);
         return data.get(high - 1);
     }
 
-    public void swap(DataStructure data, int i, int j) {
+    public void swap(DataStructure data, int i, int j, SortMetrics metrics) {
         int temp = data.get(i);
         data.set(i, data.get(j));
         data.set(j, temp);
-        swaps++;
+        metrics.swap();
     }
 
     @Override
@@ -100,10 +96,6 @@ public class OptimizedQuickSort implements Algorithm {
 
     @Override
     public AlgorithmPerformance evaluatePerformance(DataStructure data) {
-        long startTime = System.nanoTime();
-        sort(data);
-        long endTime = System.nanoTime();
-        long memoryUsed = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        return new AlgorithmPerformance(endTime - startTime, comparisons, swaps, memoryUsed, 1);
+        return new PerformanceMeter().measure(this, data, 1);
     }
 }
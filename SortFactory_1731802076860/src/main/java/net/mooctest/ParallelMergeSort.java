@@ -4,36 +4,44 @@ import java.util.concurrent.RecursiveAction;
 import java.util.concurrent.ForkJoinPool;
 
 public class ParallelMergeSort implements Algorithm {
-    private int comparisons = 0;
     private ForkJoinPool forkJoinPool;
 
+    // Borrows a pool from the shared execution resources instead of starting one per instance
     public ParallelMergeSort(int parallelism) {
-        forkJoinPool = new ForkJoinPool(parallelism);
+        this(ExecutionResources.getShared().forkJoinPool(parallelism));
+    }
+
+    public ParallelMergeSort(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
     }
 
     @Override
-    public void sort(DataStructure data) {
-        comparisons = 0;
-        forkJoinPool.invoke(new MergeSortTask(data, 0, data.size() - 1));
+    public void sort(DataStructure data, SortMetrics metrics) {
+        forkJoinPool.invoke(new MergeSortTask(data, 0, data.size() - 1, metrics));
     }
 
     public class MergeSortTask extends RecursiveAction {
         private DataStructure data;
         private int low, high;
+        private SortMetrics metrics;
 
-        public MergeSortTask(DataStructure data, int low, int high) {
+        public MergeSortTask(DataStructure data, int low, int high, SortMetrics metrics) {
             this.data = data;
             this.low = low;
             this.high = high;
+            this.metrics = metrics;
         }
 
         @Override
         protected void compute() {
             if (low < high) {
                 int mid = (low + high) / 2;
-                MergeSortTask leftTask = new MergeSortTask(data, low, mid);
-                MergeSortTask rightTask = new MergeSortTask(data, mid + 1, high);
+                // Each subtask counts into its own context, merged back once both have joined
+                MergeSortTask leftTask = new MergeSortTask(data, low, mid, metrics.fork());
+                MergeSortTask rightTask = new MergeSortTask(data, mid + 1, high, metrics.fork());
                 invokeAll(leftTask, rightTask);
+                metrics.merge(leftTask.metrics);
+                metrics.merge(rightTask.metrics);
                 merge(data, low, mid, high);
             }
         }
@@ -50,7 +58,7 @@ public class ParallelMergeSort implements Algorithm {
 
             int i = 0, j = 0, k = low;
             while (i < left.length && j < right.length) {
-                comparisons++;
+                metrics.compare();
                 if (left[i] <= right[j]) {
                     data.set(k++, left[i++]);
                 } else {
@@ -94,10 +102,6 @@ public class ParallelMergeSort implements Algorithm {
 
     @Override
     public AlgorithmPerformance evaluatePerformance(DataStructure data) {
-        long startTime = System.nanoTime();
-        sort(data);
-        long endTime = System.nanoTime();
-        long memoryUsed = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        return new AlgorithmPerformance(endTime - startTime, comparisons, 0, memoryUsed, forkJoinPool.getParallelism());
+        return new PerformanceMeter().measure(this, data, forkJoinPool.getParallelism(), forkJoinPool);
     }
 }
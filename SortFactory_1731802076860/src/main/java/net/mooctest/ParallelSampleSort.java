@@ -0,0 +1,148 @@
+package net.mooctest;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntConsumer;
+
+public class ParallelSampleSort implements Algorithm {
+    private static final int SEQUENTIAL_THRESHOLD = 1 << 13;
+    private static final int BLOCK_SIZE = 1 << 12; // 16 KB of ints per block, stays in L1/L2 while classifying
+    private static final int OVERSAMPLING = 16;
+    private static final int MAX_SPLITTERS = 255;
+
+    private ForkJoinPool forkJoinPool;
+
+    public ParallelSampleSort() {
+        this(ExecutionResources.getShared().forkJoinPool());
+    }
+
+    public ParallelSampleSort(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    @Override
+    public void sort(DataStructure data, SortMetrics metrics) {
+        int[] array = data.toArray();
+        if (array.length < SEQUENTIAL_THRESHOLD) {
+            Arrays.sort(array);
+            data.fromArray(array);
+        } else {
+            data.fromArray(sampleSort(array));
+        }
+    }
+
+    public int[] sampleSort(int[] array) {
+        int n = array.length;
+        int[] splitters = selectSplitters(array, Math.min(MAX_SPLITTERS, forkJoinPool.getParallelism() * 4 - 1));
+        // Bucket 2i holds values in (splitters[i-1], splitters[i]), bucket 2i+1 holds values equal to splitters[i]
+        int bucketCount = 2 * splitters.length + 1;
+        int blockCount = (n + BLOCK_SIZE - 1) / BLOCK_SIZE;
+
+        int[][] blockCounts = new int[blockCount][bucketCount];
+        forEach(blockCount, block -> {
+            int[] counts = blockCounts[block];
+            int end = Math.min(n, (block + 1) * BLOCK_SIZE);
+            for (int i = block * BLOCK_SIZE; i < end; i++) {
+                counts[classify(splitters, array[i])]++;
+            }
+        });
+
+        // Turn the per-block histograms into write offsets, bucket-major so each bucket ends up contiguous
+        int[] bucketStarts = new int[bucketCount + 1];
+        int offset = 0;
+        for (int bucket = 0; bucket < bucketCount; bucket++) {
+            bucketStarts[bucket] = offset;
+            for (int block = 0; block < blockCount; block++) {
+                int count = blockCounts[block][bucket];
+                blockCounts[block][bucket] = offset;
+                offset += count;
+            }
+        }
+        bucketStarts[bucketCount] = n;
+
+        int[] result = new int[n];
+        forEach(blockCount, block -> {
+            int[] offsets = blockCounts[block];
+            int end = Math.min(n, (block + 1) * BLOCK_SIZE);
+            for (int i = block * BLOCK_SIZE; i < end; i++) {
+                int value = array[i];
+                result[offsets[classify(splitters, value)]++] = value;
+            }
+        });
+
+        forEach(bucketCount, bucket -> {
+            // Equality buckets already hold a single value, so duplicate-heavy input costs no extra work
+            if ((bucket & 1) == 0) {
+                Arrays.sort(result, bucketStarts[bucket], bucketStarts[bucket + 1]);
+            }
+        });
+        return result;
+    }
+
+    public int[] selectSplitters(int[] array, int splitterCount) {
+        int[] sample = new int[(splitterCount + 1) * OVERSAMPLING];
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        for (int i = 0; i < sample.length; i++) {
+            sample[i] = array[random.nextInt(array.length)];
+        }
+        Arrays.sort(sample);
+
+        int[] splitters = new int[splitterCount];
+        int distinct = 0;
+        for (int i = 0; i < splitterCount; i++) {
+            int candidate = sample[(i + 1) * OVERSAMPLING];
+            if (distinct == 0 || splitters[distinct - 1] != candidate) {
+                splitters[distinct++] = candidate;
+            }
+        }
+        return Arrays.copyOf(splitters, distinct);
+    }
+
+    public int classify(int[] splitters, int value) {
+        int low = 0;
+        int high = splitters.length;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (splitters[mid] < value) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return (low < splitters.length && splitters[low] == value) ? 2 * low + 1 : 2 * low;
+    }
+
+    private void forEach(int count, IntConsumer body) {
+        forkJoinPool.invoke(new ForEachTask(0, count, body));
+    }
+
+    @Override
+    public int search(DataStructure data, int target) {
+        int low = 0;
+        int high = data.size() - 1;
+        while (low <= high) {
+            int mid = low + (high - low) / 2;
+            int value = data.get(mid);
+            if (value == target) {
+                return mid;
+            }
+            if (value > target) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String getName() {
+        return "Parallel Sample Sort";
+    }
+
+    @Override
+    public AlgorithmPerformance evaluatePerformance(DataStructure data) {
+        return new PerformanceMeter().measure(this, data, forkJoinPool.getParallelism(), forkJoinPool);
+    }
+}
@@ -0,0 +1,221 @@
+package net.mooctest;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Measures sort calls by CPU time and allocation of the threads the call runs on (the caller plus the workers of
+// the algorithm's pool) instead of wall time and heap occupancy; optional warmup and repeated runs smooth out JIT
+// compilation and noise. Other work on the same pool at the same time is still charged to the call, and GC counts
+// and times are process-wide, since collections are not attributable to a thread
+public class PerformanceMeter {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+    private static final List<GarbageCollectorMXBean> COLLECTORS = ManagementFactory.getGarbageCollectorMXBeans();
+
+    private int warmupRuns;
+    private int measuredRuns;
+
+    // A single cold run, as evaluatePerformance has always done
+    public PerformanceMeter() {
+        this(0, 1);
+    }
+
+    public PerformanceMeter(int warmupRuns, int measuredRuns) {
+        if (warmupRuns < 0 || measuredRuns < 1) {
+            throw new InvalidDataException("Invalid run counts: " + warmupRuns + " warmup, " + measuredRuns + " measured");
+        }
+        this.warmupRuns = warmupRuns;
+        this.measuredRuns = measuredRuns;
+    }
+
+    // For algorithms that run entirely on the calling thread
+    public AlgorithmPerformance measure(Algorithm algorithm, DataStructure data, int threadCount) {
+        return measure(algorithm, data, threadCount, null);
+    }
+
+    // Every run starts from the original input; data is left sorted by the last run
+    public AlgorithmPerformance measure(Algorithm algorithm, DataStructure data, int threadCount, ExecutorService pool) {
+        int[] input = warmupRuns + measuredRuns > 1 ? data.toArray() : null;
+        boolean first = true;
+        for (int run = 0; run < warmupRuns; run++) {
+            if (!first) {
+                data.fromArray(input);
+            }
+            algorithm.sort(data, SortMetrics.DISABLED);
+            first = false;
+        }
+
+        long[] times = new long[measuredRuns];
+        long cpuTime = 0;
+        long allocatedBytes = 0;
+        long gcCount = 0;
+        long gcTime = 0;
+        SortMetrics metrics = null;
+        for (int run = 0; run < measuredRuns; run++) {
+            if (!first) {
+                data.fromArray(input);
+            }
+            first = false;
+            metrics = new SortMetrics();
+            Snapshot before = new Snapshot(measuredThreads(pool));
+            long startTime = System.nanoTime();
+            algorithm.sort(data, metrics);
+            long endTime = System.nanoTime();
+            Snapshot after = new Snapshot(measuredThreads(pool));
+            times[run] = endTime - startTime;
+            cpuTime += after.cpuTimeSince(before);
+            allocatedBytes += after.allocatedSince(before);
+            gcCount += after.gcCount - before.gcCount;
+            gcTime += after.gcTime - before.gcTime;
+        }
+
+        long[] sorted = Arrays.copyOf(times, times.length);
+        Arrays.sort(sorted);
+        AlgorithmPerformance performance = metrics.toPerformance(percentile(sorted, 50),
+                allocatedBytes < 0 ? -1 : allocatedBytes / measuredRuns, threadCount);
+        performance.setCpuTime(cpuTime < 0 ? -1 : cpuTime / measuredRuns);
+        performance.setGcCount(gcCount);
+        performance.setGcTime(gcTime);
+        performance.setMeasuredRuns(measuredRuns);
+        performance.setMeanTime(mean(times));
+        performance.setStdDevTime(stdDev(times));
+        performance.setMinTime(sorted[0]);
+        performance.setMaxTime(sorted[sorted.length - 1]);
+        performance.setP90Time(percentile(sorted, 90));
+        performance.setP99Time(percentile(sorted, 99));
+        return performance;
+    }
+
+    // Nearest-rank percentile of sorted values
+    public static long percentile(long[] sorted, double percent) {
+        int rank = (int) Math.ceil(percent / 100 * sorted.length);
+        return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))];
+    }
+
+    public static double mean(long[] values) {
+        double sum = 0;
+        for (long value : values) {
+            sum += value;
+        }
+        return sum / values.length;
+    }
+
+    // Sample standard deviation, 0 for a single run
+    public static double stdDev(long[] values) {
+        if (values.length < 2) {
+            return 0;
+        }
+        double mean = mean(values);
+        double squares = 0;
+        for (long value : values) {
+            squares += (value - mean) * (value - mean);
+        }
+        return Math.sqrt(squares / (values.length - 1));
+    }
+
+    // The calling thread and the live workers of the pool. Fork-join workers are found by their pool; fixed pools
+    // must come from ExecutionResources, whose thread factory keeps track of the threads it made
+    public static List<Thread> measuredThreads(ExecutorService pool) {
+        List<Thread> threads = new ArrayList<>();
+        Thread caller = Thread.currentThread();
+        threads.add(caller);
+        if (pool instanceof ForkJoinPool) {
+            for (Thread thread : liveThreads()) {
+                if (thread != caller && thread instanceof ForkJoinWorkerThread
+                        && ((ForkJoinWorkerThread) thread).getPool() == pool) {
+                    threads.add(thread);
+                }
+            }
+        } else if (pool instanceof ThreadPoolExecutor
+                && ((ThreadPoolExecutor) pool).getThreadFactory() instanceof ExecutionResources.PoolThreadFactory) {
+            for (Thread thread : ((ExecutionResources.PoolThreadFactory) ((ThreadPoolExecutor) pool).getThreadFactory()).getThreads()) {
+                if (thread != caller) {
+                    threads.add(thread);
+                }
+            }
+        }
+        return threads;
+    }
+
+    private static Thread[] liveThreads() {
+        ThreadGroup root = Thread.currentThread().getThreadGroup();
+        while (root.getParent() != null) {
+            root = root.getParent();
+        }
+        Thread[] threads = new Thread[root.activeCount() + 16];
+        int count;
+        while ((count = root.enumerate(threads, true)) == threads.length) {
+            threads = new Thread[threads.length * 2];
+        }
+        return Arrays.copyOf(threads, count);
+    }
+
+    // Per-thread counters of the measured threads; threads that start during the call count from zero, threads
+    // that end during it are lost
+    private static class Snapshot {
+        private Map<Long, Long> cpuTimes = new HashMap<>();
+        private Map<Long, Long> allocations = new HashMap<>();
+        private long gcCount;
+        private long gcTime;
+
+        Snapshot(List<Thread> threads) {
+            com.sun.management.ThreadMXBean allocationBean = allocationBean();
+            for (Thread thread : threads) {
+                long id = thread.getId();
+                if (cpuSupported()) {
+                    cpuTimes.put(id, THREADS.getThreadCpuTime(id));
+                }
+                if (allocationBean != null) {
+                    allocations.put(id, allocationBean.getThreadAllocatedBytes(id));
+                }
+            }
+            for (GarbageCollectorMXBean collector : COLLECTORS) {
+                gcCount += Math.max(0, collector.getCollectionCount());
+                gcTime += Math.max(0, collector.getCollectionTime());
+            }
+        }
+
+        long cpuTimeSince(Snapshot before) {
+            return cpuSupported() ? delta(cpuTimes, before.cpuTimes) : -1;
+        }
+
+        long allocatedSince(Snapshot before) {
+            return allocationBean() == null ? -1 : delta(allocations, before.allocations);
+        }
+
+        private static long delta(Map<Long, Long> after, Map<Long, Long> before) {
+            long total = 0;
+            for (Map.Entry<Long, Long> entry : after.entrySet()) {
+                long start = before.getOrDefault(entry.getKey(), 0L);
+                if (entry.getValue() >= 0 && start >= 0) {
+                    total += entry.getValue() - start;
+                }
+            }
+            return total;
+        }
+
+        private static boolean cpuSupported() {
+            return THREADS.isThreadCpuTimeSupported() && THREADS.isThreadCpuTimeEnabled();
+        }
+
+        // Allocation counters are a HotSpot extension; other JVMs report -1
+        private static com.sun.management.ThreadMXBean allocationBean() {
+            if (THREADS instanceof com.sun.management.ThreadMXBean) {
+                com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) THREADS;
+                if (bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled()) {
+                    return bean;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -1,15 +1,234 @@
 package net.mooctest;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 
 public class PerformanceTracker {
-    private Map<String, AlgorithmPerformance> performanceMap = new HashMap<>();
+    private static final int PRIOR_SAMPLE_LIMIT = 1 << 20;
+    private static final long PRIOR_SEED = 42;
+
+    private static final double[] EXPORTED_PERCENTILES = {50, 90, 99, 99.9};
+
+    private Map<String, AlgorithmPerformance> performanceMap = new ConcurrentHashMap<>();
+    // Feature key -> algorithm name -> timings of every run recorded for that kind of input
+    private Map<String, Map<String, RunHistory>> featureHistory = new HashMap<>();
+    // "algorithm|structure|2^sizeBucket" -> latency of every run; recording takes no lock
+    private ConcurrentMap<String, LatencyHistogram> latencies = new ConcurrentHashMap<>();
+    // "algorithm|featureKey" -> latency of every run, for selecting by the full input features
+    private ConcurrentMap<String, LatencyHistogram> featureLatencies = new ConcurrentHashMap<>();
+
+    public static class RunHistory {
+        private long runs;
+        private long totalElements;
+        private long totalTime;
+
+        public void record(int elements, long timeTaken) {
+            runs++;
+            totalElements += elements;
+            totalTime += timeTaken;
+        }
+
+        public long getRuns() {
+            return runs;
+        }
+
+        public double getNanosPerElement() {
+            return totalElements == 0 ? (double) totalTime / runs : (double) totalTime / totalElements;
+        }
+    }
 
     public void trackPerformance(String algoName, AlgorithmPerformance performance) {
         performanceMap.put(algoName, performance);
     }
 
+    public void recordRun(String featureKey, String algoName, int elements, AlgorithmPerformance performance) {
+        trackPerformance(algoName, performance);
+        latencies.computeIfAbsent(latencyKey(algoName, featureKey), key -> new LatencyHistogram())
+                .record(performance.getTimeTaken());
+        featureLatencies.computeIfAbsent(algoName + "|" + featureKey, key -> new LatencyHistogram())
+                .record(performance.getTimeTaken());
+        recordHistory(featureKey, algoName, elements, performance.getTimeTaken());
+    }
+
+    // Histograms leave out the order and duplicate classes of the feature key, so each one gathers enough runs
+    // for its percentiles to mean something
+    private static String latencyKey(String algoName, String featureKey) {
+        String[] parts = featureKey.split("\\|");
+        return algoName + "|" + parts[0] + (parts.length > 1 ? "|" + parts[1] : "");
+    }
+
+    public LatencyHistogram getLatencyHistogram(String algoName, String structureType, int sizeBucket) {
+        return latencies.get(algoName + "|" + structureType + "|2^" + sizeBucket);
+    }
+
+    // Runs whose input had exactly these features; sparser than the size bucket histogram
+    public LatencyHistogram getLatencyHistogram(String algoName, String featureKey) {
+        return featureLatencies.get(algoName + "|" + featureKey);
+    }
+
+    // All histograms by key, in key order
+    public Map<String, LatencyHistogram> getLatencyHistograms() {
+        return new TreeMap<>(latencies);
+    }
+
+    // What each histogram recorded since the previous call
+    public Map<String, LatencyHistogram> intervalSnapshot() {
+        Map<String, LatencyHistogram> snapshot = new TreeMap<>();
+        for (Map.Entry<String, LatencyHistogram> entry : latencies.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().intervalSnapshot());
+        }
+        return snapshot;
+    }
+
+    // The algorithm with the lowest latency at the given percentile for this structure and size bucket, so a
+    // single lucky run cannot win against a consistently faster algorithm; null without any recorded runs
+    public String getBestAlgorithm(String structureType, int sizeBucket, double percentile) {
+        String suffix = "|" + structureType + "|2^" + sizeBucket;
+        String best = null;
+        long bestLatency = Long.MAX_VALUE;
+        for (Map.Entry<String, LatencyHistogram> entry : getLatencyHistograms().entrySet()) {
+            if (entry.getKey().endsWith(suffix) && entry.getValue().getCount() > 0) {
+                long latency = entry.getValue().getValueAtPercentile(percentile);
+                if (latency < bestLatency) {
+                    best = entry.getKey().substring(0, entry.getKey().length() - suffix.length());
+                    bestLatency = latency;
+                }
+            }
+        }
+        return best;
+    }
+
+    public synchronized RunHistory getHistory(String featureKey, String algoName) {
+        Map<String, RunHistory> histories = featureHistory.get(featureKey);
+        return histories == null ? null : histories.get(algoName);
+    }
+
+    public int importPriors(Path path) {
+        try {
+            return importPriors(new String(Files.readAllBytes(path), StandardCharsets.UTF_8));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read " + path, e);
+        }
+    }
+
+    // Reads a JMH result file (-rf json) from the benchmark profile. Each matrix entry becomes one run under the
+    // feature key its input would produce, so the selector starts from measured costs and real runs soon dominate
+    public int importPriors(String json) {
+        Object root = JsonParser.parse(json);
+        if (!(root instanceof List)) {
+            throw new InvalidDataException("Expected an array of benchmark results");
+        }
+        AlgorithmFactory factory = new AlgorithmFactory();
+        Map<String, InputFeatures> featuresByInput = new HashMap<>();
+        int imported = 0;
+        for (Object entry : (List<?>) root) {
+            Map<?, ?> result = asObject(entry);
+            if (result.get("params") == null) {
+                continue;
+            }
+            Map<?, ?> params = asObject(result.get("params"));
+            Object algorithm = params.get("algorithm");
+            Object structure = params.get("structure");
+            Object distribution = params.get("distribution");
+            Object size = params.get("size");
+            // Entries outside the algorithm x structure x distribution matrix, such as thread scaling runs, are skipped
+            if (algorithm == null || structure == null || distribution == null || size == null) {
+                continue;
+            }
+            double nanos = nanosPerOperation(asObject(result.get("primaryMetric")));
+            if (Double.isNaN(nanos) || nanos <= 0) {
+                continue;
+            }
+            int elements;
+            try {
+                elements = Integer.parseInt(size.toString());
+            } catch (NumberFormatException e) {
+                throw new InvalidDataException("Invalid size parameter: " + size);
+            }
+            String algoName = factory.getAlgorithm(algorithm.toString()).getName();
+            InputFeatures features = featuresByInput.computeIfAbsent(structure + "|" + distribution + "|" + elements,
+                    key -> priorFeatures(structure.toString(), distribution.toString(), elements));
+            recordHistory(features.getKey(), algoName, elements, (long) nanos);
+            imported++;
+        }
+        return imported;
+    }
+
+    private synchronized void recordHistory(String featureKey, String algoName, int elements, long timeTaken) {
+        featureHistory.computeIfAbsent(featureKey, key -> new HashMap<>())
+                .computeIfAbsent(algoName, key -> new RunHistory())
+                .record(elements, timeTaken);
+    }
+
+    // Features of a generated sample stand in for the full input; only the size is taken from the benchmark
+    private static InputFeatures priorFeatures(String structure, String distribution, int elements) {
+        ArrayDataStructure sample = new ArrayDataStructure(0);
+        sample.fromArray(Distributions.generate(distribution, Math.min(elements, PRIOR_SAMPLE_LIMIT), PRIOR_SEED));
+        InputFeatures sampled = InputFeatures.extract(sample);
+        return new InputFeatures(elements, structure, sampled.getPresortedness(), sampled.getDuplicateRatio());
+    }
+
+    private static double nanosPerOperation(Map<?, ?> metric) {
+        Object score = metric.get("score");
+        Object unit = metric.get("scoreUnit");
+        if (!(score instanceof Double) || unit == null) {
+            throw new InvalidDataException("Metric without score or unit: " + metric);
+        }
+        String[] parts = unit.toString().split("/");
+        if (parts.length != 2) {
+            throw new InvalidDataException("Unsupported score unit: " + unit);
+        }
+        double value = (Double) score;
+        if ("op".equals(parts[1])) {
+            return value * nanosPer(parts[0]);
+        } else if ("ops".equals(parts[0])) {
+            return nanosPer(parts[1]) / value;
+        }
+        throw new InvalidDataException("Unsupported score unit: " + unit);
+    }
+
+    private static double nanosPer(String timeUnit) {
+        switch (timeUnit) {
+            case "ns":
+                return 1;
+            case "us":
+                return 1e3;
+            case "ms":
+                return 1e6;
+            case "s":
+                return 1e9;
+            case "min":
+                return 60e9;
+            default:
+                throw new InvalidDataException("Unsupported time unit: " + timeUnit);
+        }
+    }
+
+    private static Map<?, ?> asObject(Object value) {
+        if (!(value instanceof Map)) {
+            throw new InvalidDataException("Expected an object but found: " + value);
+        }
+        return (Map<?, ?>) value;
+    }
+
+    // The latest performance of the algorithm with the lowest median for this structure and size bucket. Latencies
+    // of different sizes are not comparable, so there is no ranking across buckets; null without any recorded runs
+    public AlgorithmPerformance getBestPerformance(String structureType, int sizeBucket) {
+        String best = getBestAlgorithm(structureType, sizeBucket, 50);
+        return best == null ? null : performanceMap.get(best);
+    }
+
+    // Compares only the latest sample of each algorithm, whatever input it ran on
     public AlgorithmPerformance getBestPerformance() {
         return performanceMap.values().stream()
                 .min((p1, p2) -> Long.compare(p1.getTimeTaken(), p2.getTimeTaken()))
@@ -22,5 +241,74 @@ public class PerformanceTracker {
             System.out.println("Algorithm: " + algoName);
             performanceMap.get(algoName).report();
         }
+        for (Map.Entry<String, LatencyHistogram> entry : getLatencyHistograms().entrySet()) {
+            LatencyHistogram histogram = entry.getValue();
+            System.out.println(entry.getKey() + ": " + histogram.getCount() + " runs, p50 "
+                    + histogram.getValueAtPercentile(50) + " ns, p99 " + histogram.getValueAtPercentile(99)
+                    + " ns, max " + histogram.getMax() + " ns");
+        }
+    }
+
+    public String exportCsv() {
+        return toCsv(getLatencyHistograms());
+    }
+
+    public String exportJson() {
+        return toJson(getLatencyHistograms());
+    }
+
+    // One row per histogram; latencies in nanoseconds
+    public static String toCsv(Map<String, LatencyHistogram> histograms) {
+        StringBuilder csv = new StringBuilder("algorithm,structure,sizeBucket,count,min,mean,p50,p90,p99,p99.9,max\n");
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            String[] key = entry.getKey().split("\\|");
+            LatencyHistogram histogram = entry.getValue();
+            csv.append(csvField(key[0])).append(',').append(csvField(key.length > 1 ? key[1] : ""))
+                    .append(',').append(key.length > 2 ? key[2] : "")
+                    .append(',').append(histogram.getCount())
+                    .append(',').append(histogram.getMin())
+                    .append(',').append(String.format(Locale.ROOT, "%.1f", histogram.getMean()));
+            for (double percentile : EXPORTED_PERCENTILES) {
+                csv.append(',').append(histogram.getValueAtPercentile(percentile));
+            }
+            csv.append(',').append(histogram.getMax()).append('\n');
+        }
+        return csv.toString();
+    }
+
+    // An array with one object per histogram, readable by JsonParser
+    public static String toJson(Map<String, LatencyHistogram> histograms) {
+        StringBuilder json = new StringBuilder("[");
+        for (Map.Entry<String, LatencyHistogram> entry : histograms.entrySet()) {
+            String[] key = entry.getKey().split("\\|");
+            LatencyHistogram histogram = entry.getValue();
+            if (json.length() > 1) {
+                json.append(',');
+            }
+            json.append("\n  {\"algorithm\": ").append(jsonString(key[0]))
+                    .append(", \"structure\": ").append(jsonString(key.length > 1 ? key[1] : ""))
+                    .append(", \"sizeBucket\": ").append(jsonString(key.length > 2 ? key[2] : ""))
+                    .append(", \"count\": ").append(histogram.getCount())
+                    .append(", \"min\": ").append(histogram.getMin())
+                    .append(", \"mean\": ").append(String.format(Locale.ROOT, "%.1f", histogram.getMean()))
+                    .append(", \"percentiles\": {");
+            for (int i = 0; i < EXPORTED_PERCENTILES.length; i++) {
+                json.append(i > 0 ? ", " : "").append('"').append(EXPORTED_PERCENTILES[i]).append("\": ")
+                        .append(histogram.getValueAtPercentile(EXPORTED_PERCENTILES[i]));
+            }
+            json.append("}, \"max\": ").append(histogram.getMax()).append('}');
+        }
+        return json.append(json.length() > 1 ? "\n]" : "]").toString();
+    }
+
+    private static String csvField(String value) {
+        if (value.contains(",") || value.contains("\"")) {
+            return '"' + value.replace("\"", "\"\"") + '"';
+        }
+        return value;
+    }
+
+    private static String jsonString(String value) {
+        return '"' + value.replace("\\", "\\\\").replace("\"", "\\\"") + '"';
     }
 }
@@ -0,0 +1,64 @@
+package net.mooctest;
+
+// A point-in-time view of one pool in ExecutionResources
+public class PoolStats {
+    private String kind;
+    private int parallelism;
+    private int poolSize;
+    private int activeThreads;
+    private long queuedTasks;
+    private long completedTasks;
+    private long stealCount;
+
+    public PoolStats(String kind, int parallelism, int poolSize, int activeThreads, long queuedTasks,
+            long completedTasks, long stealCount) {
+        this.kind = kind;
+        this.parallelism = parallelism;
+        this.poolSize = poolSize;
+        this.activeThreads = activeThreads;
+        this.queuedTasks = queuedTasks;
+        this.completedTasks = completedTasks;
+        this.stealCount = stealCount;
+    }
+
+    public String getKind() {
+        return kind;
+    }
+
+    public int getParallelism() {
+        return parallelism;
+    }
+
+    public int getPoolSize() {
+        return poolSize;
+    }
+
+    public int getActiveThreads() {
+        return activeThreads;
+    }
+
+    public long getQueuedTasks() {
+        return queuedTasks;
+    }
+
+    // Fork-join pools do not count completed tasks and report -1
+    public long getCompletedTasks() {
+        return completedTasks;
+    }
+
+    public long getStealCount() {
+        return stealCount;
+    }
+
+    // Share of the pool's threads busy right now
+    public double getUtilisation() {
+        return (double) activeThreads / parallelism;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s pool x%d: %d threads, %d active (%.0f%%), %d queued", kind, parallelism, poolSize,
+                activeThreads, getUtilisation() * 100, queuedTasks)
+                + (completedTasks >= 0 ? ", " + completedTasks + " completed" : ", " + stealCount + " steals");
+    }
+}
@@ -1,43 +1,38 @@
 package net.mooctest;
 
 public class QuickSort implements Algorithm {
-    private int comparisons = 0;
-    private int swaps = 0;
-
     @Override
-    public void sort(DataStructure data) {
-        comparisons = 0;
-        swaps = 0;
-        quickSort(data, 0, data.size() - 1);
+    public void sort(DataStructure data, SortMetrics metrics) {
+        quickSort(data, 0, data.size() - 1, metrics);
     }
 
-    public void quickSort(DataStructure data, int low, int high) {
+    public void quickSort(DataStructure data, int low, int high, SortMetrics metrics) {
         if (low < high) {
-            int pi = partition(data, low, high);
-            quickSort(data, low, pi - 1);
-            quickSort(data, pi + 1, high);
+            int pi = partition(data, low, high, metrics);
+            quickSort(data, low, pi - 1, metrics);
+            quickSort(data, pi + 1, high, metrics);
         }
     }
 
-    public int partition(DataStructure data, int low, int high) {
+    public int partition(DataStructure data, int low, int high, SortMetrics metrics) {
         int pivot = data.get(high);
         int i = low - 1; // I is the index of the last element less than pivot
         for (int j = low; j < high; j++) {
-            comparisons++;
+            metrics.compare();
             if (data.get(j) < pivot) {
                 i++;
-                swap(data, i, j);
+                swap(data, i, j, metrics);
             }
         }
-        swap(data, i + 1, high);
+        swap(data, i + 1, high, metrics);
         return i + 1;
     }
 
-    public void swap(DataStructure data, int i, int j) {
+    public void swap(DataStructure data, int i, int j, SortMetrics metrics) {
         int temp = data.get(i);
         data.set(i, data.get(j));
         data.set(j, temp);
-        swaps++;
+        metrics.swap();
     }
 
     @Override
@@ -66,10 +61,6 @@ public class QuickSort implements Algorithm {
 
     @Override
     public AlgorithmPerformance evaluatePerformance(DataStructure data) {
-        long startTime = System.nanoTime();
-        sort(data);
-        long endTime = System.nanoTime();
-        long memoryUsed = Runtime.getRuntime().totalMemory() - Runtime.getRuntime().freeMemory();
-        return new AlgorithmPerformance(endTime - startTime, comparisons, swaps, memoryUsed, 1);
+        return new PerformanceMeter().measure(this, data, 1);
     }
 }
@@ -0,0 +1,264 @@
+package net.mooctest;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntConsumer;
+
+public class RadixSort implements Algorithm {
+    private static final int DIGIT_BITS = 8;
+    private static final int RADIX = 1 << DIGIT_BITS;
+    private static final int MASK = RADIX - 1;
+    private static final int DIGITS = Integer.SIZE / DIGIT_BITS;
+    private static final int SIGN_FLIP = 0x80000000; // Makes negative numbers order before positive ones as unsigned keys
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+    private static final int MSD_THRESHOLD = 1 << 22;
+    private static final int MIN_CHUNK = 1 << 14;
+
+    private ForkJoinPool forkJoinPool;
+
+    public RadixSort() {
+        this(ExecutionResources.getShared().forkJoinPool());
+    }
+
+    public RadixSort(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    @Override
+    public void sort(DataStructure data, SortMetrics metrics) {
+        data.fromArray(radixSort(data.toArray(), metrics));
+    }
+
+    // Returns the sorted values, which may live in either the input array or the scratch buffer
+    public int[] radixSort(int[] array, SortMetrics metrics) {
+        int n = array.length;
+        if (n < PARALLEL_THRESHOLD) {
+            int sortPasses = lsdSort(array, new int[n], 0, n, DIGITS);
+            metrics.addPasses(sortPasses);
+            metrics.addBytesMoved(bytesFor(sortPasses, n));
+            return array;
+        }
+
+        int chunkCount = Math.max(1, Math.min(forkJoinPool.getParallelism() * 4, n / MIN_CHUNK));
+        int[] bounds = chunkBounds(n, chunkCount);
+        int[][][] digitCounts = new int[chunkCount][DIGITS][RADIX];
+        forEach(chunkCount, chunk -> {
+            int[][] counts = digitCounts[chunk];
+            for (int i = bounds[chunk]; i < bounds[chunk + 1]; i++) {
+                int key = array[i] ^ SIGN_FLIP;
+                for (int digit = 0; digit < DIGITS; digit++) {
+                    counts[digit][(key >>> (digit * DIGIT_BITS)) & MASK]++;
+                }
+            }
+        });
+
+        int topDigit = -1;
+        for (int digit = DIGITS - 1; digit >= 0 && topDigit < 0; digit--) {
+            if (!isConstant(digitCounts, digit, digitOf(array[0], digit), n)) {
+                topDigit = digit;
+            }
+        }
+        if (topDigit < 0) {
+            return array;
+        }
+
+        int[] buffer = new int[n];
+        if (n >= MSD_THRESHOLD && topDigit > 0) {
+            return msdSort(array, buffer, bounds, digitCounts, topDigit, metrics);
+        }
+
+        int[] source = array;
+        int[] target = buffer;
+        boolean fresh = true;
+        for (int digit = 0; digit <= topDigit; digit++) {
+            if (isConstant(digitCounts, digit, digitOf(array[0], digit), n)) {
+                continue;
+            }
+            int[][] counts = null;
+            if (fresh) {
+                // The initial histograms still describe the input, so the first pass can reuse them
+                counts = new int[chunkCount][];
+                for (int chunk = 0; chunk < chunkCount; chunk++) {
+                    counts[chunk] = digitCounts[chunk][digit];
+                }
+                fresh = false;
+            }
+            scatter(source, target, bounds, digit, counts);
+            int[] swap = source;
+            source = target;
+            target = swap;
+            metrics.addPasses(1);
+            metrics.addBytesMoved((long) n * Integer.BYTES);
+        }
+        return source;
+    }
+
+    // Splits on the highest varying digit, then finishes every bucket with an independent LSD sort
+    public int[] msdSort(int[] array, int[] buffer, int[] bounds, int[][][] digitCounts, int topDigit,
+            SortMetrics metrics) {
+        int n = array.length;
+        int chunkCount = bounds.length - 1;
+        int[] bucketStarts = new int[RADIX + 1];
+        int[][] counts = new int[chunkCount][];
+        for (int chunk = 0; chunk < chunkCount; chunk++) {
+            counts[chunk] = digitCounts[chunk][topDigit];
+            for (int bucket = 0; bucket < RADIX; bucket++) {
+                bucketStarts[bucket + 1] += counts[chunk][bucket];
+            }
+        }
+        for (int bucket = 0; bucket < RADIX; bucket++) {
+            bucketStarts[bucket + 1] += bucketStarts[bucket];
+        }
+        scatter(array, buffer, bounds, topDigit, counts);
+
+        AtomicInteger bucketPasses = new AtomicInteger();
+        AtomicLong bucketBytes = new AtomicLong();
+        forEach(RADIX, bucket -> {
+            int from = bucketStarts[bucket];
+            int to = bucketStarts[bucket + 1];
+            if (to - from > 1) {
+                int sortPasses = lsdSort(buffer, array, from, to, topDigit);
+                bucketPasses.accumulateAndGet(sortPasses, Math::max);
+                bucketBytes.addAndGet(bytesFor(sortPasses, to - from));
+            }
+        });
+        metrics.addPasses(1 + bucketPasses.get());
+        metrics.addBytesMoved((long) n * Integer.BYTES + bucketBytes.get());
+        return buffer;
+    }
+
+    // Sorts array[from, to) on its lowest digits and leaves the result in array; returns the passes made
+    public int lsdSort(int[] array, int[] buffer, int from, int to, int digits) {
+        int[][] counts = new int[digits][RADIX];
+        for (int i = from; i < to; i++) {
+            int key = array[i] ^ SIGN_FLIP;
+            for (int digit = 0; digit < digits; digit++) {
+                counts[digit][(key >>> (digit * DIGIT_BITS)) & MASK]++;
+            }
+        }
+
+        int length = to - from;
+        int[] source = array;
+        int[] target = buffer;
+        int sortPasses = 0;
+        for (int digit = 0; digit < digits; digit++) {
+            int[] count = counts[digit];
+            if (length == 0 || count[digitOf(array[from], digit)] == length) {
+                continue; // Every value shares this digit, the pass would not reorder anything
+            }
+            int offset = from;
+            for (int bucket = 0; bucket < RADIX; bucket++) {
+                int c = count[bucket];
+                count[bucket] = offset;
+                offset += c;
+            }
+            int shift = digit * DIGIT_BITS;
+            for (int i = from; i < to; i++) {
+                int value = source[i];
+                target[count[((value ^ SIGN_FLIP) >>> shift) & MASK]++] = value;
+            }
+            int[] swap = source;
+            source = target;
+            target = swap;
+            sortPasses++;
+        }
+        if (source != array) {
+            System.arraycopy(source, from, array, from, length);
+        }
+        return sortPasses;
+    }
+
+    public void scatter(int[] source, int[] target, int[] bounds, int digit, int[][] counts) {
+        int chunkCount = bounds.length - 1;
+        int shift = digit * DIGIT_BITS;
+        if (counts == null) {
+            int[][] fresh = new int[chunkCount][RADIX];
+            forEach(chunkCount, chunk -> {
+                int[] count = fresh[chunk];
+                for (int i = bounds[chunk]; i < bounds[chunk + 1]; i++) {
+                    count[((source[i] ^ SIGN_FLIP) >>> shift) & MASK]++;
+                }
+            });
+            counts = fresh;
+        }
+
+        // Bucket-major prefix sums keep the scatter stable across chunks
+        int offset = 0;
+        for (int bucket = 0; bucket < RADIX; bucket++) {
+            for (int chunk = 0; chunk < chunkCount; chunk++) {
+                int c = counts[chunk][bucket];
+                counts[chunk][bucket] = offset;
+                offset += c;
+            }
+        }
+
+        int[][] offsets = counts;
+        forEach(chunkCount, chunk -> {
+            int[] offset0 = offsets[chunk];
+            for (int i = bounds[chunk]; i < bounds[chunk + 1]; i++) {
+                int value = source[i];
+                target[offset0[((value ^ SIGN_FLIP) >>> shift) & MASK]++] = value;
+            }
+        });
+    }
+
+    private boolean isConstant(int[][][] digitCounts, int digit, int bucket, int n) {
+        int total = 0;
+        for (int[][] counts : digitCounts) {
+            total += counts[digit][bucket];
+        }
+        return total == n;
+    }
+
+    private int digitOf(int value, int digit) {
+        return ((value ^ SIGN_FLIP) >>> (digit * DIGIT_BITS)) & MASK;
+    }
+
+    private int[] chunkBounds(int n, int chunkCount) {
+        int[] bounds = new int[chunkCount + 1];
+        for (int chunk = 0; chunk <= chunkCount; chunk++) {
+            bounds[chunk] = (int) ((long) n * chunk / chunkCount);
+        }
+        return bounds;
+    }
+
+    private long bytesFor(int sortPasses, int length) {
+        // Each pass writes every element once, an odd pass count needs one more copy back into place
+        return (long) (sortPasses + (sortPasses & 1)) * length * Integer.BYTES;
+    }
+
+    private void forEach(int count, IntConsumer body) {
+        forkJoinPool.invoke(new ForEachTask(0, count, body));
+    }
+
+    @Override
+    public int search(DataStructure data, int target) {
+        int low = 0;
+        int high = data.size() - 1;
+        while (low <= high) {
+            int mid = low + (high - low) / 2;
+            int value = data.get(mid);
+            if (value == target) {
+                return mid;
+            }
+            if (value > target) {
+                high = mid - 1;
+            } else {
+                low = mid + 1;
+            }
+        }
+        return -1;
+    }
+
+    @Override
+    public String getName() {
+        return "Radix Sort";
+    }
+
+    @Override
+    public AlgorithmPerformance evaluatePerformance(DataStructure data) {
+        int threads = data.size() < PARALLEL_THRESHOLD ? 1 : forkJoinPool.getParallelism();
+        return new PerformanceMeter().measure(this, data, threads, forkJoinPool);
+    }
+}
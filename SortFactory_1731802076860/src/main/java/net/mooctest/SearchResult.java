@@ -0,0 +1,50 @@
+package net.mooctest;
+
+public class SearchResult {
+    private int[] indices;
+    private int chunksScanned;
+    private int totalChunks;
+    private long timeToFirstHit;
+    private long timeTaken;
+
+    public SearchResult(int[] indices, int chunksScanned, int totalChunks, long timeToFirstHit, long timeTaken) {
+        this.indices = indices;
+        this.chunksScanned = chunksScanned;
+        this.totalChunks = totalChunks;
+        this.timeToFirstHit = timeToFirstHit;
+        this.timeTaken = timeTaken;
+    }
+
+    // Lowest matching index of the first (or only) target, -1 when absent
+    public int getIndex() {
+        return indices.length == 0 ? -1 : indices[0];
+    }
+
+    public int[] getIndices() {
+        return indices;
+    }
+
+    public int getChunksScanned() {
+        return chunksScanned;
+    }
+
+    public int getTotalChunks() {
+        return totalChunks;
+    }
+
+    // Nanoseconds until any worker found a match, -1 when nothing matched
+    public long getTimeToFirstHit() {
+        return timeToFirstHit;
+    }
+
+    public long getTimeTaken() {
+        return timeTaken;
+    }
+
+    public void report() {
+        System.out.println("Search Report:");
+        System.out.println("Chunks scanned: " + chunksScanned + " of " + totalChunks);
+        System.out.println("Time to first hit: " + (timeToFirstHit < 0 ? "no hit" : timeToFirstHit + " ns"));
+        System.out.println("Time taken: " + timeTaken + " ns");
+    }
+}
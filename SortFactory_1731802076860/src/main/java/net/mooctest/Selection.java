@@ -0,0 +1,269 @@
+package net.mooctest;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+// Order statistics without a full sort: introselect runs quickselect and switches to median-of-medians pivots
+// when the partitions stop shrinking, so the nth element costs O(n) even on adversarial inputs
+public class Selection {
+    private static final int INSERTION_SORT_THRESHOLD = 16;
+    private static final int NINTHER_THRESHOLD = 128;
+    private static final int PARALLEL_THRESHOLD = 1 << 20;
+    private static final int PARALLEL_CHUNK = 1 << 16;
+    private static final int SAMPLE_SIZE = 1 << 14;
+    private static final int SAMPLE_MARGIN = 256;
+
+    private Selection() {
+    }
+
+    // Rearranges the array so that array[k] holds the k-th smallest value (0-based), with no larger value
+    // before it and no smaller value after it; returns that value
+    public static int select(int[] array, int k) {
+        checkRank(k, array.length);
+        select(array, 0, array.length, k);
+        return array[k];
+    }
+
+    // Leaves the structure untouched; large inputs are scanned in parallel
+    public static int select(DataStructure data, int k) {
+        int[] values = data.toArray();
+        checkRank(k, values.length);
+        if (values.length >= PARALLEL_THRESHOLD) {
+            return parallelSelect(values, k, ExecutionResources.getShared().forkJoinPool());
+        }
+        return select(values, k);
+    }
+
+    // Sorts the k smallest values into array[0..k); the rest is left in unspecified order
+    public static void partialSort(int[] array, int k) {
+        if (k < 0 || k > array.length) {
+            throw new InvalidDataException("Invalid k: " + k + " for " + array.length + " elements");
+        }
+        if (k == 0) {
+            return;
+        }
+        if (k < array.length) {
+            select(array, 0, array.length, k - 1);
+        }
+        Arrays.sort(array, 0, k);
+    }
+
+    public static void partialSort(DataStructure data, int k) {
+        int[] values = data.toArray();
+        partialSort(values, k);
+        data.fromArray(values);
+    }
+
+    // Values at several ranks in one pass: each selection splits the range for the ranks on either side,
+    // so m ranks cost O(n log m). Results follow the order of the ranks given
+    public static int[] multiSelect(int[] array, int... ranks) {
+        int[] sortedRanks = Arrays.copyOf(ranks, ranks.length);
+        Arrays.sort(sortedRanks);
+        for (int rank : sortedRanks) {
+            checkRank(rank, array.length);
+        }
+        multiSelect(array, 0, array.length, sortedRanks, 0, sortedRanks.length);
+        int[] result = new int[ranks.length];
+        for (int i = 0; i < ranks.length; i++) {
+            result[i] = array[ranks[i]];
+        }
+        return result;
+    }
+
+    // Nearest-rank percentiles, matching PerformanceMeter.percentile; the array is rearranged
+    public static int[] percentiles(int[] array, double... percents) {
+        if (array.length == 0) {
+            throw new InvalidDataException("No values to take percentiles of");
+        }
+        int[] ranks = new int[percents.length];
+        for (int i = 0; i < percents.length; i++) {
+            if (percents[i] < 0 || percents[i] > 100) {
+                throw new InvalidDataException("Invalid percentile: " + percents[i]);
+            }
+            int rank = (int) Math.ceil(percents[i] / 100 * array.length);
+            ranks[i] = Math.max(0, Math.min(array.length - 1, rank - 1));
+        }
+        return multiSelect(array, ranks);
+    }
+
+    public static int[] percentiles(DataStructure data, double... percents) {
+        return percentiles(data.toArray(), percents);
+    }
+
+    // Samples pivots that bracket rank k, counts and compacts the values between them in parallel chunks, and
+    // selects within that small window. The array is not modified
+    public static int parallelSelect(int[] array, int k, ForkJoinPool pool) {
+        int n = array.length;
+        checkRank(k, n);
+        if (n < PARALLEL_THRESHOLD) {
+            return select(Arrays.copyOf(array, n), k);
+        }
+        Random random = new Random(n * 31L + k);
+        int[] sample = new int[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            sample[i] = array[random.nextInt(n)];
+        }
+        Arrays.sort(sample);
+        int position = (int) ((long) k * SAMPLE_SIZE / n);
+        int lowPivot = sample[Math.max(0, position - SAMPLE_MARGIN)];
+        int highPivot = sample[Math.min(SAMPLE_SIZE - 1, position + SAMPLE_MARGIN)];
+
+        int chunks = (n + PARALLEL_CHUNK - 1) / PARALLEL_CHUNK;
+        int[] below = new int[chunks];
+        int[] inside = new int[chunks];
+        pool.invoke(new ForEachTask(0, chunks, chunk -> {
+            int end = Math.min(n, (chunk + 1) * PARALLEL_CHUNK);
+            int less = 0;
+            int between = 0;
+            for (int i = chunk * PARALLEL_CHUNK; i < end; i++) {
+                int value = array[i];
+                less += value < lowPivot ? 1 : 0;
+                between += value >= lowPivot && value <= highPivot ? 1 : 0;
+            }
+            below[chunk] = less;
+            inside[chunk] = between;
+        }));
+
+        long totalBelow = 0;
+        int[] offsets = new int[chunks];
+        int candidates = 0;
+        for (int chunk = 0; chunk < chunks; chunk++) {
+            totalBelow += below[chunk];
+            offsets[chunk] = candidates;
+            candidates += inside[chunk];
+        }
+        if (k < totalBelow || k >= totalBelow + candidates) {
+            // The sample missed rank k, which is rare; fall back to a sequential pass over a copy
+            return select(Arrays.copyOf(array, n), k);
+        }
+
+        int[] window = new int[candidates];
+        pool.invoke(new ForEachTask(0, chunks, chunk -> {
+            int end = Math.min(n, (chunk + 1) * PARALLEL_CHUNK);
+            int next = offsets[chunk];
+            for (int i = chunk * PARALLEL_CHUNK; i < end; i++) {
+                int value = array[i];
+                if (value >= lowPivot && value <= highPivot) {
+                    window[next++] = value;
+                }
+            }
+        }));
+        return select(window, (int) (k - totalBelow));
+    }
+
+    private static void multiSelect(int[] array, int from, int to, int[] ranks, int rankFrom, int rankTo) {
+        while (rankFrom < rankTo) {
+            int middle = (rankFrom + rankTo) >>> 1;
+            int k = ranks[middle];
+            select(array, from, to, k);
+            // Duplicate ranks need no further work once their value is in place
+            int left = middle;
+            while (left > rankFrom && ranks[left - 1] == k) {
+                left--;
+            }
+            int right = middle + 1;
+            while (right < rankTo && ranks[right] == k) {
+                right++;
+            }
+            multiSelect(array, from, k, ranks, rankFrom, left);
+            from = k + 1;
+            rankFrom = right;
+        }
+    }
+
+    private static void select(int[] array, int from, int to, int k) {
+        select(array, from, to, k, 2 * (32 - Integer.numberOfLeadingZeros(to - from)));
+    }
+
+    // Introselect over [from, to); k is an absolute index inside the range. Once the budget of sampled pivots is
+    // spent every pivot is a median of medians
+    private static void select(int[] array, int from, int to, int k, int budget) {
+        while (to - from > INSERTION_SORT_THRESHOLD) {
+            int pivot = budget-- > 0 ? samplePivot(array, from, to) : medianOfMedians(array, from, to);
+            int[] bounds = partition(array, from, to, pivot);
+            if (k < bounds[0]) {
+                to = bounds[0];
+            } else if (k >= bounds[1]) {
+                from = bounds[1];
+            } else {
+                return;
+            }
+        }
+        insertionSort(array, from, to);
+    }
+
+    // Three-way partition around the pivot value: returns {lt, gt} with [from, lt) < pivot,
+    // [lt, gt) == pivot and [gt, to) > pivot, so runs of duplicates end the search early
+    private static int[] partition(int[] array, int from, int to, int pivot) {
+        int lt = from;
+        int i = from;
+        int gt = to;
+        while (i < gt) {
+            int value = array[i];
+            if (value < pivot) {
+                array[i++] = array[lt];
+                array[lt++] = value;
+            } else if (value > pivot) {
+                array[i] = array[--gt];
+                array[gt] = value;
+            } else {
+                i++;
+            }
+        }
+        return new int[] {lt, gt};
+    }
+
+    // Median of three, or Tukey's ninther on larger ranges
+    private static int samplePivot(int[] array, int from, int to) {
+        int last = to - 1;
+        int mid = (from + last) >>> 1;
+        if (to - from < NINTHER_THRESHOLD) {
+            return median(array[from], array[mid], array[last]);
+        }
+        int step = (to - from) / 8;
+        return median(median(array[from], array[from + step], array[from + 2 * step]),
+                median(array[mid - step], array[mid], array[mid + step]),
+                median(array[last - 2 * step], array[last - step], array[last]));
+    }
+
+    private static int median(int a, int b, int c) {
+        return Math.max(Math.min(a, b), Math.min(Math.max(a, b), c));
+    }
+
+    // Deterministic pivot: medians of groups of five are gathered at the front of the range and the median
+    // of those is selected recursively, which guarantees at least 30% of the range on each side
+    private static int medianOfMedians(int[] array, int from, int to) {
+        int medians = 0;
+        for (int group = from; group < to; group += 5) {
+            int end = Math.min(group + 5, to);
+            insertionSort(array, group, end);
+            int median = group + (end - group - 1) / 2;
+            int temp = array[median];
+            array[median] = array[from + medians];
+            array[from + medians] = temp;
+            medians++;
+        }
+        int middle = from + (medians - 1) / 2;
+        select(array, from, from + medians, middle, 0);
+        return array[middle];
+    }
+
+    private static void insertionSort(int[] array, int from, int to) {
+        for (int i = from + 1; i < to; i++) {
+            int key = array[i];
+            int j = i - 1;
+            while (j >= from && array[j] > key) {
+                array[j + 1] = array[j];
+                j--;
+            }
+            array[j + 1] = key;
+        }
+    }
+
+    private static void checkRank(int k, int size) {
+        if (k < 0 || k >= size) {
+            throw new InvalidDataException("Invalid rank: " + k + " for " + size + " elements");
+        }
+    }
+}
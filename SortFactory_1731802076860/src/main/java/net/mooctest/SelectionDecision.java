@@ -0,0 +1,45 @@
+package net.mooctest;
+
+public class SelectionDecision {
+    private InputFeatures features;
+    private String algorithmName;
+    private long predictedTime;
+    private boolean exploration;
+
+    public SelectionDecision(InputFeatures features, String algorithmName, long predictedTime, boolean exploration) {
+        this.features = features;
+        this.algorithmName = algorithmName;
+        this.predictedTime = predictedTime;
+        this.exploration = exploration;
+    }
+
+    public InputFeatures getFeatures() {
+        return features;
+    }
+
+    public String getAlgorithmName() {
+        return algorithmName;
+    }
+
+    // Negative when there was no history for these features and a built-in rule made the choice
+    public long getPredictedTime() {
+        return predictedTime;
+    }
+
+    public boolean isExploration() {
+        return exploration;
+    }
+
+    public void report() {
+        System.out.println("Optimal algorithm selected: " + algorithmName);
+        System.out.println("Features: " + features);
+        if (exploration) {
+            System.out.println("Decision: exploring");
+        } else if (predictedTime < 0) {
+            System.out.println("Decision: default rule, no history yet");
+        } else {
+            System.out.println("Decision: history");
+        }
+        System.out.println("Predicted time: " + (predictedTime < 0 ? "unknown" : predictedTime + " ns"));
+    }
+}
@@ -0,0 +1,149 @@
+package net.mooctest;
+
+import java.util.concurrent.ForkJoinPool;
+
+// Sorts many independent small arrays (the 4-64 element range) without the per-array overhead of the Algorithm
+// path: no name lookup, no DataStructure calls and no recursion. Arrays up to NETWORK_MAX elements go through a
+// sorting network whose compare-exchanges are min/max pairs the JIT turns into conditional moves, so sorting
+// costs the same for every input order; longer ones use insertion sort. Batches are split across a pool
+public class SmallArraySorter {
+    public static final int NETWORK_MAX = 64;
+    private static final int[][] NETWORKS = new int[NETWORK_MAX + 1][];
+    private static final int ELEMENTS_PER_TASK = 1 << 14;
+    private static final int PARALLEL_THRESHOLD = 1 << 16;
+
+    static {
+        for (int n = 0; n <= NETWORK_MAX; n++) {
+            NETWORKS[n] = oddEvenMergeNetwork(n);
+        }
+    }
+
+    private ForkJoinPool forkJoinPool;
+
+    public SmallArraySorter() {
+        this(ExecutionResources.getShared().forkJoinPool());
+    }
+
+    public SmallArraySorter(ForkJoinPool forkJoinPool) {
+        this.forkJoinPool = forkJoinPool;
+    }
+
+    // Batcher's odd-even merge sort as a list of index pairs. Sizes that are not a power of two drop the
+    // comparators that reach past the end, which is the same as padding with values larger than any other
+    public static int[] oddEvenMergeNetwork(int n) {
+        int count = 0;
+        int[] pairs = new int[0];
+        for (int pass = 0; pass < 2; pass++) {
+            count = 0;
+            for (int p = 1; p < n; p <<= 1) {
+                for (int k = p; k >= 1; k >>= 1) {
+                    for (int j = k % p; j + k < n; j += 2 * k) {
+                        for (int i = 0; i < Math.min(k, n - j - k); i++) {
+                            if ((i + j) / (2 * p) == (i + j + k) / (2 * p)) {
+                                if (pass == 1) {
+                                    pairs[2 * count] = i + j;
+                                    pairs[2 * count + 1] = i + j + k;
+                                }
+                                count++;
+                            }
+                        }
+                    }
+                }
+            }
+            if (pass == 0) {
+                pairs = new int[2 * count];
+            }
+        }
+        return pairs;
+    }
+
+    public static int[] getNetwork(int n) {
+        return NETWORKS[n].clone();
+    }
+
+    // Sorts a[from, to)
+    public void sort(int[] a, int from, int to) {
+        int n = to - from;
+        if (n <= NETWORK_MAX) {
+            int[] network = NETWORKS[n];
+            for (int c = 0; c < network.length; c += 2) {
+                int i = from + network[c];
+                int j = from + network[c + 1];
+                int x = a[i];
+                int y = a[j];
+                a[i] = Math.min(x, y);
+                a[j] = Math.max(x, y);
+            }
+        } else {
+            for (int i = from + 1; i < to; i++) {
+                int key = a[i];
+                int j = i - 1;
+                while (j >= from && a[j] > key) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = key;
+            }
+        }
+    }
+
+    public void sortAll(int[][] arrays) {
+        long total = 0;
+        for (int[] array : arrays) {
+            total += array.length;
+        }
+        if (total < PARALLEL_THRESHOLD) {
+            for (int[] array : arrays) {
+                sort(array, 0, array.length);
+            }
+            return;
+        }
+        // Tasks take contiguous runs of arrays holding about ELEMENTS_PER_TASK elements between them
+        int tasks = (int) Math.min(arrays.length, (total + ELEMENTS_PER_TASK - 1) / ELEMENTS_PER_TASK);
+        forkJoinPool.invoke(new ForEachTask(0, tasks, task -> {
+            int end = (int) ((long) arrays.length * (task + 1) / tasks);
+            for (int i = (int) ((long) arrays.length * task / tasks); i < end; i++) {
+                sort(arrays[i], 0, arrays[i].length);
+            }
+        }));
+    }
+
+    // Sorts every segment [offsets[i], offsets[i + 1]) of one flat buffer, which avoids an object per array
+    public void sortSegments(int[] buffer, int[] offsets) {
+        int segments = offsets.length - 1;
+        if (segments <= 0) {
+            return;
+        }
+        for (int i = 0; i < segments; i++) {
+            if (offsets[i] > offsets[i + 1] || offsets[i] < 0 || offsets[i + 1] > buffer.length) {
+                throw new InvalidDataException("Invalid segment " + i + ": " + offsets[i] + " to " + offsets[i + 1]);
+            }
+        }
+        int total = offsets[segments] - offsets[0];
+        if (total < PARALLEL_THRESHOLD) {
+            for (int i = 0; i < segments; i++) {
+                sort(buffer, offsets[i], offsets[i + 1]);
+            }
+            return;
+        }
+        int tasks = Math.min(segments, (total + ELEMENTS_PER_TASK - 1) / ELEMENTS_PER_TASK);
+        forkJoinPool.invoke(new ForEachTask(0, tasks, task -> {
+            int end = (int) ((long) segments * (task + 1) / tasks);
+            for (int i = (int) ((long) segments * task / tasks); i < end; i++) {
+                sort(buffer, offsets[i], offsets[i + 1]);
+            }
+        }));
+    }
+
+    // Equal-length arrays laid out back to back
+    public void sortFixedLength(int[] buffer, int length) {
+        if (length <= 0 || buffer.length % length != 0) {
+            throw new InvalidDataException("Buffer of " + buffer.length + " is not a multiple of " + length);
+        }
+        int[] offsets = new int[buffer.length / length + 1];
+        for (int i = 0; i < offsets.length; i++) {
+            offsets[i] = i * length;
+        }
+        sortSegments(buffer, offsets);
+    }
+}
@@ -0,0 +1,36 @@
+package net.mooctest;
+
+public class SortJob {
+    private String algoName;
+    private DataStructure data;
+    private int priority;
+    private int size;
+
+    public SortJob(String algoName, DataStructure data) {
+        this(algoName, data, 0);
+    }
+
+    // Higher priorities run first; the size is taken now because it is what the job is admitted against
+    public SortJob(String algoName, DataStructure data, int priority) {
+        this.algoName = algoName;
+        this.data = data;
+        this.priority = priority;
+        this.size = data.size();
+    }
+
+    public String getAlgoName() {
+        return algoName;
+    }
+
+    public DataStructure getData() {
+        return data;
+    }
+
+    public int getPriority() {
+        return priority;
+    }
+
+    public int getSize() {
+        return size;
+    }
+}
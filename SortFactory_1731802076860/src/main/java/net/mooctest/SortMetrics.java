@@ -0,0 +1,125 @@
+package net.mooctest;
+
+// Counters for a single sort call; algorithms keep no per-call state, so one instance can serve many threads.
+// Not thread-safe itself: parallel tasks fork a child per task and merge it back after joining.
+public class SortMetrics {
+    // Shared no-op context for callers that do not want counting; it never changes, so sharing it is safe
+    public static final SortMetrics DISABLED = new SortMetrics(false);
+
+    private final boolean enabled;
+    private long comparisons;
+    private long swaps;
+    private int passes;
+    private long bytesMoved;
+    private long ioBytes;
+    private int runCount;
+
+    public SortMetrics() {
+        this(true);
+    }
+
+    public SortMetrics(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void compare() {
+        if (enabled) {
+            comparisons++;
+        }
+    }
+
+    public void addComparisons(long count) {
+        if (enabled) {
+            comparisons += count;
+        }
+    }
+
+    public void swap() {
+        if (enabled) {
+            swaps++;
+        }
+    }
+
+    public void addSwaps(long count) {
+        if (enabled) {
+            swaps += count;
+        }
+    }
+
+    public void addPasses(int count) {
+        if (enabled) {
+            passes += count;
+        }
+    }
+
+    public void addBytesMoved(long bytes) {
+        if (enabled) {
+            bytesMoved += bytes;
+        }
+    }
+
+    public void addIoBytes(long bytes) {
+        if (enabled) {
+            ioBytes += bytes;
+        }
+    }
+
+    public void addRuns(int count) {
+        if (enabled) {
+            runCount += count;
+        }
+    }
+
+    // A private context for a parallel task; disabled contexts hand out themselves
+    public SortMetrics fork() {
+        return enabled ? new SortMetrics(true) : this;
+    }
+
+    public void merge(SortMetrics child) {
+        if (enabled && child != this) {
+            comparisons += child.comparisons;
+            swaps += child.swaps;
+            passes += child.passes;
+            bytesMoved += child.bytesMoved;
+            ioBytes += child.ioBytes;
+            runCount += child.runCount;
+        }
+    }
+
+    public long getComparisons() {
+        return comparisons;
+    }
+
+    public long getSwaps() {
+        return swaps;
+    }
+
+    public int getPasses() {
+        return passes;
+    }
+
+    public long getBytesMoved() {
+        return bytesMoved;
+    }
+
+    public long getIoBytes() {
+        return ioBytes;
+    }
+
+    public int getRunCount() {
+        return runCount;
+    }
+
+    public AlgorithmPerformance toPerformance(long timeTaken, long memoryUsed, int threadCount) {
+        AlgorithmPerformance performance = new AlgorithmPerformance(timeTaken, comparisons, swaps, memoryUsed, threadCount);
+        performance.setPasses(passes);
+        performance.setBytesMoved(bytesMoved);
+        performance.setIoBytes(ioBytes);
+        performance.setRunCount(runCount);
+        return performance;
+    }
+}
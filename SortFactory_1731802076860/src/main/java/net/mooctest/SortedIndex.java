@@ -0,0 +1,160 @@
+package net.mooctest;
+
+import java.util.concurrent.ForkJoinPool;
+
+public class SortedIndex {
+    private static final int LANES = 8; // Independent searches interleaved so their cache misses overlap
+    private static final int PARALLEL_BATCH_BLOCK = 4096;
+    // The padded layout holds 2^levels ints; one more element would need a 2^31 array, past the int limit
+    private static final int MAX_SIZE = (1 << 30) - 1;
+
+    private int size;
+    private int levels;
+    private int[] layout; // Eytzinger (BFS) order, 1-based, padded to a complete tree with Integer.MAX_VALUE
+
+    public SortedIndex(DataStructure sorted) {
+        this(sorted.toArray());
+    }
+
+    public SortedIndex(int[] sorted) {
+        if (sorted.length > MAX_SIZE) {
+            throw new InvalidDataException("Too many elements for a sorted index: " + sorted.length);
+        }
+        for (int i = 1; i < sorted.length; i++) {
+            if (sorted[i - 1] > sorted[i]) {
+                throw new InvalidDataException("Input is not sorted at index " + i);
+            }
+        }
+        size = sorted.length;
+        levels = 32 - Integer.numberOfLeadingZeros(size);
+        layout = new int[1 << levels];
+        build(sorted, 0, 1);
+    }
+
+    // In-order walk of the implicit tree assigns sorted values to BFS slots
+    private int build(int[] sorted, int next, int slot) {
+        if (slot < layout.length) {
+            next = build(sorted, next, 2 * slot);
+            layout[slot] = next < size ? sorted[next] : Integer.MAX_VALUE;
+            next++;
+            next = build(sorted, next, 2 * slot + 1);
+        }
+        return next;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    // Index of the first element >= target, or size() when every element is smaller
+    public int lowerBound(int target) {
+        int slot = lowerBoundSlot(target);
+        return slot == 0 ? size : Math.min(rank(slot), size);
+    }
+
+    // Index of the first element > target, or size()
+    public int upperBound(int target) {
+        if (target == Integer.MAX_VALUE) {
+            return size;
+        }
+        return lowerBound(target + 1);
+    }
+
+    // Index of the first occurrence of target, or -1
+    public int search(int target) {
+        int slot = lowerBoundSlot(target);
+        return slot != 0 && rank(slot) < size && layout[slot] == target ? rank(slot) : -1;
+    }
+
+    // Number of elements in [low, high]
+    public int rangeCount(int low, int high) {
+        if (low > high) {
+            return 0;
+        }
+        return upperBound(high) - lowerBound(low);
+    }
+
+    // The padded tree is complete, so every search takes exactly 'levels' steps and the loop has no data-dependent branch.
+    // Java has no prefetch instruction, so each step also loads the slot four levels down (16 ints, one cache line);
+    // folding that load into k through a term that is always zero keeps the JIT from dropping it.
+    private int lowerBoundSlot(int target) {
+        int k = 1;
+        int touched = 0;
+        for (int level = 0; level < levels; level++) {
+            int ahead = k << 4;
+            if (ahead < layout.length) {
+                touched ^= layout[ahead];
+            }
+            k = 2 * k + (layout[k] < target ? 1 : 0);
+        }
+        k |= touched & (k >> 31);
+        // Undo the trailing right turns plus the final left turn to reach the answer slot
+        return k >>> (Integer.numberOfTrailingZeros(~k) + 1);
+    }
+
+    public int[] search(int[] targets) {
+        int[] result = new int[targets.length];
+        searchBatch(targets, result, 0, targets.length, true);
+        return result;
+    }
+
+    public int[] lowerBound(int[] targets) {
+        int[] result = new int[targets.length];
+        searchBatch(targets, result, 0, targets.length, false);
+        return result;
+    }
+
+    // Large batches are split into blocks that run on the shared pool
+    public int[] parallelSearch(int[] targets) {
+        return parallelSearch(targets, ExecutionResources.getShared().forkJoinPool());
+    }
+
+    public int[] parallelSearch(int[] targets, ForkJoinPool forkJoinPool) {
+        int[] result = new int[targets.length];
+        int blocks = (targets.length + PARALLEL_BATCH_BLOCK - 1) / PARALLEL_BATCH_BLOCK;
+        forkJoinPool.invoke(new ForEachTask(0, blocks, block -> {
+            int from = block * PARALLEL_BATCH_BLOCK;
+            searchBatch(targets, result, from, Math.min(targets.length, from + PARALLEL_BATCH_BLOCK), true);
+        }));
+        return result;
+    }
+
+    private void searchBatch(int[] targets, int[] result, int from, int to, boolean exact) {
+        int[] k = new int[LANES];
+        int i = from;
+        for (; i + LANES <= to; i += LANES) {
+            for (int lane = 0; lane < LANES; lane++) {
+                k[lane] = 1;
+            }
+            for (int level = 0; level < levels; level++) {
+                for (int lane = 0; lane < LANES; lane++) {
+                    k[lane] = 2 * k[lane] + (layout[k[lane]] < targets[i + lane] ? 1 : 0);
+                }
+            }
+            for (int lane = 0; lane < LANES; lane++) {
+                int slot = k[lane] >>> (Integer.numberOfTrailingZeros(~k[lane]) + 1);
+                result[i + lane] = answer(slot, targets[i + lane], exact);
+            }
+        }
+        for (; i < to; i++) {
+            result[i] = answer(lowerBoundSlot(targets[i]), targets[i], exact);
+        }
+    }
+
+    private int answer(int slot, int target, boolean exact) {
+        int position = slot == 0 ? size : rank(slot);
+        if (position >= size) {
+            return exact ? -1 : size;
+        }
+        if (exact && layout[slot] != target) {
+            return -1;
+        }
+        return position;
+    }
+
+    // In-order position of a slot in the complete tree, so no rank array is needed
+    private int rank(int slot) {
+        int depth = 31 - Integer.numberOfLeadingZeros(slot);
+        return ((2 * (slot - (1 << depth)) + 1) << (levels - 1 - depth)) - 1;
+    }
+}
@@ -0,0 +1,359 @@
+package net.mooctest;
+
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+// Runs sort jobs asynchronously. Admission is bounded by the total number of elements queued or running, so a
+// flood of large jobs makes callers wait (or get rejected) instead of piling data up in an unbounded queue.
+// Admitted jobs wait in a priority queue and at most maxConcurrency of them are handed to the executor at a time,
+// and never more than the executor has threads, so waiting jobs keep their priority order instead of queueing FIFO
+// inside the executor.
+public class SortingService extends AlgorithmManager {
+    public enum ExecutionMode {
+        PLATFORM, FORK_JOIN, VIRTUAL
+    }
+
+    private long maxInFlightElements;
+    private int maxConcurrency;
+    private int dispatchLimit;
+    private ExecutionMode executionMode;
+    private ExecutorService executor;
+    private boolean ownsExecutor;
+
+    private ReentrantLock lock = new ReentrantLock();
+    private Condition capacityFreed = lock.newCondition();
+    private Condition terminated = lock.newCondition();
+    private PriorityQueue<QueuedJob> queue = new PriorityQueue<>();
+    private long inFlightElements;
+    private int runningJobs;
+    private long sequence;
+    private boolean shutdown;
+
+    private AtomicLong submittedJobs = new AtomicLong();
+    private AtomicLong rejectedJobs = new AtomicLong();
+    private AtomicLong completedJobs = new AtomicLong();
+    private AtomicLong failedJobs = new AtomicLong();
+    private AtomicLong totalWaitTime = new AtomicLong();
+    private AtomicLong maxWaitTime = new AtomicLong();
+    private int maxQueueDepth;
+
+    public SortingService(int maxConcurrency, long maxInFlightElements) {
+        this(maxConcurrency, maxInFlightElements, ExecutionMode.PLATFORM);
+    }
+
+    public SortingService(int maxConcurrency, long maxInFlightElements, ExecutionMode executionMode) {
+        if (maxConcurrency < 1 || maxInFlightElements < 1) {
+            throw new InvalidDataException("Invalid limits: " + maxConcurrency + " jobs, " + maxInFlightElements + " elements");
+        }
+        this.maxConcurrency = maxConcurrency;
+        this.maxInFlightElements = maxInFlightElements;
+        if (executionMode == ExecutionMode.VIRTUAL) {
+            executor = virtualThreadExecutor();
+            ownsExecutor = executor != null;
+            // Virtual threads need Java 21; older runtimes get the fork-join mode instead
+            if (executor == null) {
+                executionMode = ExecutionMode.FORK_JOIN;
+            }
+        }
+        // Pools are shared, so they are capped at the core count, and so is dispatch; virtual threads are not
+        dispatchLimit = maxConcurrency;
+        if (executionMode == ExecutionMode.FORK_JOIN) {
+            executor = ExecutionResources.getShared().forkJoinPool(maxConcurrency);
+            dispatchLimit = ExecutionResources.getShared().effectiveParallelism(maxConcurrency);
+        } else if (executionMode == ExecutionMode.PLATFORM) {
+            executor = ExecutionResources.getShared().fixedPool(ExecutionResources.JOBS, maxConcurrency);
+            dispatchLimit = ExecutionResources.getShared().effectiveParallelism(maxConcurrency);
+        }
+        this.executionMode = executionMode;
+    }
+
+    private static ExecutorService virtualThreadExecutor() {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    // Blocks while the job does not fit into the element budget
+    public CompletableFuture<AlgorithmPerformance> submit(SortJob job) throws InterruptedException {
+        return admit(job, -1);
+    }
+
+    // Waits at most the given time for room; a job that still does not fit completes with a ConcurrencyException
+    public CompletableFuture<AlgorithmPerformance> submit(SortJob job, long timeout, TimeUnit unit) throws InterruptedException {
+        return admit(job, Math.max(0, unit.toNanos(timeout)));
+    }
+
+    // Never blocks: rejects the job at once if it does not fit
+    public CompletableFuture<AlgorithmPerformance> trySubmit(SortJob job) {
+        try {
+            return admit(job, 0);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ConcurrencyException("Interrupted while submitting " + job.getAlgoName());
+        }
+    }
+
+    // Jobs are admitted one by one, so the batch applies backpressure as it goes; the result keeps the batch order
+    public CompletableFuture<List<AlgorithmPerformance>> submitBatch(List<SortJob> jobs) throws InterruptedException {
+        List<CompletableFuture<AlgorithmPerformance>> futures = new ArrayList<>();
+        for (SortJob job : jobs) {
+            futures.add(submit(job));
+        }
+        return CompletableFuture.allOf(futures.toArray(new CompletableFuture<?>[0])).thenApply(done -> {
+            List<AlgorithmPerformance> results = new ArrayList<>();
+            for (CompletableFuture<AlgorithmPerformance> future : futures) {
+                results.add(future.join());
+            }
+            return results;
+        });
+    }
+
+    private CompletableFuture<AlgorithmPerformance> admit(SortJob job, long timeoutNanos) throws InterruptedException {
+        Algorithm algo = getAlgorithm(job.getAlgoName());
+        if (algo == null) {
+            throw new AlgorithmNotFoundException("Algorithm not found: " + job.getAlgoName());
+        }
+        lock.lock();
+        try {
+            long remaining = timeoutNanos;
+            while (!shutdown && !fits(job.getSize())) {
+                if (timeoutNanos < 0) {
+                    capacityFreed.await();
+                } else if (remaining > 0) {
+                    remaining = capacityFreed.awaitNanos(remaining);
+                } else {
+                    return reject(job, "Element budget of " + maxInFlightElements + " exhausted");
+                }
+            }
+            if (shutdown) {
+                return reject(job, "Service is shut down");
+            }
+            QueuedJob queued = new QueuedJob(job, algo, sequence++);
+            inFlightElements += job.getSize();
+            queue.add(queued);
+            submittedJobs.incrementAndGet();
+            maxQueueDepth = Math.max(maxQueueDepth, queue.size());
+            dispatch();
+            return queued.future;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // A job larger than the whole budget is still admitted once nothing else is in flight, and then runs alone
+    private boolean fits(int size) {
+        return inFlightElements == 0 || inFlightElements + size <= maxInFlightElements;
+    }
+
+    private CompletableFuture<AlgorithmPerformance> reject(SortJob job, String reason) {
+        rejectedJobs.incrementAndGet();
+        CompletableFuture<AlgorithmPerformance> future = new CompletableFuture<>();
+        future.completeExceptionally(new ConcurrencyException(reason + ", rejected " + job.getAlgoName()
+                + " job of " + job.getSize() + " elements"));
+        return future;
+    }
+
+    // Called with the lock held. A pool that rejects work (the shared pools after shutdownShared) fails the job and
+    // gives back its budget, so nothing stays in flight forever
+    private void dispatch() {
+        while (runningJobs < dispatchLimit && !queue.isEmpty()) {
+            QueuedJob queued = queue.poll();
+            runningJobs++;
+            try {
+                executor.execute(() -> run(queued));
+            } catch (RejectedExecutionException e) {
+                runningJobs--;
+                inFlightElements -= queued.job.getSize();
+                failedJobs.incrementAndGet();
+                capacityFreed.signalAll();
+                queued.future.completeExceptionally(new ConcurrencyException("Executor rejected "
+                        + queued.job.getAlgoName() + " job of " + queued.job.getSize() + " elements", e));
+            }
+        }
+        if (shutdown && runningJobs == 0) {
+            if (ownsExecutor) {
+                executor.shutdown();
+            }
+            terminated.signalAll();
+        }
+    }
+
+    // The budget and counters are settled before the future completes, so callers never see a finished job in flight
+    private void run(QueuedJob queued) {
+        AlgorithmPerformance performance = null;
+        Throwable failure = null;
+        try {
+            // Skip jobs whose caller cancelled them while they were queued
+            if (!queued.future.isDone()) {
+                long waitTime = System.nanoTime() - queued.enqueueTime;
+                totalWaitTime.addAndGet(waitTime);
+                maxWaitTime.accumulateAndGet(waitTime, Math::max);
+                performance = queued.algo.evaluatePerformance(queued.job.getData());
+                completedJobs.incrementAndGet();
+            }
+        } catch (RuntimeException | Error e) {
+            failedJobs.incrementAndGet();
+            failure = e;
+        } finally {
+            lock.lock();
+            try {
+                runningJobs--;
+                inFlightElements -= queued.job.getSize();
+                capacityFreed.signalAll();
+                dispatch();
+            } finally {
+                lock.unlock();
+            }
+        }
+        if (failure != null) {
+            queued.future.completeExceptionally(failure);
+        } else if (performance != null) {
+            queued.future.complete(performance);
+        }
+    }
+
+    // Stops admitting jobs; those already admitted still run. Blocked submitters are rejected
+    public void shutdown() {
+        lock.lock();
+        try {
+            shutdown = true;
+            capacityFreed.signalAll();
+            dispatch();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Waits for this service's jobs only; the shared pools they ran on stay up
+    public boolean awaitTermination(long timeout, TimeUnit unit) throws InterruptedException {
+        long remaining = unit.toNanos(timeout);
+        lock.lock();
+        try {
+            while (!shutdown || runningJobs > 0) {
+                if (remaining <= 0) {
+                    return false;
+                }
+                remaining = terminated.awaitNanos(remaining);
+            }
+        } finally {
+            lock.unlock();
+        }
+        return !ownsExecutor || executor.awaitTermination(Math.max(0, remaining), TimeUnit.NANOSECONDS);
+    }
+
+    public ExecutionMode getExecutionMode() {
+        return executionMode;
+    }
+
+    public int getQueueDepth() {
+        lock.lock();
+        try {
+            return queue.size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getMaxQueueDepth() {
+        lock.lock();
+        try {
+            return maxQueueDepth;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public int getRunningJobs() {
+        lock.lock();
+        try {
+            return runningJobs;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getInFlightElements() {
+        lock.lock();
+        try {
+            return inFlightElements;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getSubmittedJobs() {
+        return submittedJobs.get();
+    }
+
+    public long getRejectedJobs() {
+        return rejectedJobs.get();
+    }
+
+    public long getCompletedJobs() {
+        return completedJobs.get();
+    }
+
+    public long getFailedJobs() {
+        return failedJobs.get();
+    }
+
+    // Time between admission and the start of execution, averaged over the jobs that have started
+    public double getAverageWaitTime() {
+        long started = completedJobs.get() + failedJobs.get();
+        return started == 0 ? 0 : (double) totalWaitTime.get() / started;
+    }
+
+    public long getMaxWaitTime() {
+        return maxWaitTime.get();
+    }
+
+    public void report() {
+        System.out.println("Sorting Service Report:");
+        System.out.println("Mode: " + executionMode + ", concurrency " + maxConcurrency + " (" + dispatchLimit
+                + " dispatched at once), element budget " + maxInFlightElements);
+        System.out.println("Jobs: " + getSubmittedJobs() + " submitted, " + getCompletedJobs() + " completed, "
+                + getFailedJobs() + " failed, " + getRejectedJobs() + " rejected");
+        System.out.println("Queue depth: " + getQueueDepth() + " (max " + getMaxQueueDepth() + "), in flight: "
+                + getInFlightElements() + " elements");
+        System.out.println(String.format("Wait time: mean %.0f ns, max %d ns", getAverageWaitTime(), getMaxWaitTime()));
+    }
+
+    // Higher priority first, then the smaller job, then the earlier submission
+    private static class QueuedJob implements Comparable<QueuedJob> {
+        private SortJob job;
+        private Algorithm algo;
+        private long sequence;
+        private long enqueueTime = System.nanoTime();
+        private CompletableFuture<AlgorithmPerformance> future = new CompletableFuture<>();
+
+        QueuedJob(SortJob job, Algorithm algo, long sequence) {
+            this.job = job;
+            this.algo = algo;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public int compareTo(QueuedJob other) {
+            if (job.getPriority() != other.job.getPriority()) {
+                return Integer.compare(other.job.getPriority(), job.getPriority());
+            }
+            if (job.getSize() != other.job.getSize()) {
+                return Integer.compare(job.getSize(), other.job.getSize());
+            }
+            return Long.compare(sequence, other.sequence);
+        }
+    }
+}
@@ -0,0 +1,81 @@
+package net.mooctest;
+
+import java.util.stream.IntStream;
+
+// Streaming top-k / bottom-k selection in O(n log k), keeping only k elements in a bounded heap
+public class TopK {
+    private static final int READ_BLOCK = 4096;
+
+    private TopK() {
+    }
+
+    // The k largest values, in descending order. The heap never needs more room than the input has elements
+    public static int[] largest(DataStructure data, int k) {
+        checkK(k);
+        return drain(scan(data, new IntHeap(Math.min(k, data.size()), false), k));
+    }
+
+    // The k smallest values, in ascending order
+    public static int[] smallest(DataStructure data, int k) {
+        checkK(k);
+        return drain(scan(data, new IntHeap(Math.min(k, data.size()), true), k));
+    }
+
+    // Parallel streams keep one bounded heap per split and merge them. A stream's length is unknown, so each heap
+    // starts small and grows up to k
+    public static int[] largest(IntStream values, int k) {
+        checkK(k);
+        return drain(values.collect(() -> new IntHeap(false), (heap, value) -> offer(heap, value, k),
+                (left, right) -> merge(left, right, k)));
+    }
+
+    public static int[] smallest(IntStream values, int k) {
+        checkK(k);
+        return drain(values.collect(() -> new IntHeap(true), (heap, value) -> offer(heap, value, k),
+                (left, right) -> merge(left, right, k)));
+    }
+
+    // Reads in blocks through the bulk range API rather than one get per element
+    private static IntHeap scan(DataStructure data, IntHeap heap, int k) {
+        int size = data.size();
+        int[] block = new int[Math.min(READ_BLOCK, Math.max(1, size))];
+        for (int from = 0; from < size; from += block.length) {
+            int count = Math.min(block.length, size - from);
+            data.read(from, block, 0, count);
+            for (int i = 0; i < count; i++) {
+                offer(heap, block[i], k);
+            }
+        }
+        return heap;
+    }
+
+    // The heap's top is the weakest kept element: the minimum for largest(), the maximum for smallest()
+    private static void offer(IntHeap heap, int value, int k) {
+        if (heap.size() < k) {
+            heap.push(value);
+        } else if (k > 0 && (heap.isMaxHeap() ? value < heap.peek() : value > heap.peek())) {
+            heap.replaceTop(value);
+        }
+    }
+
+    private static void merge(IntHeap target, IntHeap source, int k) {
+        while (!source.isEmpty()) {
+            offer(target, source.poll(), k);
+        }
+    }
+
+    // Polling yields weakest first, so fill from the back to put the best element first
+    private static int[] drain(IntHeap heap) {
+        int[] result = new int[heap.size()];
+        for (int i = result.length - 1; i >= 0; i--) {
+            result[i] = heap.poll();
+        }
+        return result;
+    }
+
+    private static void checkK(int k) {
+        if (k < 0) {
+            throw new InvalidDataException("k must not be negative: " + k);
+        }
+    }
+}
@@ -2,6 +2,9 @@ package net.mooctest;
 
 import static org.junit.Assert.*;
 
+import java.util.Arrays;
+import java.util.Random;
+
 import org.junit.Test;
 
 public class AlgorithmFactoryTest {
@@ -13,4 +16,17 @@ public class AlgorithmFactoryTest {
 		assertTrue(algorithm instanceof OptimizedQuickSort);
 	}
 
+	@Test
+	public void testQuickSort_RandomInputWithDuplicates_ShouldSort() {
+		Random random = new Random(28);
+		for (int n : new int[] {0, 1, 11, 12, 300, 5000}) {
+			int[] values = TestData.randomInts(random, n, 100);
+			ArrayDataStructure data = new ArrayDataStructure(n);
+			data.fromArray(values);
+			new AlgorithmFactory().getAlgorithm("quicksort").sort(data);
+			Arrays.sort(values);
+			assertArrayEquals(values, data.toArray());
+		}
+	}
+
 }
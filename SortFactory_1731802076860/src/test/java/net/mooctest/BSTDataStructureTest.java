@@ -0,0 +1,118 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class BSTDataStructureTest {
+
+	@Test
+	public void testAdd_SortedInput_ShouldStayBalanced() {
+		BSTDataStructure tree = new BSTDataStructure();
+		for (int i = 0; i < 100000; i++) {
+			tree.add(i);
+		}
+		assertEquals(100000, tree.size());
+		assertTrue(tree.height() <= 25);
+		assertEquals(54321, tree.get(54321));
+	}
+
+	@Test
+	public void testAdd_Duplicates_ShouldKeepEveryElement() {
+		BSTDataStructure tree = new BSTDataStructure();
+		for (int value : new int[] {5, 3, 5, 5, 1, 3}) {
+			tree.add(value);
+		}
+		assertArrayEquals(new int[] {1, 3, 3, 5, 5, 5}, tree.toArray());
+		assertEquals(3, tree.lowerBound(5));
+		assertEquals(1, tree.indexOf(3));
+		assertEquals(-1, tree.indexOf(4));
+	}
+
+	@Test
+	public void testRandomOperations_ShouldMatchSortedList() {
+		Random random = new Random(36);
+		BSTDataStructure tree = new BSTDataStructure();
+		List<Integer> reference = new ArrayList<>();
+		for (int step = 0; step < 20000; step++) {
+			int operation = random.nextInt(4);
+			if (operation < 2 || reference.isEmpty()) {
+				int value = random.nextInt(500);
+				tree.add(value);
+				reference.add(value);
+				Collections.sort(reference);
+			} else if (operation == 2) {
+				int index = random.nextInt(reference.size());
+				assertEquals(reference.remove(index).intValue(), tree.removeAt(index));
+			} else {
+				int index = random.nextInt(reference.size());
+				int value = random.nextInt(500);
+				tree.set(index, value);
+				reference.remove(index);
+				reference.add(value);
+				Collections.sort(reference);
+			}
+			int probe = random.nextInt(reference.size());
+			assertEquals(reference.get(probe).intValue(), tree.get(probe));
+		}
+		int[] expected = new int[reference.size()];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = reference.get(i);
+		}
+		assertArrayEquals(expected, tree.toArray());
+	}
+
+	@Test
+	public void testToArray_ConcurrentReaders_ShouldEachSeeSortedOrder() throws Exception {
+		BSTDataStructure tree = new BSTDataStructure();
+		int[] expected = new int[20000];
+		for (int i = 0; i < expected.length; i++) {
+			expected[i] = i;
+			tree.add(i);
+		}
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		try {
+			List<Callable<Boolean>> readers = new ArrayList<>();
+			for (int i = 0; i < 4; i++) {
+				readers.add(() -> {
+					for (int round = 0; round < 50; round++) {
+						if (!Arrays.equals(expected, tree.toArray())) {
+							return false;
+						}
+					}
+					return true;
+				});
+			}
+			for (Future<Boolean> result : pool.invokeAll(readers)) {
+				assertTrue(result.get());
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testFromArray_UnsortedInput_ShouldBuildSortedTree() {
+		BSTDataStructure tree = new BSTDataStructure();
+		tree.fromArray(new int[] {9, -2, 4, 4, 0});
+		assertArrayEquals(new int[] {-2, 0, 4, 4, 9}, tree.toArray());
+		tree.add(3);
+		assertEquals(3, tree.get(2));
+		assertEquals(6, tree.size());
+	}
+
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void testGet_InvalidIndex_ShouldThrowException() {
+		new BSTDataStructure().get(0);
+	}
+}
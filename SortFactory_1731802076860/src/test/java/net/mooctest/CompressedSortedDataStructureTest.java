@@ -0,0 +1,200 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class CompressedSortedDataStructureTest {
+
+	// Sorted ids with small gaps and an occasional large jump
+	private int[] sortedIds(int n, int maxGap, long seed) {
+		Random random = new Random(seed);
+		int[] ids = new int[n];
+		int value = -1000;
+		for (int i = 0; i < n; i++) {
+			value += random.nextInt(100) == 0 ? random.nextInt(1 << 20) : random.nextInt(maxGap);
+			ids[i] = value;
+		}
+		return ids;
+	}
+
+	private CompressedSortedDataStructure appendAll(int[] values) {
+		CompressedSortedDataStructure data = new CompressedSortedDataStructure();
+		for (int value : values) {
+			data.add(value);
+		}
+		return data;
+	}
+
+	@Test
+	public void testAdd_DenseIds_ShouldRoundTripAndShrink() {
+		int[] ids = sortedIds(100000, 8, 1);
+		CompressedSortedDataStructure data = appendAll(ids);
+		assertEquals(ids.length, data.size());
+		assertArrayEquals(ids, data.toArray());
+		double ratio = (double) ids.length * Integer.BYTES / data.getCompressedBytes();
+		assertTrue("ratio " + ratio, ratio >= 4);
+	}
+
+	@Test
+	public void testEncode_OutlierGaps_ShouldUseExceptionsInsteadOfWideBlocks() {
+		int[] values = new int[CompressedSortedDataStructure.BLOCK_SIZE];
+		for (int i = 1; i < values.length; i++) {
+			values[i] = values[i - 1] + (i % 50 == 0 ? 1_000_000 : 3);
+		}
+		CompressedSortedDataStructure data = appendAll(values);
+		assertEquals(1, data.getBlockCount());
+		assertEquals(2, data.getBlockBits(0));
+		assertEquals(2, data.getBlockExceptions(0));
+		assertArrayEquals(values, data.toArray());
+	}
+
+	@Test
+	public void testEncode_FullIntRange_ShouldRoundTrip() {
+		int[] values = new int[300];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i % 2 == 0 ? Integer.MIN_VALUE + i : Integer.MAX_VALUE - (values.length - i);
+		}
+		Arrays.sort(values);
+		CompressedSortedDataStructure data = new CompressedSortedDataStructure();
+		data.fromArray(values);
+		assertArrayEquals(values, data.toArray());
+		assertEquals(Integer.MIN_VALUE, data.get(0));
+		assertEquals(values[299], data.get(299));
+	}
+
+	@Test
+	public void testEncode_EqualValues_ShouldUseZeroBits() {
+		int[] values = new int[1000];
+		Arrays.fill(values, 42);
+		CompressedSortedDataStructure data = appendAll(values);
+		assertEquals(0, data.getBlockBits(3));
+		assertEquals(42, data.get(777));
+		assertEquals(0, data.lowerBound(42));
+		assertEquals(1000, data.lowerBound(43));
+	}
+
+	@Test
+	public void testGetAndRead_RandomPositions_ShouldMatchSource() {
+		int[] ids = sortedIds(10000, 1000, 2);
+		CompressedSortedDataStructure data = appendAll(ids);
+		Random random = new Random(3);
+		for (int i = 0; i < 2000; i++) {
+			int index = random.nextInt(ids.length);
+			assertEquals(ids[index], data.get(index));
+		}
+		int[] target = new int[1000];
+		data.read(9000, target, 0, 1000);
+		assertArrayEquals(Arrays.copyOfRange(ids, 9000, 10000), target);
+		data.read(130, target, 0, 300);
+		assertArrayEquals(Arrays.copyOfRange(ids, 130, 430), Arrays.copyOf(target, 300));
+	}
+
+	@Test
+	public void testLowerBoundAndIndexOf_PresentAndAbsentValues_ShouldMatchBinarySearch() {
+		int[] ids = sortedIds(5000, 20, 4);
+		CompressedSortedDataStructure data = appendAll(ids);
+		int expected = 0;
+		for (int probe = ids[0] - 5; probe <= ids[ids.length - 1] + 5; probe += 7) {
+			while (expected < ids.length && ids[expected] < probe) {
+				expected++;
+			}
+			assertEquals(expected, data.lowerBound(probe));
+			assertEquals(expected < ids.length && ids[expected] == probe, data.contains(probe));
+		}
+		assertEquals(ids.length - 1, data.indexOf(ids[ids.length - 1]));
+	}
+
+	@Test
+	public void testIterator_BlocksAndTail_ShouldVisitInOrder() {
+		int[] ids = sortedIds(1000, 50, 5);
+		CompressedSortedDataStructure data = appendAll(ids);
+		PrimitiveIterator.OfInt values = data.iterator();
+		for (int id : ids) {
+			assertEquals(id, values.nextInt());
+		}
+		assertFalse(values.hasNext());
+	}
+
+	@Test
+	public void testSort_UnsortedInput_ShouldStoreSortedThroughFromArray() {
+		int[] values = TestData.randomInts(2000, 6);
+		CompressedSortedDataStructure data = new CompressedSortedDataStructure();
+		data.fromArray(values);
+		new IntroSort().sort(data);
+		Arrays.sort(values);
+		assertArrayEquals(values, data.toArray());
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testAdd_DescendingValue_ShouldThrow() {
+		CompressedSortedDataStructure data = appendAll(sortedIds(200, 10, 7));
+		data.add(Integer.MIN_VALUE);
+	}
+
+	@Test
+	public void testIterator_AddPacksTailMidIteration_ShouldKeepSnapshot() {
+		int[] values = new int[300];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = i * 3;
+		}
+		CompressedSortedDataStructure data = appendAll(Arrays.copyOf(values, 200));
+		PrimitiveIterator.OfInt iterator = data.iterator();
+		for (int i = 0; i < 130; i++) {
+			assertEquals(values[i], iterator.nextInt());
+		}
+		for (int i = 200; i < 300; i++) {
+			data.add(values[i]);
+		}
+		for (int i = 130; i < 200; i++) {
+			assertEquals(values[i], iterator.nextInt());
+		}
+		assertFalse(iterator.hasNext());
+	}
+
+	@Test(expected = ConcurrentModificationException.class)
+	public void testIterator_ContentsReplaced_ShouldThrow() {
+		CompressedSortedDataStructure data = appendAll(sortedIds(300, 10, 9));
+		PrimitiveIterator.OfInt iterator = data.iterator();
+		iterator.nextInt();
+		data.fromArray(new int[] {1, 2, 3});
+		iterator.nextInt();
+	}
+
+	@Test
+	public void testSet_ThenSortedOperation_ShouldActPositionallyThenRepack() {
+		CompressedSortedDataStructure data = appendAll(new int[] {1, 2, 3, 4, 5});
+		data.set(0, 9);
+		assertEquals(9, data.get(0));
+		assertEquals(2, data.get(1));
+		assertArrayEquals(new int[] {9, 2, 3, 4, 5}, data.toArray());
+		assertEquals(1, data.lowerBound(3));
+		assertArrayEquals(new int[] {2, 3, 4, 5, 9}, data.toArray());
+		data.set(4, 0);
+		data.add(10);
+		assertArrayEquals(new int[] {0, 2, 3, 4, 5, 10}, data.toArray());
+	}
+
+	@Test
+	public void testSort_InPlaceFactoryAlgorithms_ShouldSortThroughSet() {
+		int[] sorted = sortedIds(1000, 50, 11);
+		for (String name : new String[] {"quicksort", "parallelmergesort", "heapsort"}) {
+			CompressedSortedDataStructure data = new CompressedSortedDataStructure();
+			data.fromArray(sorted);
+			Random random = new Random(5);
+			for (int i = 0; i < 200; i++) {
+				data.set(random.nextInt(sorted.length), random.nextInt(1 << 20));
+			}
+			int[] expected = data.toArray();
+			Arrays.sort(expected);
+			new AlgorithmFactory().getAlgorithm(name).sort(data);
+			assertArrayEquals(name, expected, data.toArray());
+			assertEquals(7, data.getBlockCount());
+		}
+	}
+}
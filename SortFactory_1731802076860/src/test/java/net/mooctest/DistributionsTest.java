@@ -0,0 +1,63 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class DistributionsTest {
+
+	private InputFeatures features(String distribution, int size) {
+		ArrayDataStructure data = new ArrayDataStructure(size);
+		data.fromArray(Distributions.generate(distribution, size, 7));
+		return InputFeatures.extract(data);
+	}
+
+	@Test
+	public void testGenerate_AllDistributions_ShouldBeDeterministicAndSized() {
+		for (String name : Distributions.DISTRIBUTION_NAMES) {
+			int[] first = Distributions.generate(name, 5000, 7);
+			assertEquals(5000, first.length);
+			assertArrayEquals(name, first, Distributions.generate(name, 5000, 7));
+			assertEquals(0, Distributions.generate(name, 0, 7).length);
+		}
+	}
+
+	@Test
+	public void testGenerate_OrderedDistributions_ShouldMapToExpectedFeatures() {
+		assertEquals("sorted", features("sorted", 100000).getOrderClass());
+		assertEquals("reversed", features("reversed", 100000).getOrderClass());
+		assertEquals("random", features("uniform", 100000).getOrderClass());
+		assertEquals("unique", features("uniform", 100000).getDuplicateClass());
+		assertEquals("heavy-duplicates", features("fewunique", 100000).getDuplicateClass());
+	}
+
+	@Test
+	public void testGenerate_OrganPipe_ShouldRiseThenFall() {
+		int[] values = Distributions.generate("organpipe", 10, 7);
+		assertArrayEquals(new int[] {0, 1, 2, 3, 4, 4, 3, 2, 1, 0}, values);
+	}
+
+	@Test
+	public void testGenerate_Zipf_ShouldBeSkewedTowardsFewValues() {
+		int[] values = Distributions.generate("zipf", 100000, 7);
+		Map<Integer, Integer> counts = new HashMap<>();
+		for (int value : values) {
+			counts.merge(value, 1, Integer::sum);
+		}
+		int[] frequencies = counts.values().stream().mapToInt(Integer::intValue).toArray();
+		Arrays.sort(frequencies);
+		// With exponent 1 over 65536 ranks the most frequent value takes roughly 1/H(65536), about 8.5%
+		int top = frequencies[frequencies.length - 1];
+		assertTrue(top > 7000 && top < 10000);
+		assertTrue(frequencies[frequencies.length - 2] > top / 3);
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testGenerate_UnknownDistribution_ShouldThrowException() {
+		Distributions.generate("gaussian", 10, 7);
+	}
+}
@@ -0,0 +1,137 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class DynamicAlgorithmManagerTest {
+
+	@Test
+	public void testExtract_ShouldClassifyOrderAndDuplicates() {
+		ArrayDataStructure sorted = new ArrayDataStructure(5000);
+		ArrayDataStructure reversed = new ArrayDataStructure(5000);
+		ArrayDataStructure constant = new ArrayDataStructure(5000);
+		for (int i = 0; i < 5000; i++) {
+			sorted.add(i);
+			reversed.add(-i);
+			constant.add(7);
+		}
+		assertEquals("sorted", InputFeatures.extract(sorted).getOrderClass());
+		assertEquals("reversed", InputFeatures.extract(reversed).getOrderClass());
+		assertEquals("heavy-duplicates", InputFeatures.extract(constant).getDuplicateClass());
+		InputFeatures random = InputFeatures.extract(TestData.randomData(5000, 1));
+		assertEquals("random", random.getOrderClass());
+		assertEquals("unique", random.getDuplicateClass());
+		assertEquals("ArrayDataStructure|2^13|random|unique", random.getKey());
+	}
+
+	@Test
+	public void testSelectAlgorithm_WithHistory_ShouldPredictFastest() {
+		PerformanceTracker tracker = new PerformanceTracker();
+		DynamicAlgorithmManager manager = new DynamicAlgorithmManager(tracker, 0.0, new Random(2));
+		manager.addAlgorithms(new AlgorithmFactory());
+		ArrayDataStructure data = TestData.randomData(5000, 3);
+		String key = InputFeatures.extract(data).getKey();
+		tracker.recordRun(key, "Intro Sort", 5000, new AlgorithmPerformance(50000, 0, 0, 0, 1));
+		tracker.recordRun(key, "Bubble Sort", 5000, new AlgorithmPerformance(5000000, 0, 0, 0, 1));
+
+		SelectionDecision decision = manager.selectAlgorithm(data);
+		assertEquals("Intro Sort", decision.getAlgorithmName());
+		assertFalse(decision.isExploration());
+		assertEquals(50000, decision.getPredictedTime());
+	}
+
+	@Test
+	public void testSelectAlgorithm_OneLuckyRun_ShouldPickLowestMedian() {
+		PerformanceTracker tracker = new PerformanceTracker();
+		DynamicAlgorithmManager manager = new DynamicAlgorithmManager(tracker, 0.0, new Random(2));
+		manager.addAlgorithms(new AlgorithmFactory());
+		ArrayDataStructure data = TestData.randomData(5000, 3);
+		String key = InputFeatures.extract(data).getKey();
+		tracker.recordRun(key, "Heap Sort", 5000, new AlgorithmPerformance(1000, 0, 0, 0, 1));
+		for (int i = 0; i < 10; i++) {
+			tracker.recordRun(key, "Heap Sort", 5000, new AlgorithmPerformance(900000, 0, 0, 0, 1));
+			tracker.recordRun(key, "Intro Sort", 5000, new AlgorithmPerformance(200000, 0, 0, 0, 1));
+		}
+
+		SelectionDecision decision = manager.selectAlgorithm(data);
+		assertEquals("Intro Sort", decision.getAlgorithmName());
+		assertEquals(200000, decision.getPredictedTime(), 200000 / 50);
+	}
+
+	@Test
+	public void testSelectAlgorithm_SortedAndRandomOfOneSize_ShouldPickDifferentWinners() {
+		PerformanceTracker tracker = new PerformanceTracker();
+		DynamicAlgorithmManager manager = new DynamicAlgorithmManager(tracker, 0.0, new Random(2));
+		manager.addAlgorithms(new AlgorithmFactory());
+		ArrayDataStructure random = TestData.randomData(5000, 3);
+		ArrayDataStructure sorted = new ArrayDataStructure(5000);
+		for (int i = 0; i < 5000; i++) {
+			sorted.add(i);
+		}
+		String randomKey = InputFeatures.extract(random).getKey();
+		String sortedKey = InputFeatures.extract(sorted).getKey();
+		// Over the whole size bucket Intro Sort has the lower median, since most runs were on random input
+		for (int i = 0; i < 10; i++) {
+			tracker.recordRun(randomKey, "Natural Merge Sort", 5000, new AlgorithmPerformance(900000, 0, 0, 0, 1));
+			tracker.recordRun(randomKey, "Intro Sort", 5000, new AlgorithmPerformance(200000, 0, 0, 0, 1));
+		}
+		for (int i = 0; i < 3; i++) {
+			tracker.recordRun(sortedKey, "Natural Merge Sort", 5000, new AlgorithmPerformance(10000, 0, 0, 0, 1));
+			tracker.recordRun(sortedKey, "Intro Sort", 5000, new AlgorithmPerformance(150000, 0, 0, 0, 1));
+		}
+
+		assertEquals("Intro Sort", manager.selectAlgorithm(random).getAlgorithmName());
+		SelectionDecision decision = manager.selectAlgorithm(sorted);
+		assertEquals("Natural Merge Sort", decision.getAlgorithmName());
+		assertEquals(10000, decision.getPredictedTime(), 10000 / 50);
+		// A new kind of input falls back to the whole size bucket
+		ArrayDataStructure reversed = new ArrayDataStructure(5000);
+		for (int i = 0; i < 5000; i++) {
+			reversed.add(-i);
+		}
+		assertEquals("Intro Sort", manager.selectAlgorithm(reversed).getAlgorithmName());
+	}
+
+	@Test
+	public void testAutoSelectAndSort_SmallInputs_ShouldExploreAndRecordHistory() throws Exception {
+		PerformanceTracker tracker = new PerformanceTracker();
+		DynamicAlgorithmManager manager = new DynamicAlgorithmManager(tracker, 0.0, new Random(4));
+		manager.addAlgorithms(new AlgorithmFactory());
+		SelectionDecision first = manager.autoSelectAndSort(TestData.randomData(500, 5));
+		assertTrue(first.isExploration());
+		assertNotNull(tracker.getHistory(first.getFeatures().getKey(), first.getAlgorithmName()));
+
+		SelectionDecision second = manager.autoSelectAndSort(TestData.randomData(500, 6));
+		assertFalse(second.isExploration());
+		assertTrue(second.getPredictedTime() >= 0);
+	}
+
+	@Test
+	public void testExplorationCandidate_SmallInputs_ShouldSkipBubbleAndExternalSort() {
+		PerformanceTracker tracker = new PerformanceTracker();
+		DynamicAlgorithmManager manager = new DynamicAlgorithmManager(tracker, 1.0, new Random(9));
+		manager.addAlgorithms(new AlgorithmFactory());
+		InputFeatures features = InputFeatures.extract(TestData.randomData(500, 10));
+		assertFalse(manager.isWorthExploring(features, manager.getAlgorithm("Bubble Sort")));
+		assertFalse(manager.isWorthExploring(features, manager.getAlgorithm("External Sort")));
+		for (int i = 0; i < 200; i++) {
+			String name = manager.explorationCandidate(features).getName();
+			assertNotEquals("Bubble Sort", name);
+			assertNotEquals("External Sort", name);
+			tracker.recordRun(features.getKey(), name, 500, new AlgorithmPerformance(1000, 0, 0, 0, 1));
+		}
+	}
+
+	@Test
+	public void testSelectAlgorithm_LargeInputWithoutHistory_ShouldUseDefaultRule() {
+		DynamicAlgorithmManager manager = new DynamicAlgorithmManager(new PerformanceTracker(), 1.0, new Random(7));
+		manager.addAlgorithms(new AlgorithmFactory());
+		SelectionDecision decision = manager.selectAlgorithm(TestData.randomData(100000, 8));
+		assertEquals("ParallelMergeSort", decision.getAlgorithmName());
+		assertEquals(-1, decision.getPredictedTime());
+	}
+
+}
@@ -0,0 +1,172 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class ExecutionResourcesTest {
+
+	private static class ReverseProvider implements AlgorithmProvider {
+		@Override
+		public List<String> getNames() {
+			return Arrays.asList("ReverseSort", "quicksort");
+		}
+
+		@Override
+		public Algorithm create(String name, int parallelism, ExecutionResources resources) {
+			return new HeapSort() {
+				@Override
+				public String getName() {
+					return "Reverse Sort";
+				}
+			};
+		}
+	}
+
+	@Test
+	public void testForkJoinPool_SameOrLargerParallelism_ShouldShareCappedPool() {
+		ExecutionResources resources = new ExecutionResources(2);
+		try {
+			ForkJoinPool two = resources.forkJoinPool(2);
+			assertSame(two, resources.forkJoinPool(16));
+			assertEquals(2, two.getParallelism());
+			assertNotSame(two, resources.forkJoinPool(1));
+			assertEquals(1, resources.forkJoinPool(0).getParallelism());
+			assertEquals(2, resources.getPoolStats().size());
+		} finally {
+			resources.shutdown();
+		}
+	}
+
+	@Test
+	public void testFixedPool_RunningTasks_ShouldReportUtilisation() throws Exception {
+		ExecutionResources resources = new ExecutionResources(4);
+		CountDownLatch started = new CountDownLatch(2);
+		CountDownLatch release = new CountDownLatch(1);
+		ExecutorService pool = resources.fixedPool(2);
+		assertSame(pool, resources.fixedPool(2));
+		Runnable blocker = () -> {
+			started.countDown();
+			try {
+				release.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		};
+		Future<?> first = pool.submit(blocker);
+		Future<?> second = pool.submit(blocker);
+		pool.submit(blocker);
+		assertTrue(started.await(10, TimeUnit.SECONDS));
+		PoolStats stats = resources.getPoolStats().get(0);
+		assertEquals("fixed", stats.getKind());
+		assertEquals(2, stats.getActiveThreads());
+		assertEquals(1.0, stats.getUtilisation(), 1e-9);
+		assertEquals(1, stats.getQueuedTasks());
+		release.countDown();
+		first.get();
+		second.get();
+		resources.shutdown();
+		assertTrue(resources.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+	@Test(expected = ConcurrencyException.class)
+	public void testShutdown_LaterRequest_ShouldThrowException() {
+		ExecutionResources resources = new ExecutionResources(2);
+		ForkJoinPool pool = resources.forkJoinPool(2);
+		resources.shutdown();
+		assertTrue(pool.isShutdown());
+		resources.forkJoinPool(2);
+	}
+
+	@Test
+	public void testRegistry_RepeatedLookups_ShouldReturnCachedInstances() {
+		ExecutionResources resources = new ExecutionResources(4);
+		try {
+			AlgorithmRegistry registry = new AlgorithmRegistry(Collections.emptyList(), resources);
+			Algorithm merge = registry.get("ParallelMergeSort");
+			assertSame(merge, registry.get("parallelmergesort"));
+			assertSame(merge, registry.get("parallelmergesort", 8));
+			assertNotSame(merge, registry.get("parallelmergesort", 2));
+			assertEquals(2, registry.getCachedInstanceCount());
+			// Both merge sorts run on pools owned by the resources
+			assertEquals(2, resources.getPoolStats().size());
+			assertEquals(Arrays.asList(AlgorithmFactory.ALGORITHM_NAMES), registry.getNames());
+		} finally {
+			resources.shutdown();
+		}
+	}
+
+	@Test
+	public void testRegistry_ExtraProvider_ShouldAddNamesWithoutShadowingBuiltins() {
+		ExecutionResources resources = new ExecutionResources(2);
+		try {
+			AlgorithmRegistry registry = new AlgorithmRegistry(Collections.singletonList(new ReverseProvider()), resources);
+			AlgorithmFactory factory = new AlgorithmFactory(registry);
+			assertEquals("Reverse Sort", factory.getAlgorithm("reversesort").getName());
+			assertTrue(factory.getAlgorithm("quicksort") instanceof OptimizedQuickSort);
+			assertEquals(AlgorithmFactory.ALGORITHM_NAMES.length + 1, factory.getAllAlgorithms().size());
+		} finally {
+			resources.shutdown();
+		}
+	}
+
+	@Test
+	public void testFactory_DefaultConstructor_ShouldShareInstancesAcrossFactories() {
+		assertSame(new AlgorithmFactory().getAlgorithm("radixsort"), new AlgorithmFactory().getAlgorithm("RadixSort"));
+	}
+
+	@Test(expected = AlgorithmNotFoundException.class)
+	public void testRegistry_UnknownName_ShouldThrowException() {
+		new AlgorithmFactory().getAlgorithm("nosuchsort");
+	}
+
+	@Test
+	public void testSearchShutdown_SharedPool_ShouldStayAvailable() {
+		MultiThreadedSearch first = new MultiThreadedSearch(2, 16);
+		first.shutdown();
+		try {
+			first.search(new int[64], 0);
+			fail("A shut down search should not run");
+		} catch (ConcurrencyException expected) {
+			// Only the search stops
+		}
+		assertEquals(5, new MultiThreadedSearch(2, 16).search(new int[] {1, 2, 3, 4, 5, 6}, 6).getIndex());
+		assertFalse(ExecutionResources.getShared().forkJoinPool(2).isShutdown());
+	}
+
+	@Test
+	public void testFixedPool_DifferentPurposes_ShouldUseSeparatePools() {
+		ExecutionResources resources = new ExecutionResources(2);
+		try {
+			ExecutorService jobs = resources.fixedPool(2);
+			assertSame(jobs, resources.fixedPool(ExecutionResources.JOBS, 2));
+			assertNotSame(jobs, resources.fixedPool(ExecutionResources.IO, 2));
+			assertEquals(2, resources.getPoolStats().size());
+		} finally {
+			resources.shutdown();
+		}
+	}
+
+	@Test
+	public void testShutdownShared_HeldRegistry_ShouldRebuildInstancesOnNewPools() {
+		AlgorithmRegistry registry = AlgorithmRegistry.getShared();
+		Algorithm before = registry.get("parallelmergesort");
+		ExecutionResources.shutdownShared();
+		Algorithm after = registry.get("parallelmergesort");
+		assertNotSame(before, after);
+		assertSame(ExecutionResources.getShared(), registry.getResources());
+		ArrayDataStructure data = new ArrayDataStructure(4);
+		data.fromArray(new int[] {3, 1, 4, 2});
+		after.sort(data);
+		assertArrayEquals(new int[] {1, 2, 3, 4}, data.toArray());
+	}
+}
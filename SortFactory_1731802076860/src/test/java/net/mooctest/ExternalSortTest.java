@@ -0,0 +1,118 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.io.File;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class ExternalSortTest {
+
+	@Rule
+	public TemporaryFolder folder = new TemporaryFolder();
+
+	@Test
+	public void testFileDataStructure_ShouldPersistValues() throws Exception {
+		File file = folder.newFile("data.bin");
+		try (FileDataStructure data = new FileDataStructure(file.toPath())) {
+			data.fromArray(new int[] {3, 1, 2});
+			data.add(-4);
+			data.set(0, 9);
+			assertEquals(4, data.size());
+			assertEquals(-4, data.get(3));
+		}
+		try (FileDataStructure reopened = new FileDataStructure(file.toPath())) {
+			assertArrayEquals(new int[] {9, 1, 2, -4}, reopened.toArray());
+		}
+	}
+
+	@Test
+	public void testSort_SmallBudget_ShouldMergeInSeveralPasses() throws Exception {
+		int[] values = TestData.randomInts(200000, 1);
+		int[] expected = Arrays.copyOf(values, values.length);
+		Arrays.sort(expected);
+
+		File temp = folder.newFolder("runs");
+		try (FileDataStructure data = new FileDataStructure(folder.newFile("big.bin").toPath())) {
+			data.fromArray(values);
+			ExternalSort sort = new ExternalSort(32 * 1024, 2, temp.toPath());
+			AlgorithmPerformance performance = sort.evaluatePerformance(data);
+			assertArrayEquals(expected, data.toArray());
+			assertEquals(49, performance.getRunCount());
+			assertTrue(performance.getPasses() > 1);
+			assertTrue(performance.getIoBytes() >= 4L * values.length * Integer.BYTES);
+			assertEquals(0, temp.list().length);
+		}
+	}
+
+	@Test
+	public void testSort_OwnRunPool_ShouldGenerateRunsOnThatPool() throws Exception {
+		int[] values = TestData.randomInts(100000, 3);
+		int[] expected = Arrays.copyOf(values, values.length);
+		Arrays.sort(expected);
+		Set<String> runThreads = ConcurrentHashMap.newKeySet();
+		ExecutorService pool = Executors.newFixedThreadPool(3, task -> new Thread(() -> {
+			runThreads.add(Thread.currentThread().getName());
+			task.run();
+		}, "own-run-pool"));
+		try (OffHeapDataStructure data = new OffHeapDataStructure(12)) {
+			data.fromArray(values);
+			new ExternalSort(64 * 1024, 3, folder.getRoot().toPath(), pool).sort(data);
+			assertArrayEquals(expected, data.toArray());
+			assertEquals(Collections.singleton("own-run-pool"), runThreads);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testSort_SingleRunAndHeapData_ShouldSort() throws Exception {
+		int[] values = TestData.randomInts(5000, 2);
+		int[] expected = Arrays.copyOf(values, values.length);
+		Arrays.sort(expected);
+		try (FileDataStructure data = new FileDataStructure(folder.newFile("small.bin").toPath())) {
+			data.fromArray(values);
+			new ExternalSort().sort(data);
+			assertArrayEquals(expected, data.toArray());
+		}
+		ArrayDataStructure heap = TestData.arrayOf(values);
+		new ExternalSort().sort(heap);
+		assertArrayEquals(expected, heap.toArray());
+	}
+
+	@Test
+	public void testLoserTree_ShouldMergeSortedSources() {
+		int[][] sources = {{1, 4, 9}, {}, {2, 2, 10}, {0}};
+		int[] positions = new int[sources.length];
+		LoserTree tree = new LoserTree(sources.length);
+		for (int i = 0; i < sources.length; i++) {
+			if (sources[i].length > 0) {
+				tree.setKey(i, sources[i][positions[i]++]);
+			} else {
+				tree.setExhausted(i);
+			}
+		}
+		tree.build();
+		int[] merged = new int[7];
+		int count = 0;
+		while (!tree.isDone()) {
+			int winner = tree.winner();
+			merged[count++] = tree.winnerKey();
+			if (positions[winner] < sources[winner].length) {
+				tree.replaceWinner(sources[winner][positions[winner]++]);
+			} else {
+				tree.exhaustWinner();
+			}
+		}
+		assertArrayEquals(new int[] {0, 1, 2, 2, 4, 9, 10}, merged);
+	}
+
+}
@@ -0,0 +1,97 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.PriorityQueue;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class HeapSortTest {
+
+	@Test
+	public void testSort_VariousSizes_ShouldMatchArraysSort() {
+		Random random = new Random(37);
+		HeapSort heapSort = new HeapSort();
+		for (int n : new int[] {0, 1, 2, 5, 17, 1000, 100003}) {
+			int[] input = new int[n];
+			for (int i = 0; i < n; i++) {
+				input[i] = random.nextInt(n + 1) - n / 2;
+			}
+			ArrayDataStructure data = new ArrayDataStructure(n);
+			data.fromArray(input);
+			heapSort.sort(data);
+			int[] expected = Arrays.copyOf(input, n);
+			Arrays.sort(expected);
+			assertArrayEquals(expected, data.toArray());
+		}
+	}
+
+	@Test
+	public void testIntHeap_MixedOperations_ShouldMatchPriorityQueue() {
+		Random random = new Random(370);
+		IntHeap heap = new IntHeap(true);
+		PriorityQueue<Integer> reference = new PriorityQueue<>((a, b) -> Integer.compare(b, a));
+		for (int step = 0; step < 50000; step++) {
+			int operation = random.nextInt(3);
+			if (operation == 0 || reference.isEmpty()) {
+				int value = random.nextInt(1000);
+				heap.push(value);
+				reference.add(value);
+			} else if (operation == 1) {
+				assertEquals(reference.poll().intValue(), heap.poll());
+			} else {
+				int value = random.nextInt(1000);
+				assertEquals(reference.poll().intValue(), heap.replaceTop(value));
+				reference.add(value);
+			}
+			assertEquals(reference.size(), heap.size());
+		}
+	}
+
+	@Test
+	public void testHeapDataStructure_SetAndHeapify_ShouldKeepHeapOrder() {
+		HeapDataStructure data = new HeapDataStructure();
+		data.fromArray(new int[] {9, 4, 7, 1, 8, 2, 6});
+		assertEquals(1, data.get(0));
+		data.set(0, 10);
+		assertEquals(2, data.peek());
+		data.set(data.size() - 1, -1);
+		assertEquals(-1, data.get(data.size() - 1));
+		assertEquals(-1, data.peek());
+		assertEquals(-1, data.get(0));
+		int[] drained = new int[data.size()];
+		for (int i = 0; i < drained.length; i++) {
+			drained[i] = data.poll();
+		}
+		assertEquals(0, data.size());
+		assertEquals(-1, drained[0]);
+		for (int i = 1; i < drained.length; i++) {
+			assertTrue(drained[i - 1] <= drained[i]);
+		}
+	}
+
+	@Test
+	public void testSort_InPlaceAlgorithmsOnHeapDataStructure_ShouldKeepMultiset() {
+		int[] values = TestData.randomInts(200, 3, 50);
+		int[] expected = values.clone();
+		Arrays.sort(expected);
+		for (String name : new String[] {"parallelmergesort", "quicksort"}) {
+			HeapDataStructure data = new HeapDataStructure();
+			data.fromArray(values);
+			new AlgorithmFactory().getAlgorithm(name).sort(data);
+			assertArrayEquals(name, expected, data.toArray());
+			int[] drained = new int[data.size()];
+			for (int i = 0; i < drained.length; i++) {
+				drained[i] = data.poll();
+			}
+			assertArrayEquals(name, expected, drained);
+		}
+	}
+
+	@Test
+	public void testFactory_HeapSort_ShouldBeRegistered() {
+		assertEquals("Heap Sort", new AlgorithmFactory().getAlgorithm("heapsort").getName());
+	}
+}
@@ -0,0 +1,76 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntIntHashMapTest {
+
+	@Test
+	public void testPutAndGet_RandomOperations_ShouldMatchHashMap() {
+		Random random = new Random(35);
+		IntIntHashMap map = new IntIntHashMap();
+		Map<Integer, Integer> reference = new HashMap<>();
+		for (int i = 0; i < 200000; i++) {
+			int key = random.nextInt(50000) - 25000;
+			int value = random.nextInt();
+			if (random.nextBoolean()) {
+				map.put(key, value);
+				reference.put(key, value);
+			} else {
+				assertEquals(reference.containsKey(key) ? reference.get(key) : value, map.putIfAbsent(key, value));
+				reference.putIfAbsent(key, value);
+			}
+		}
+		assertEquals(reference.size(), map.size());
+		for (int key = -25000; key < 25000; key++) {
+			assertEquals(reference.containsKey(key), map.containsKey(key));
+			assertEquals(reference.getOrDefault(key, -1).intValue(), map.get(key, -1));
+		}
+	}
+
+	@Test
+	public void testZeroKey_ShouldBeStoredLikeAnyOtherKey() {
+		IntIntHashMap map = new IntIntHashMap();
+		assertFalse(map.containsKey(0));
+		assertEquals(7, map.get(0, 7));
+		map.put(0, 3);
+		assertTrue(map.containsKey(0));
+		assertEquals(3, map.get(0, 7));
+		assertEquals(1, map.size());
+		map.clear();
+		assertEquals(0, map.size());
+		assertFalse(map.containsKey(0));
+	}
+
+	@Test
+	public void testIndexOf_DuplicateValues_ShouldKeepFirstIndex() {
+		IntIntHashMap index = IntIntHashMap.indexOf(new int[] {5, 0, 5, -3, 0});
+		assertEquals(0, index.get(5, -1));
+		assertEquals(1, index.get(0, -1));
+		assertEquals(3, index.get(-3, -1));
+		assertEquals(-1, index.get(4, -1));
+		assertEquals(3, index.size());
+	}
+
+	@Test
+	public void testHashTableDataStructure_ShouldKeepIndexOrder() {
+		HashTableDataStructure data = new HashTableDataStructure();
+		data.fromArray(new int[] {9, 4, 7});
+		data.add(1);
+		data.set(0, 2);
+		assertArrayEquals(new int[] {2, 4, 7, 1}, data.toArray());
+		assertEquals(4, data.size());
+	}
+
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void testHashTableDataStructure_SetPastSize_ShouldThrowException() {
+		HashTableDataStructure data = new HashTableDataStructure();
+		data.fromArray(new int[] {1, 2});
+		data.set(5, 3);
+	}
+}
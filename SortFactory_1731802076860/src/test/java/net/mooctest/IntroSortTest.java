@@ -0,0 +1,92 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class IntroSortTest {
+
+	private static final String[] DISTRIBUTIONS = {
+			"random", "sorted", "reversed", "equal", "fewUnique", "organPipe", "sawtooth", "medianOfThreeKiller"
+	};
+
+	private int[] generate(String distribution, int n) {
+		Random random = new Random(n);
+		int[] input = new int[n];
+		for (int i = 0; i < n; i++) {
+			switch (distribution) {
+				case "random":
+					input[i] = random.nextInt();
+					break;
+				case "sorted":
+					input[i] = i;
+					break;
+				case "reversed":
+					input[i] = n - i;
+					break;
+				case "equal":
+					input[i] = 42;
+					break;
+				case "fewUnique":
+					input[i] = random.nextInt(3);
+					break;
+				case "organPipe":
+					input[i] = i < n / 2 ? i : n - i;
+					break;
+				case "sawtooth":
+					input[i] = i % 64;
+					break;
+				default:
+					// Classic killer for median-of-three pivot selection
+					input[i] = (i % 2 == 0) ? i : n / 2 + i;
+					break;
+			}
+		}
+		return input;
+	}
+
+	private long sortAndCountComparisons(int[] input) {
+		int[] expected = Arrays.copyOf(input, input.length);
+		Arrays.sort(expected);
+		ArrayDataStructure data = TestData.arrayOf(input);
+		AlgorithmPerformance performance = new IntroSort().evaluatePerformance(data);
+		assertArrayEquals(expected, data.toArray());
+		return performance.getComparisons();
+	}
+
+	@Test
+	public void testSort_AdversarialDistributions_ShouldStayWithinNLogN() {
+		for (String distribution : DISTRIBUTIONS) {
+			for (int n : new int[] {1 << 12, 1 << 17}) {
+				long comparisons = sortAndCountComparisons(generate(distribution, n));
+				double bound = 3.0 * n * (Math.log(n) / Math.log(2));
+				assertTrue(distribution + " n=" + n + " comparisons=" + comparisons, comparisons <= bound);
+			}
+		}
+	}
+
+	@Test
+	public void testSort_LargeSortedInput_ShouldNotOverflowStack() {
+		sortAndCountComparisons(generate("sorted", 3000000));
+	}
+
+	@Test
+	public void testIntroSort_ZeroDepthLimit_ShouldFallBackToHeapSort() {
+		int[] input = generate("random", 10000);
+		int[] expected = Arrays.copyOf(input, input.length);
+		Arrays.sort(expected);
+		new IntroSort().introSort(input, 0, input.length - 1, 0, SortMetrics.DISABLED);
+		assertArrayEquals(expected, input);
+	}
+
+	@Test
+	public void testSort_SmallInputs_ShouldSort() {
+		sortAndCountComparisons(new int[0]);
+		sortAndCountComparisons(new int[] {1});
+		sortAndCountComparisons(new int[] {2, 1, 3, -5, 2});
+	}
+
+}
@@ -0,0 +1,129 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class KWayMergeTest {
+
+	private int[][] sortedSources(int k, int maxLength, int bound, long seed) {
+		Random random = new Random(seed);
+		int[][] sources = new int[k][];
+		for (int s = 0; s < k; s++) {
+			sources[s] = new int[random.nextInt(maxLength + 1)];
+			for (int i = 0; i < sources[s].length; i++) {
+				sources[s][i] = bound > 0 ? random.nextInt(bound) : random.nextInt();
+			}
+			Arrays.sort(sources[s]);
+		}
+		return sources;
+	}
+
+	private int[] concatSorted(int[][] sources) {
+		int[] all = new int[0];
+		for (int[] source : sources) {
+			int[] next = Arrays.copyOf(all, all.length + source.length);
+			System.arraycopy(source, 0, next, all.length, source.length);
+			all = next;
+		}
+		Arrays.sort(all);
+		return all;
+	}
+
+	@Test
+	public void testMerge_FewAndManySources_ShouldMatchSortedConcatenation() {
+		KWayMerge merger = new KWayMerge(new ForkJoinPool(1));
+		for (int k : new int[] {0, 1, 2, 3, 17, 300}) {
+			int[][] sources = sortedSources(k, 200, 0, k);
+			assertArrayEquals(concatSorted(sources), merger.merge(sources));
+		}
+	}
+
+	@Test
+	public void testMerge_ParallelSlices_ShouldMatchSequential() {
+		KWayMerge merger = new KWayMerge(new ForkJoinPool(4));
+		for (int bound : new int[] {0, 10}) {
+			int[][] sources = sortedSources(64, 20000, bound, bound);
+			int[] expected = KWayMerge.mergeSequential(sources);
+			assertArrayEquals(concatSorted(sources), expected);
+			assertArrayEquals(expected, merger.merge(sources));
+		}
+	}
+
+	@Test
+	public void testMerge_ParallelTwoSourcesAllEqual_ShouldSplitTies() {
+		int[] a = new int[100000];
+		int[] b = new int[50000];
+		Arrays.fill(a, 7);
+		Arrays.fill(b, 7);
+		int[] expected = new int[150000];
+		Arrays.fill(expected, 7);
+		assertArrayEquals(expected, new KWayMerge(new ForkJoinPool(4)).merge(a, b));
+	}
+
+	@Test
+	public void testCoRank_Ties_ShouldFavourLowerSourceIndex() {
+		int[][] sources = {{1, 5, 5, 9}, {5, 5}, {0, 5, 10}};
+		assertArrayEquals(new int[] {0, 0, 1}, KWayMerge.coRank(sources, 1));
+		assertArrayEquals(new int[] {1, 0, 1}, KWayMerge.coRank(sources, 2));
+		assertArrayEquals(new int[] {3, 0, 1}, KWayMerge.coRank(sources, 4));
+		assertArrayEquals(new int[] {3, 2, 1}, KWayMerge.coRank(sources, 6));
+		assertArrayEquals(new int[] {3, 2, 2}, KWayMerge.coRank(sources, 7));
+		assertArrayEquals(new int[] {4, 2, 3}, KWayMerge.coRank(sources, 9));
+	}
+
+	@Test
+	public void testCoRank_EveryRank_ShouldSplitIntoPrefixes() {
+		int[][] sources = sortedSources(5, 40, 8, 9);
+		int[] merged = KWayMerge.mergeSequential(sources);
+		for (int rank = 0; rank <= merged.length; rank++) {
+			int[] split = KWayMerge.coRank(sources, rank);
+			int taken = 0;
+			for (int s = 0; s < sources.length; s++) {
+				taken += split[s];
+				for (int i = 0; i < split[s]; i++) {
+					assertTrue(rank > 0 && sources[s][i] <= merged[rank - 1]);
+				}
+				for (int i = split[s]; i < sources[s].length; i++) {
+					assertTrue(rank == merged.length || sources[s][i] >= merged[rank]);
+				}
+			}
+			assertEquals(rank, taken);
+		}
+	}
+
+	@Test
+	public void testMerge_DataStructures_ShouldMergeIntoTarget() {
+		List<DataStructure> sources = new ArrayList<>();
+		ArrayDataStructure array = new ArrayDataStructure(3);
+		array.fromArray(new int[] {1, 4, 9});
+		sources.add(array);
+		BSTDataStructure tree = new BSTDataStructure();
+		tree.fromArray(new int[] {2, 3, 10});
+		sources.add(tree);
+		LsmDataStructure lsm = new LsmDataStructure(2, null);
+		for (int value : new int[] {8, 0, 5}) {
+			lsm.add(value);
+		}
+		sources.add(lsm);
+		ArrayDataStructure target = new ArrayDataStructure(0);
+		new AlgorithmManager().mergeSortedData(sources, target);
+		assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5, 8, 9, 10}, target.toArray());
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testMerge_UnsortedSource_ShouldThrow() {
+		new KWayMerge(new ForkJoinPool(1)).merge(new int[] {1, 2}, new int[] {3, 1});
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testCoRank_RankPastTotal_ShouldThrow() {
+		KWayMerge.coRank(new int[][] {{1, 2}}, 3);
+	}
+}
@@ -0,0 +1,127 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class KeyPayloadSortTest {
+
+	private long[] randomKeys(int n, long bound, long seed) {
+		Random random = new Random(seed);
+		long[] keys = new long[n];
+		for (int i = 0; i < n; i++) {
+			keys[i] = bound > 0 ? random.nextLong() % bound : random.nextLong();
+		}
+		return keys;
+	}
+
+	// Reference stable order: indices sorted by key with ties in input order
+	private Integer[] stableOrder(long[] keys) {
+		Integer[] order = new Integer[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			order[i] = i;
+		}
+		Arrays.sort(order, Comparator.comparingLong(i -> keys[i]));
+		return order;
+	}
+
+	private void assertStableSort(long[] original, long[] keys, int[] payloads) {
+		Integer[] expected = stableOrder(original);
+		for (int i = 0; i < original.length; i++) {
+			assertEquals(original[expected[i]], keys[i]);
+			assertEquals(expected[i].intValue(), payloads[i]);
+		}
+	}
+
+	private void checkSort(KeyPayloadSort sorter, long[] original) {
+		long[] keys = original.clone();
+		int[] payloads = new int[keys.length];
+		for (int i = 0; i < payloads.length; i++) {
+			payloads[i] = i;
+		}
+		sorter.sort(keys, payloads);
+		assertStableSort(original, keys, payloads);
+	}
+
+	@Test
+	public void testSort_SmallAndLargeInputs_ShouldBeStable() {
+		KeyPayloadSort sorter = new KeyPayloadSort();
+		for (int n : new int[] {0, 1, 20, 500, 5000, 100000}) {
+			checkSort(sorter, randomKeys(n, 0, n));
+			checkSort(sorter, randomKeys(n, 50, n + 1));
+		}
+	}
+
+	@Test
+	public void testSort_ParallelChunks_ShouldBeStable() {
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			KeyPayloadSort sorter = new KeyPayloadSort(pool);
+			checkSort(sorter, randomKeys(300000, 0, 1));
+			checkSort(sorter, randomKeys(300000, 1000, 2));
+			// Keys spread over the high digits only
+			long[] high = randomKeys(200000, 64, 3);
+			for (int i = 0; i < high.length; i++) {
+				high[i] <<= 56;
+			}
+			checkSort(sorter, high);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testSort_ExtremeKeys_ShouldOrderSigned() {
+		long[] keys = {Long.MAX_VALUE, 0, Long.MIN_VALUE, -1, 1, Long.MIN_VALUE, Long.MAX_VALUE};
+		long[] large = new long[4000];
+		for (int i = 0; i < large.length; i++) {
+			large[i] = keys[i % keys.length];
+		}
+		checkSort(new KeyPayloadSort(), keys);
+		checkSort(new KeyPayloadSort(), large);
+	}
+
+	@Test
+	public void testSort_IntKeys_ShouldMovePayloadsAndRestoreKeys() {
+		Random random = new Random(4);
+		int[] keys = new int[50000];
+		long[] wide = new long[keys.length];
+		int[] payloads = new int[keys.length];
+		for (int i = 0; i < keys.length; i++) {
+			keys[i] = random.nextInt(2000) - 1000;
+			wide[i] = keys[i];
+			payloads[i] = i;
+		}
+		new KeyPayloadSort().sort(keys, payloads);
+		Integer[] expected = stableOrder(wide);
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(wide[expected[i]], keys[i]);
+			assertEquals(expected[i].intValue(), payloads[i]);
+		}
+	}
+
+	@Test
+	public void testArgsort_LongAndIntKeys_ShouldReturnStablePermutationWithoutMovingKeys() {
+		long[] keys = randomKeys(20000, 100, 5);
+		long[] copy = keys.clone();
+		int[] order = new KeyPayloadSort().argsort(keys);
+		assertArrayEquals(copy, keys);
+		Integer[] expected = stableOrder(keys);
+		for (int i = 0; i < keys.length; i++) {
+			assertEquals(expected[i].intValue(), order[i]);
+		}
+
+		int[] intKeys = {3, Integer.MIN_VALUE, 3, -7, Integer.MAX_VALUE, 0};
+		assertArrayEquals(new int[] {1, 3, 5, 0, 2, 4}, new KeyPayloadSort().argsort(intKeys));
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testSort_MismatchedLengths_ShouldThrowException() {
+		new KeyPayloadSort().sort(new long[3], new int[2]);
+	}
+}
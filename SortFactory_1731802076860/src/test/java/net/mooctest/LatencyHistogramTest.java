@@ -0,0 +1,92 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+	@Test
+	public void testIndexOf_AllMagnitudes_ShouldBracketValueWithinThreePercent() {
+		Random random = new Random(46);
+		for (int i = 0; i < 100000; i++) {
+			long value = random.nextLong() >>> (1 + random.nextInt(63));
+			int index = LatencyHistogram.indexOf(value);
+			assertTrue(LatencyHistogram.lowestValueAt(index) <= value);
+			assertTrue(LatencyHistogram.highestValueAt(index) >= value);
+			double width = LatencyHistogram.highestValueAt(index) - LatencyHistogram.lowestValueAt(index);
+			assertTrue(width <= Math.max(0, value * 0.0313));
+		}
+		assertEquals(63, LatencyHistogram.indexOf(63));
+		assertEquals(LatencyHistogram.indexOf(64), LatencyHistogram.indexOf(65));
+		assertTrue(LatencyHistogram.indexOf(Long.MAX_VALUE) > LatencyHistogram.indexOf(Long.MAX_VALUE / 2));
+	}
+
+	@Test
+	public void testPercentiles_KnownValues_ShouldMatchNearestRankWithinPrecision() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		long[] values = new long[10000];
+		Random random = new Random(47);
+		for (int i = 0; i < values.length; i++) {
+			values[i] = 1000 + random.nextInt(10000000);
+			histogram.record(values[i]);
+		}
+		Arrays.sort(values);
+		for (double percent : new double[] {1, 50, 90, 99, 99.9, 100}) {
+			long exact = PerformanceMeter.percentile(values, percent);
+			long estimate = histogram.getValueAtPercentile(percent);
+			assertEquals(exact, estimate, exact * 0.032);
+		}
+		assertEquals(values.length, histogram.getCount());
+		assertEquals(values[0], histogram.getMin());
+		assertEquals(values[values.length - 1], histogram.getMax());
+		assertEquals(values[values.length - 1], histogram.getValueAtPercentile(100));
+		assertEquals(-1, new LatencyHistogram().getValueAtPercentile(50));
+	}
+
+	@Test
+	public void testIntervalSnapshot_SuccessiveCalls_ShouldReportOnlyNewRecordings() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int i = 0; i < 100; i++) {
+			histogram.record(10);
+		}
+		LatencyHistogram first = histogram.intervalSnapshot();
+		assertEquals(100, first.getCount());
+		assertEquals(10.0, first.getMean(), 1e-9);
+		for (int i = 0; i < 50; i++) {
+			histogram.record(100000);
+		}
+		LatencyHistogram second = histogram.intervalSnapshot();
+		assertEquals(50, second.getCount());
+		assertEquals(100000, second.getValueAtPercentile(50), 100000 * 0.032);
+		assertEquals(100000.0, second.getMean(), 1e-9);
+		assertEquals(0, histogram.intervalSnapshot().getCount());
+		assertEquals(150, histogram.getCount());
+	}
+
+	@Test
+	public void testRecord_ConcurrentThreads_ShouldCountEveryValue() throws Exception {
+		LatencyHistogram histogram = new LatencyHistogram();
+		ExecutorService pool = Executors.newFixedThreadPool(4);
+		for (int t = 0; t < 4; t++) {
+			int thread = t;
+			pool.submit(() -> {
+				for (int i = 0; i < 25000; i++) {
+					histogram.record(thread * 1000 + i % 1000);
+				}
+			});
+		}
+		pool.shutdown();
+		assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(100000, histogram.getCount());
+		assertEquals(0, histogram.getMin());
+		assertEquals(3999, histogram.getMax());
+		assertEquals(1999.5, histogram.getMean(), 1e-9);
+	}
+}
@@ -0,0 +1,86 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class LinkedListDataStructureTest {
+
+	@Test(timeout = 10000)
+	public void testAddAndGet_MillionElements_ShouldBeFast() {
+		LinkedListDataStructure list = new LinkedListDataStructure();
+		for (int i = 0; i < 1000000; i++) {
+			list.add(i);
+		}
+		long sum = 0;
+		for (int i = 0; i < list.size(); i++) {
+			sum += list.get(i);
+		}
+		assertEquals(999999L * 1000000 / 2, sum);
+		assertEquals(123456, list.get(123456));
+		assertEquals(999999, list.get(999999));
+	}
+
+	@Test(timeout = 20000)
+	public void testSort_IndexBasedAlgorithms_ShouldSortList() throws Exception {
+		int[] values = TestData.randomInts(200000, 200000);
+		int[] expected = Arrays.copyOf(values, values.length);
+		Arrays.sort(expected);
+
+		LinkedListDataStructure list = new LinkedListDataStructure();
+		list.fromArray(values);
+		new QuickSort().sort(list);
+		assertArrayEquals(expected, list.toArray());
+
+		list.fromArray(values);
+		new ParallelMergeSort(4).sort(list);
+		assertArrayEquals(expected, list.toArray());
+	}
+
+	@Test
+	public void testCursor_ForwardAndBackward_ShouldVisitAndUpdateElements() {
+		LinkedListDataStructure list = new LinkedListDataStructure();
+		LinkedListDataStructure.Cursor empty = list.cursor(0);
+		for (int i = 0; i < 200; i++) {
+			list.add(i);
+		}
+		assertEquals(0, empty.next());
+
+		LinkedListDataStructure.Cursor cursor = list.cursor(60);
+		for (int i = 60; i < 200; i++) {
+			assertEquals(i, cursor.nextIndex());
+			cursor.set(cursor.next() * 2);
+		}
+		assertFalse(cursor.hasNext());
+		for (int i = 199; i >= 60; i--) {
+			assertEquals(i * 2, cursor.previous());
+		}
+		assertEquals(59, cursor.previous());
+		assertEquals(120, list.get(60));
+		assertEquals(398, list.get(199));
+	}
+
+	@Test
+	public void testReadAndWrite_RangesAcrossNodes_ShouldCopyBlocks() {
+		LinkedListDataStructure list = new LinkedListDataStructure();
+		list.fromArray(TestData.randomInts(1000, 1000));
+		int[] block = new int[300];
+		Arrays.fill(block, 7);
+		list.write(50, block, 0, 300);
+		int[] copy = new int[302];
+		list.read(49, copy, 0, 302);
+		for (int i = 1; i <= 300; i++) {
+			assertEquals(7, copy[i]);
+		}
+		assertNotEquals(7, list.get(350));
+	}
+
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void testGet_InvalidIndex_ShouldThrowException() {
+		LinkedListDataStructure list = new LinkedListDataStructure();
+		list.add(1);
+		list.get(1);
+	}
+}
@@ -0,0 +1,206 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class LsmDataStructureTest {
+
+	private int[] fill(LsmDataStructure lsm, int n, int bound, long seed) {
+		Random random = new Random(seed);
+		int[] values = new int[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = bound > 0 ? random.nextInt(bound) : random.nextInt();
+			lsm.add(values[i]);
+		}
+		Arrays.sort(values);
+		return values;
+	}
+
+	@Test
+	public void testAdd_InlineCompaction_ShouldKeepRunSizesGeometric() {
+		LsmDataStructure lsm = new LsmDataStructure(16, null);
+		int[] expected = fill(lsm, 100000, 0, 1);
+		assertEquals(expected.length, lsm.size());
+		assertArrayEquals(expected, lsm.toArray());
+		int[] sizes = lsm.getRunSizes();
+		for (int i = 1; i < sizes.length; i++) {
+			assertTrue(Arrays.toString(sizes), sizes[i - 1] >= 2 * sizes[i]);
+		}
+		assertTrue(lsm.getRunCount() <= 14);
+		// Every element is merged at most once per level above the buffer
+		assertTrue(lsm.getMergedElements() <= 100000L * 13);
+	}
+
+	@Test
+	public void testGet_RunsAndUnsortedBuffer_ShouldReturnRank() {
+		LsmDataStructure lsm = new LsmDataStructure(8, null);
+		int[] expected = fill(lsm, 1003, 50, 2);
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], lsm.get(i));
+		}
+		lsm.add(-5);
+		assertEquals(-5, lsm.get(0));
+	}
+
+	@Test
+	public void testGet_ExtremeValues_ShouldNotOverflow() {
+		LsmDataStructure lsm = new LsmDataStructure(2, null);
+		for (int value : new int[] {Integer.MAX_VALUE, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, Integer.MIN_VALUE}) {
+			lsm.add(value);
+		}
+		assertArrayEquals(new int[] {Integer.MIN_VALUE, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, Integer.MAX_VALUE},
+				new int[] {lsm.get(0), lsm.get(1), lsm.get(2), lsm.get(3), lsm.get(4)});
+	}
+
+	@Test(expected = ArrayIndexOutOfBoundsException.class)
+	public void testGet_IndexPastSize_ShouldThrow() {
+		LsmDataStructure lsm = new LsmDataStructure(4, null);
+		lsm.add(1);
+		lsm.get(1);
+	}
+
+	@Test
+	public void testLowerBoundAndIndexOf_Duplicates_ShouldCountAcrossRuns() {
+		LsmDataStructure lsm = new LsmDataStructure(4, null);
+		for (int value : new int[] {5, 3, 5, 5, 1, 3, 9, 5, 7}) {
+			lsm.add(value);
+		}
+		assertEquals(0, lsm.lowerBound(0));
+		assertEquals(1, lsm.lowerBound(3));
+		assertEquals(3, lsm.lowerBound(5));
+		assertEquals(7, lsm.lowerBound(6));
+		assertEquals(9, lsm.lowerBound(10));
+		assertEquals(3, lsm.indexOf(5));
+		assertEquals(-1, lsm.indexOf(4));
+		assertTrue(lsm.contains(9));
+		assertFalse(lsm.contains(2));
+	}
+
+	@Test
+	public void testIterator_Snapshot_ShouldIterateInOrder() {
+		LsmDataStructure lsm = new LsmDataStructure(32, null);
+		int[] expected = fill(lsm, 5000, 1000, 3);
+		PrimitiveIterator.OfInt values = lsm.iterator();
+		lsm.add(-1);
+		for (int value : expected) {
+			assertTrue(values.hasNext());
+			assertEquals(value, values.nextInt());
+		}
+		assertFalse(values.hasNext());
+		try {
+			values.nextInt();
+			fail();
+		} catch (NoSuchElementException expectedException) {
+			// Exhausted
+		}
+	}
+
+	@Test
+	public void testRead_Range_ShouldCopySortedSlice() {
+		LsmDataStructure lsm = new LsmDataStructure(16, null);
+		int[] expected = fill(lsm, 1000, 0, 4);
+		int[] target = new int[100];
+		lsm.read(450, target, 0, 100);
+		assertArrayEquals(Arrays.copyOfRange(expected, 450, 550), target);
+		lsm.compact();
+		lsm.read(900, target, 0, 100);
+		assertArrayEquals(Arrays.copyOfRange(expected, 900, 1000), target);
+	}
+
+	@Test
+	public void testCompact_BackgroundCompactor_ShouldLeaveOneSortedRun() throws Exception {
+		ExecutorService compactor = Executors.newSingleThreadExecutor();
+		try {
+			LsmDataStructure lsm = new LsmDataStructure(64, compactor);
+			int[] expected = fill(lsm, 200000, 0, 5);
+			for (int i = 0; i < expected.length; i += 997) {
+				assertEquals(expected[i], lsm.get(i));
+			}
+			lsm.compact();
+			assertEquals(1, lsm.getRunCount());
+			assertArrayEquals(expected, lsm.toArray());
+		} finally {
+			compactor.shutdown();
+			assertTrue(compactor.awaitTermination(10, TimeUnit.SECONDS));
+		}
+	}
+
+	@Test
+	public void testFromArray_ThenAdd_ShouldReplaceContents() {
+		LsmDataStructure lsm = new LsmDataStructure(4, null);
+		fill(lsm, 100, 0, 6);
+		lsm.fromArray(new int[] {3, 1, 2});
+		lsm.add(0);
+		assertEquals(4, lsm.size());
+		assertArrayEquals(new int[] {0, 1, 2, 3}, lsm.toArray());
+	}
+
+	@Test
+	public void testSort_IntroSort_ShouldWorkThroughFromArray() {
+		LsmDataStructure lsm = new LsmDataStructure(4, null);
+		int[] expected = fill(lsm, 500, 0, 7);
+		new IntroSort().sort(lsm);
+		assertArrayEquals(expected, lsm.toArray());
+	}
+
+	@Test
+	public void testSet_ThenSortedOperation_ShouldActPositionallyThenResort() {
+		LsmDataStructure lsm = new LsmDataStructure(4, null);
+		for (int value : new int[] {5, 1, 4, 2, 3}) {
+			lsm.add(value);
+		}
+		lsm.set(0, 9);
+		assertEquals(9, lsm.get(0));
+		assertEquals(2, lsm.get(1));
+		assertArrayEquals(new int[] {9, 2, 3, 4, 5}, lsm.toArray());
+		assertEquals(1, lsm.lowerBound(3));
+		assertArrayEquals(new int[] {2, 3, 4, 5, 9}, lsm.toArray());
+		lsm.set(4, 0);
+		lsm.add(1);
+		assertArrayEquals(new int[] {0, 1, 2, 3, 4, 5}, lsm.toArray());
+	}
+
+	@Test
+	public void testSort_InPlaceFactoryAlgorithms_ShouldSortThroughSet() {
+		for (String name : new String[] {"quicksort", "parallelmergesort", "heapsort", "bubblesort"}) {
+			LsmDataStructure lsm = new LsmDataStructure(8, null);
+			int[] expected = fill(lsm, 300, 100, 8);
+			new AlgorithmFactory().getAlgorithm(name).sort(lsm);
+			assertArrayEquals(name, expected, lsm.toArray());
+			assertEquals(expected.length, lsm.size());
+		}
+	}
+
+	@Test
+	public void testRead_ManyRunsBlockwise_ShouldMatchSortedOrder() {
+		LsmDataStructure lsm = new LsmDataStructure(64, null);
+		int[] expected = fill(lsm, 300007, 0, 9);
+		assertTrue(lsm.getRunCount() > 3);
+		int[] block = new int[4096];
+		for (int from = 0; from < expected.length; from += block.length) {
+			int count = Math.min(block.length, expected.length - from);
+			lsm.read(from, block, 0, count);
+			for (int i = 0; i < count; i++) {
+				assertEquals(expected[from + i], block[i]);
+			}
+		}
+		int[] largest = TopK.largest(lsm, 10);
+		for (int i = 0; i < largest.length; i++) {
+			assertEquals(expected[expected.length - 1 - i], largest[i]);
+		}
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testConstructor_ZeroBuffer_ShouldThrow() {
+		new LsmDataStructure(0, null);
+	}
+}
@@ -0,0 +1,68 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+public class MultiThreadedSearchTest {
+
+	@Test
+	public void testParallelSearch_FewerElementsThanThreads_ShouldNotFail() throws Exception {
+		MultiThreadedSearch search = new MultiThreadedSearch(8);
+		assertEquals(1, search.parallelSearch(new int[] {5, 7}, 7));
+		assertEquals(-1, search.parallelSearch(new int[0], 7));
+		search.shutdown();
+	}
+
+	@Test
+	public void testSearch_DuplicateTargets_ShouldReturnLowestIndex() {
+		int[] data = new int[100000];
+		data[3000] = 42;
+		data[50000] = 42;
+		data[99999] = 42;
+		MultiThreadedSearch search = new MultiThreadedSearch(4, 1024);
+		SearchResult result = search.search(data, 42);
+		assertEquals(3000, result.getIndex());
+		assertTrue(result.getTimeToFirstHit() >= 0);
+		search.shutdown();
+	}
+
+	@Test
+	public void testSearch_EarlyHit_ShouldSkipLaterChunks() {
+		int[] data = new int[1 << 20];
+		data[10] = 1;
+		MultiThreadedSearch search = new MultiThreadedSearch(2, 1024);
+		SearchResult result = search.search(data, 1);
+		assertEquals(10, result.getIndex());
+		assertEquals(1024, result.getTotalChunks());
+		assertTrue(result.getChunksScanned() < result.getTotalChunks());
+		search.shutdown();
+	}
+
+	@Test
+	public void testBatchSearch_RandomTargets_ShouldMatchSequentialSearch() {
+		Random random = new Random(33);
+		int[] data = TestData.randomInts(random, 200000, 500000);
+		int[] targets = TestData.randomInts(random, 3000, 500000);
+		targets[1] = targets[0];
+		MultiThreadedSearch search = new MultiThreadedSearch(4, 4096);
+		SearchResult result = search.batchSearch(data, targets);
+		for (int i = 0; i < targets.length; i++) {
+			assertEquals(search.linearSearch(data, targets[i], 0, data.length), result.getIndices()[i]);
+		}
+		assertEquals(result.getTotalChunks(), result.getChunksScanned());
+		search.shutdown();
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testConstructor_ZeroChunkSize_ShouldThrowException() {
+		new MultiThreadedSearch(2, 0);
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testConstructor_NegativeChunkSize_ShouldThrowException() {
+		new MultiThreadedSearch(ExecutionResources.getShared().forkJoinPool(), -4096);
+	}
+}
@@ -0,0 +1,81 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class NaturalMergeSortTest {
+
+	private AlgorithmPerformance assertSorts(int[] input) {
+		int[] expected = Arrays.copyOf(input, input.length);
+		Arrays.sort(expected);
+		ArrayDataStructure data = TestData.arrayOf(input);
+		AlgorithmPerformance performance = new NaturalMergeSort().evaluatePerformance(data);
+		assertArrayEquals(expected, data.toArray());
+		return performance;
+	}
+
+	private int[] nearlySorted(int n, long seed) {
+		Random random = new Random(seed);
+		int[] input = new int[n];
+		for (int i = 0; i < n; i++) {
+			input[i] = i;
+		}
+		for (int i = 0; i < n / 1000; i++) {
+			int a = random.nextInt(n);
+			int b = random.nextInt(n);
+			int temp = input[a];
+			input[a] = input[b];
+			input[b] = temp;
+		}
+		return input;
+	}
+
+	@Test
+	public void testSort_RandomInput_ShouldMatchArraysSort() {
+		Random random = new Random(7);
+		for (int n : new int[] {0, 1, 31, 32, 1000, 100000}) {
+			assertSorts(TestData.randomInts(random, n, n / 4 + 1));
+		}
+	}
+
+	@Test
+	public void testSort_PresortedInput_ShouldBeLinear() {
+		int n = 100000;
+		int[] sorted = new int[n];
+		int[] reversed = new int[n];
+		for (int i = 0; i < n; i++) {
+			sorted[i] = i;
+			reversed[i] = n - i;
+		}
+		assertEquals(n - 1, assertSorts(sorted).getComparisons());
+		assertEquals(n - 1, assertSorts(reversed).getComparisons());
+	}
+
+	@Test
+	public void testSort_AppendedBatchesAndFewSwaps_ShouldGallop() {
+		int n = 200000;
+		int[] input = nearlySorted(n, 8);
+		int[] batches = new int[n];
+		for (int i = 0; i < n; i++) {
+			batches[i] = (i % (n / 4)) * 4 + i / (n / 4);
+		}
+		assertTrue(assertSorts(input).getComparisons() < 4L * n);
+		assertTrue(assertSorts(batches).getComparisons() < 4L * n);
+	}
+
+	@Test
+	public void testAutoSelectAndSort_NearlySortedData_ShouldUseNaturalMergeSort() throws Exception {
+		DynamicAlgorithmManager manager = new DynamicAlgorithmManager(new PerformanceTracker());
+		manager.addAlgorithms(new AlgorithmFactory());
+		ArrayDataStructure data = new ArrayDataStructure(10000);
+		data.fromArray(nearlySorted(10000, 9));
+		assertEquals("NaturalMergeSort", manager.selectOptimalAlgorithm(data));
+		manager.autoSelectAndSort(data);
+		assertTrue(manager.isSorted(data));
+	}
+
+}
@@ -0,0 +1,78 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class OffHeapDataStructureTest {
+
+	@Test
+	public void testAdd_AcrossSegments_ShouldGrowWithoutLosingValues() {
+		try (OffHeapDataStructure data = new OffHeapDataStructure(10)) {
+			for (int i = 0; i < 5000; i++) {
+				data.add(i * 3);
+			}
+			assertEquals(5000, data.size());
+			assertEquals(5 * 1024, data.getCapacity());
+			assertEquals(1023 * 3, data.get(1023));
+			assertEquals(1024 * 3, data.get(1024));
+			data.set(4999, -1);
+			int[] range = new int[10];
+			data.read(1020, range, 0, 10);
+			assertEquals(1024 * 3, range[4]);
+			assertEquals(-1, data.toArray()[4999]);
+		}
+	}
+
+	@Test
+	public void testRelease_ShouldEmptyStructure() {
+		OffHeapDataStructure data = new OffHeapDataStructure(10);
+		data.fromArray(new int[] {1, 2, 3});
+		data.release();
+		assertEquals(0, data.size());
+		assertEquals(0, data.getCapacity());
+		data.add(4);
+		assertArrayEquals(new int[] {4}, data.toArray());
+		data.close();
+	}
+
+	@Test
+	public void testExternalSort_OverBudget_ShouldSortOffHeap() {
+		int[] values = TestData.randomInts(100000, 1);
+		int[] expected = Arrays.copyOf(values, values.length);
+		Arrays.sort(expected);
+		try (OffHeapDataStructure data = new OffHeapDataStructure(12)) {
+			data.fromArray(values);
+			ExternalSort sort = new ExternalSort(32 * 1024, 2, null);
+			AlgorithmPerformance performance = sort.evaluatePerformance(data);
+			assertArrayEquals(expected, data.toArray());
+			assertEquals(25, performance.getRunCount());
+			assertTrue(performance.getPasses() > 1);
+		}
+	}
+
+	@Test
+	public void testRadixSort_ShouldSortThroughBulkPath() {
+		int[] values = TestData.randomInts(100000, 2);
+		int[] expected = Arrays.copyOf(values, values.length);
+		Arrays.sort(expected);
+		try (OffHeapDataStructure data = new OffHeapDataStructure(12)) {
+			data.fromArray(values);
+			new RadixSort().sort(data);
+			assertArrayEquals(expected, data.toArray());
+		}
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testConstructor_SegmentShiftTooSmall_ShouldThrowException() {
+		new OffHeapDataStructure(9);
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testConstructor_SegmentShiftTooLarge_ShouldThrowException() {
+		new OffHeapDataStructure(29);
+	}
+
+}
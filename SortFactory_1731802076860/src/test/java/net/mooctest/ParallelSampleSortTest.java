@@ -0,0 +1,56 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class ParallelSampleSortTest {
+
+	private void assertSorts(int[] input) {
+		int[] expected = Arrays.copyOf(input, input.length);
+		Arrays.sort(expected);
+		ArrayDataStructure data = TestData.arrayOf(input);
+		new ParallelSampleSort().sort(data);
+		assertArrayEquals(expected, data.toArray());
+	}
+
+	@Test
+	public void testSort_UniformInput_ShouldMatchArraysSort() {
+		assertSorts(TestData.randomInts(200000, 1));
+	}
+
+	@Test
+	public void testSort_SkewedInput_ShouldMatchArraysSort() {
+		Random random = new Random(2);
+		int[] input = new int[200000];
+		for (int i = 0; i < input.length; i++) {
+			input[i] = (int) (Math.pow(random.nextDouble(), 8) * 1000000);
+		}
+		assertSorts(input);
+	}
+
+	@Test
+	public void testSort_DuplicateHeavyInput_ShouldMatchArraysSort() {
+		assertSorts(TestData.randomInts(200000, 3, 4));
+		assertSorts(new int[50000]);
+	}
+
+	@Test
+	public void testSort_SmallAndEmptyInput_ShouldMatchArraysSort() {
+		assertSorts(new int[0]);
+		assertSorts(new int[] {3, -1, 2});
+	}
+
+	@Test
+	public void testFactory_ShouldRegisterParallelSampleSort() {
+		AlgorithmFactory factory = new AlgorithmFactory();
+		assertTrue(factory.getAlgorithm("ParallelSampleSort") instanceof ParallelSampleSort);
+		AlgorithmManager manager = new AlgorithmManager();
+		manager.addAlgorithms(factory);
+		assertNotNull(manager.getAlgorithm("Parallel Sample Sort"));
+	}
+
+}
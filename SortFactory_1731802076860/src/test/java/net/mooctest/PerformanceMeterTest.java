@@ -0,0 +1,122 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class PerformanceMeterTest {
+	private static volatile byte[] sink;
+
+	private static void allocateMegabytes(int megabytes) {
+		for (int i = 0; i < megabytes; i++) {
+			sink = new byte[1 << 20];
+		}
+	}
+
+	// Runs the given work as its "sort"
+	private static Algorithm running(Runnable work) {
+		return new HeapSort() {
+			@Override
+			public void sort(DataStructure data, SortMetrics metrics) {
+				work.run();
+			}
+		};
+	}
+
+	@Test
+	public void testMeasure_RepeatedRuns_ShouldReportStatisticsAndRestoreInput() {
+		int[] values = TestData.randomInts(100000, 40);
+		ArrayDataStructure data = TestData.arrayOf(values);
+		AlgorithmPerformance performance = new PerformanceMeter(2, 7).measure(new IntroSort(), data, 1);
+
+		int[] expected = Arrays.copyOf(values, values.length);
+		Arrays.sort(expected);
+		assertArrayEquals(expected, data.toArray());
+		assertEquals(7, performance.getMeasuredRuns());
+		assertTrue(performance.getMinTime() <= performance.getTimeTaken());
+		assertTrue(performance.getTimeTaken() <= performance.getP90Time());
+		assertTrue(performance.getP90Time() <= performance.getMaxTime());
+		assertTrue(performance.getStdDevTime() >= 0);
+		// Every run sorts the original input, so every run makes the same comparisons as a single cold run
+		data.fromArray(values);
+		assertEquals(new IntroSort().evaluatePerformance(data).getComparisons(), performance.getComparisons());
+	}
+
+	@Test
+	public void testMeasure_AllocatingSort_ShouldReportAllocationAndCpuTime() {
+		ArrayDataStructure data = new ArrayDataStructure(1000000);
+		data.fromArray(TestData.randomInts(1000000, 40));
+		AlgorithmPerformance performance = new PerformanceMeter().measure(new IntroSort(), data, 1);
+		// toArray copies the input at least once
+		if (performance.getMemoryUsed() >= 0) {
+			assertTrue(performance.getMemoryUsed() >= 4000000L);
+		}
+		assertTrue(performance.getCpuTime() > 0 || performance.getCpuTime() == -1);
+	}
+
+	@Test
+	public void testMeasure_UnrelatedThreadAllocating_ShouldNotBeCharged() {
+		Algorithm algorithm = running(() -> {
+			Thread neighbour = new Thread(() -> allocateMegabytes(64));
+			neighbour.start();
+			try {
+				neighbour.join();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		AlgorithmPerformance performance = new PerformanceMeter().measure(algorithm, new ArrayDataStructure(0), 1);
+		if (performance.getMemoryUsed() >= 0) {
+			assertTrue(performance.getMemoryUsed() < 16L << 20);
+		}
+	}
+
+	@Test
+	public void testMeasure_WorkOnAlgorithmPool_ShouldBeChargedOnlyWithThatPool() {
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			Algorithm algorithm = running(() -> pool.submit(() -> allocateMegabytes(32)).join());
+			AlgorithmPerformance withPool = new PerformanceMeter().measure(algorithm, new ArrayDataStructure(0), 2, pool);
+			AlgorithmPerformance withoutPool = new PerformanceMeter().measure(algorithm, new ArrayDataStructure(0), 2);
+			if (withPool.getMemoryUsed() >= 0) {
+				assertTrue(withPool.getMemoryUsed() >= 32L << 20);
+				assertTrue(withoutPool.getMemoryUsed() < 16L << 20);
+			}
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testMeasuredThreads_SharedFixedPool_ShouldIncludeItsWorkers() throws Exception {
+		ExecutionResources resources = new ExecutionResources(2);
+		try {
+			ExecutorService pool = resources.fixedPool(ExecutionResources.IO, 2);
+			Thread worker = pool.submit(Thread::currentThread).get();
+			assertTrue(PerformanceMeter.measuredThreads(pool).contains(worker));
+			assertEquals(1, PerformanceMeter.measuredThreads(null).size());
+		} finally {
+			resources.shutdown();
+		}
+	}
+
+	@Test
+	public void testPercentile_ShouldUseNearestRank() {
+		long[] sorted = {10, 20, 30, 40, 50, 60, 70, 80, 90, 100};
+		assertEquals(50, PerformanceMeter.percentile(sorted, 50));
+		assertEquals(90, PerformanceMeter.percentile(sorted, 90));
+		assertEquals(100, PerformanceMeter.percentile(sorted, 99));
+		assertEquals(10, PerformanceMeter.percentile(sorted, 0));
+		assertEquals(55.0, PerformanceMeter.mean(sorted), 1e-9);
+		assertEquals(0.0, PerformanceMeter.stdDev(new long[] {5}), 1e-9);
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testConstructor_NoMeasuredRuns_ShouldThrowException() {
+		new PerformanceMeter(1, 0);
+	}
+}
@@ -0,0 +1,146 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class PerformanceTrackerTest {
+
+	private String result(String algorithm, String structure, String distribution, int size, double score, String unit) {
+		return "{\"jmhVersion\" : \"1.37\", \"benchmark\" : \"net.mooctest.SortBenchmark.sort\", \"mode\" : \"thrpt\","
+				+ " \"params\" : {\"algorithm\" : \"" + algorithm + "\", \"distribution\" : \"" + distribution + "\","
+				+ " \"size\" : \"" + size + "\", \"structure\" : \"" + structure + "\"},"
+				+ " \"primaryMetric\" : {\"score\" : " + score + ", \"scoreError\" : \"NaN\", \"scoreUnit\" : \"" + unit + "\","
+				+ " \"rawData\" : [[" + score + ", " + score + "]]},"
+				+ " \"secondaryMetrics\" : {\"\\u00b7gc.alloc.rate.norm\" : {\"score\" : 4016.0, \"scoreUnit\" : \"B/op\"}}}";
+	}
+
+	private String featureKey(String distribution, int size) {
+		ArrayDataStructure data = new ArrayDataStructure(size);
+		data.fromArray(Distributions.generate(distribution, size, 42));
+		return InputFeatures.extract(data).getKey();
+	}
+
+	@Test
+	public void testImportPriors_JmhResults_ShouldSeedHistoryPerFeatureKey() {
+		String json = "[" + result("introsort", "ArrayDataStructure", "uniform", 100000, 200.0, "ops/s") + ",\n"
+				+ result("radixsort", "ArrayDataStructure", "uniform", 100000, 2.5, "ms/op") + ",\n"
+				+ result("naturalmergesort", "ArrayDataStructure", "sorted", 100000, 1000.0, "ops/s") + "]";
+		PerformanceTracker tracker = new PerformanceTracker();
+		assertEquals(3, tracker.importPriors(json));
+
+		String uniform = featureKey("uniform", 100000);
+		PerformanceTracker.RunHistory introSort = tracker.getHistory(uniform, new IntroSort().getName());
+		assertNotNull(introSort);
+		assertEquals(1, introSort.getRuns());
+		// 200 sorts per second is 5 ms per sort of 100000 elements
+		assertEquals(50.0, introSort.getNanosPerElement(), 1e-9);
+		assertEquals(25.0, tracker.getHistory(uniform, new RadixSort().getName()).getNanosPerElement(), 1e-9);
+		String sorted = featureKey("sorted", 100000);
+		assertNotEquals(uniform, sorted);
+		assertEquals(10.0, tracker.getHistory(sorted, new NaturalMergeSort().getName()).getNanosPerElement(), 1e-9);
+	}
+
+	@Test
+	public void testImportPriors_LargeSize_ShouldUseBenchmarkSizeBucket() {
+		PerformanceTracker tracker = new PerformanceTracker();
+		tracker.importPriors("[" + result("heapsort", "OffHeapDataStructure", "reversed", 100000000, 0.1, "ops/s") + "]");
+		String key = new InputFeatures(100000000, "OffHeapDataStructure", 0.0, 0.0).getKey();
+		assertEquals(100.0, tracker.getHistory(key, new HeapSort().getName()).getNanosPerElement(), 1e-9);
+	}
+
+	@Test
+	public void testImportPriors_ScalingAndParameterlessEntries_ShouldBeSkipped() {
+		String json = "[{\"benchmark\" : \"net.mooctest.ScalingBenchmark.sort\","
+				+ " \"params\" : {\"algorithm\" : \"parallelmergesort\", \"parallelism\" : \"4\", \"size\" : \"1000000\"},"
+				+ " \"primaryMetric\" : {\"score\" : 10.0, \"scoreUnit\" : \"ops/s\"}},"
+				+ " {\"benchmark\" : \"net.mooctest.Other.run\", \"primaryMetric\" : {\"score\" : 1.0, \"scoreUnit\" : \"ops/s\"}}]";
+		assertEquals(0, new PerformanceTracker().importPriors(json));
+	}
+
+	@Test
+	public void testImportPriors_RealRuns_ShouldAccumulateOnPriors() {
+		PerformanceTracker tracker = new PerformanceTracker();
+		tracker.importPriors("[" + result("introsort", "ArrayDataStructure", "uniform", 1000, 1e6, "ops/s") + "]");
+		String key = featureKey("uniform", 1000);
+		tracker.recordRun(key, new IntroSort().getName(), 1000, new AlgorithmPerformance(3000, 0, 0, 0, 1));
+		PerformanceTracker.RunHistory history = tracker.getHistory(key, new IntroSort().getName());
+		assertEquals(2, history.getRuns());
+		assertEquals(2.0, history.getNanosPerElement(), 1e-9);
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testImportPriors_MalformedJson_ShouldThrowException() {
+		new PerformanceTracker().importPriors("[{\"params\" : ");
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testImportPriors_UnknownUnit_ShouldThrowException() {
+		new PerformanceTracker().importPriors("[" + result("introsort", "ArrayDataStructure", "uniform", 1000, 1, "ops/fortnight") + "]");
+	}
+
+	@Test
+	public void testRecordRun_ManyRuns_ShouldChooseBestByPercentileNotLuckyRun() {
+		PerformanceTracker tracker = new PerformanceTracker();
+		String key = "ArrayDataStructure|2^14|random|unique";
+		// One lucky run of the slow algorithm is faster than every run of the steady one
+		tracker.recordRun(key, "Lucky Sort", 10000, new AlgorithmPerformance(100, 0, 0, 0, 1));
+		for (int i = 0; i < 20; i++) {
+			tracker.recordRun(key, "Lucky Sort", 10000, new AlgorithmPerformance(900000 + i, 0, 0, 0, 1));
+			tracker.recordRun(key, "Steady Sort", 10000, new AlgorithmPerformance(200000 + i, 0, 0, 0, 1));
+		}
+		tracker.trackPerformance("Lucky Sort", new AlgorithmPerformance(100, 0, 0, 0, 1));
+
+		assertEquals("Steady Sort", tracker.getBestAlgorithm("ArrayDataStructure", 14, 50));
+		assertNull(tracker.getBestAlgorithm("ArrayDataStructure", 15, 50));
+		assertEquals(200019, tracker.getBestPerformance("ArrayDataStructure", 14).getTimeTaken());
+		assertNull(tracker.getBestPerformance("ArrayDataStructure", 15));
+		assertEquals(100, tracker.getBestPerformance().getTimeTaken());
+		LatencyHistogram steady = tracker.getLatencyHistogram("Steady Sort", "ArrayDataStructure", 14);
+		assertEquals(20, steady.getCount());
+		assertEquals(200000, steady.getMin());
+		// Histograms ignore the order class, the selector's history does not
+		tracker.recordRun("ArrayDataStructure|2^14|sorted|unique", "Steady Sort", 10000,
+				new AlgorithmPerformance(5000, 0, 0, 0, 1));
+		assertEquals(21, steady.getCount());
+		assertEquals(20, tracker.getHistory(key, "Steady Sort").getRuns());
+	}
+
+	@Test
+	public void testExport_CsvAndJson_ShouldListEveryHistogram() {
+		PerformanceTracker tracker = new PerformanceTracker();
+		tracker.recordRun("ArrayDataStructure|2^10|random|unique", "Intro Sort", 1000, new AlgorithmPerformance(4000, 0, 0, 0, 1));
+		tracker.recordRun("BSTDataStructure|2^10|random|unique", "Heap Sort", 1000, new AlgorithmPerformance(9000, 0, 0, 0, 1));
+		String[] lines = tracker.exportCsv().split("\n");
+		assertEquals(3, lines.length);
+		assertEquals("algorithm,structure,sizeBucket,count,min,mean,p50,p90,p99,p99.9,max", lines[0]);
+		assertEquals("Heap Sort,BSTDataStructure,2^10,1,9000,9000.0,9000,9000,9000,9000,9000", lines[1]);
+
+		List<?> rows = (List<?>) JsonParser.parse(tracker.exportJson());
+		assertEquals(2, rows.size());
+		Map<?, ?> intro = (Map<?, ?>) rows.get(1);
+		assertEquals("Intro Sort", intro.get("algorithm"));
+		assertEquals("2^10", intro.get("sizeBucket"));
+		assertEquals(4000.0, ((Map<?, ?>) intro.get("percentiles")).get("99.0"));
+
+		Map<String, LatencyHistogram> interval = tracker.intervalSnapshot();
+		assertEquals(2, interval.size());
+		assertEquals(0, tracker.intervalSnapshot().get("Intro Sort|ArrayDataStructure|2^10").getCount());
+	}
+
+	@Test
+	public void testJsonParser_NestedValues_ShouldMapToCollections() {
+		Object parsed = JsonParser.parse(" {\"a\" : [1, -2.5e3, true, null, \"x\\\"y\\n\"], \"b\" : {}} ");
+		Map<?, ?> object = (Map<?, ?>) parsed;
+		List<?> array = (List<?>) object.get("a");
+		assertEquals(1.0, array.get(0));
+		assertEquals(-2500.0, array.get(1));
+		assertEquals(Boolean.TRUE, array.get(2));
+		assertNull(array.get(3));
+		assertEquals("x\"y\n", array.get(4));
+		assertTrue(((Map<?, ?>) object.get("b")).isEmpty());
+	}
+}
@@ -0,0 +1,50 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+public class RadixSortTest {
+
+	private AlgorithmPerformance assertSorts(int[] input) {
+		int[] expected = Arrays.copyOf(input, input.length);
+		Arrays.sort(expected);
+		ArrayDataStructure data = TestData.arrayOf(input);
+		AlgorithmPerformance performance = new RadixSort().evaluatePerformance(data);
+		assertArrayEquals(expected, data.toArray());
+		return performance;
+	}
+
+	@Test
+	public void testSort_NegativeAndPositive_ShouldOrderBySignedValue() {
+		AlgorithmPerformance performance = assertSorts(new int[] {5, -1, Integer.MIN_VALUE, 0, Integer.MAX_VALUE, -300, 7});
+		assertTrue(performance.getPasses() > 0);
+	}
+
+	@Test
+	public void testSort_SmallRange_ShouldSkipConstantDigits() {
+		int[] input = TestData.randomInts(1000, 4, 200);
+		AlgorithmPerformance performance = assertSorts(input);
+		assertEquals(1, performance.getPasses());
+		assertEquals(2L * input.length * Integer.BYTES, performance.getBytesMoved());
+	}
+
+	@Test
+	public void testSort_ParallelLsd_ShouldMatchArraysSort() {
+		assertSorts(TestData.randomInts(300000, 5));
+	}
+
+	@Test
+	public void testSort_ParallelMsd_ShouldMatchArraysSort() {
+		assertSorts(TestData.randomInts((1 << 22) + 17, 6));
+	}
+
+	@Test
+	public void testSort_AllEqualAndEmpty_ShouldMatchArraysSort() {
+		assertEquals(0, assertSorts(new int[100000]).getPasses());
+		assertSorts(new int[0]);
+	}
+
+}
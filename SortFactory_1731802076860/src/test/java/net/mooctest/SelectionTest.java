@@ -0,0 +1,134 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class SelectionTest {
+
+	private void assertSelected(int[] original, int[] rearranged, int k) {
+		int[] sorted = Arrays.copyOf(original, original.length);
+		Arrays.sort(sorted);
+		assertEquals(sorted[k], rearranged[k]);
+		for (int i = 0; i < k; i++) {
+			assertTrue(rearranged[i] <= rearranged[k]);
+		}
+		for (int i = k + 1; i < rearranged.length; i++) {
+			assertTrue(rearranged[i] >= rearranged[k]);
+		}
+		int[] permutation = Arrays.copyOf(rearranged, rearranged.length);
+		Arrays.sort(permutation);
+		assertArrayEquals(sorted, permutation);
+	}
+
+	@Test
+	public void testSelect_VariousInputs_ShouldPlaceKthSmallest() {
+		int[][] inputs = {TestData.randomInts(1000, 1), TestData.randomInts(1000, 2, 5),
+				Distributions.generate("sorted", 1000, 3), Distributions.generate("reversed", 1000, 4),
+				Distributions.generate("organpipe", 1000, 5), {7}};
+		for (int[] input : inputs) {
+			for (int k : new int[] {0, input.length / 3, input.length / 2, input.length - 1}) {
+				int[] copy = Arrays.copyOf(input, input.length);
+				Selection.select(copy, k);
+				assertSelected(input, copy, k);
+			}
+		}
+	}
+
+	@Test
+	public void testSelect_MedianOfThreeKiller_ShouldStayCorrect() {
+		// Organ pipe inputs push median-of-three pivots to the edges, forcing the median-of-medians fallback
+		int n = 1 << 16;
+		int[] input = new int[n];
+		for (int i = 0; i < n; i++) {
+			input[i] = i % 2 == 0 ? i : n - i;
+		}
+		int[] copy = Arrays.copyOf(input, n);
+		Selection.select(copy, n / 2);
+		assertSelected(input, copy, n / 2);
+	}
+
+	@Test
+	public void testPartialSort_FirstK_ShouldBeSmallestInOrder() {
+		int[] input = TestData.randomInts(5000, 6);
+		int[] sorted = Arrays.copyOf(input, input.length);
+		Arrays.sort(sorted);
+		for (int k : new int[] {0, 1, 100, 5000}) {
+			int[] copy = Arrays.copyOf(input, input.length);
+			Selection.partialSort(copy, k);
+			assertArrayEquals(Arrays.copyOf(sorted, k), Arrays.copyOf(copy, k));
+		}
+	}
+
+	@Test
+	public void testMultiSelect_UnorderedAndDuplicateRanks_ShouldFollowRankOrder() {
+		int[] input = TestData.randomInts(10000, 7, 100);
+		int[] sorted = Arrays.copyOf(input, input.length);
+		Arrays.sort(sorted);
+		int[] ranks = {9999, 0, 5000, 5000, 2500, 7500, 1};
+		int[] result = Selection.multiSelect(Arrays.copyOf(input, input.length), ranks);
+		for (int i = 0; i < ranks.length; i++) {
+			assertEquals(sorted[ranks[i]], result[i]);
+		}
+	}
+
+	@Test
+	public void testPercentiles_DataStructure_ShouldMatchNearestRankAndLeaveDataUntouched() {
+		int[] input = TestData.randomInts(1001, 8);
+		ArrayDataStructure data = TestData.arrayOf(input);
+		int[] result = new AlgorithmManager().percentilesOf(data, 50, 90, 99, 100, 0);
+		long[] sorted = new long[input.length];
+		for (int i = 0; i < input.length; i++) {
+			sorted[i] = input[i];
+		}
+		Arrays.sort(sorted);
+		double[] percents = {50, 90, 99, 100, 0};
+		for (int i = 0; i < percents.length; i++) {
+			assertEquals(PerformanceMeter.percentile(sorted, percents[i]), result[i]);
+		}
+		assertArrayEquals(input, data.toArray());
+	}
+
+	@Test
+	public void testParallelSelect_LargeInput_ShouldMatchSequentialAndNotModify() {
+		int[] input = TestData.randomInts(3 << 20, 9);
+		int[] original = Arrays.copyOf(input, input.length);
+		int[] sorted = Arrays.copyOf(input, input.length);
+		Arrays.sort(sorted);
+		for (int k : new int[] {0, 12345, input.length / 2, input.length - 1}) {
+			assertEquals(sorted[k], Selection.parallelSelect(input, k, ForkJoinPool.commonPool()));
+		}
+		assertArrayEquals(original, input);
+	}
+
+	@Test
+	public void testParallelSelect_FewUniqueValues_ShouldHandleWideTies() {
+		int[] input = TestData.randomInts(2 << 20, 10, 3);
+		int[] sorted = Arrays.copyOf(input, input.length);
+		Arrays.sort(sorted);
+		int k = input.length / 2 + 17;
+		assertEquals(sorted[k], Selection.parallelSelect(input, k, ForkJoinPool.commonPool()));
+	}
+
+	@Test
+	public void testManager_SelectAndPartialSort_ShouldWorkOnStructures() {
+		int[] input = TestData.randomInts(2000, 11);
+		int[] sorted = Arrays.copyOf(input, input.length);
+		Arrays.sort(sorted);
+		AlgorithmManager manager = new AlgorithmManager();
+		LinkedListDataStructure list = new LinkedListDataStructure();
+		list.fromArray(input);
+		assertEquals(sorted[700], manager.selectData(list, 700));
+		manager.partialSortData(list, 10);
+		assertArrayEquals(Arrays.copyOf(sorted, 10), Arrays.copyOf(list.toArray(), 10));
+		assertEquals(input.length, list.size());
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testSelect_RankOutOfRange_ShouldThrowException() {
+		Selection.select(new int[] {1, 2, 3}, 3);
+	}
+}
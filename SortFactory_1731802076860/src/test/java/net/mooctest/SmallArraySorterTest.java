@@ -0,0 +1,130 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+public class SmallArraySorterTest {
+
+	private void assertSortedCopy(int[] original, int[] actual) {
+		int[] expected = original.clone();
+		Arrays.sort(expected);
+		assertArrayEquals(expected, actual);
+	}
+
+	// By the 0-1 principle a network that sorts every 0/1 input sorts every input
+	@Test
+	public void testNetworks_AllZeroOneInputs_ShouldSort() {
+		SmallArraySorter sorter = new SmallArraySorter(new ForkJoinPool(1));
+		for (int n = 0; n <= 16; n++) {
+			for (int bits = 0; bits < (1 << n); bits++) {
+				int[] a = new int[n];
+				for (int i = 0; i < n; i++) {
+					a[i] = (bits >>> i) & 1;
+				}
+				sorter.sort(a, 0, n);
+				for (int i = 1; i < n; i++) {
+					assertTrue("n=" + n + " bits=" + bits, a[i - 1] <= a[i]);
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testSort_RandomArraysUpToNetworkMaxAndBeyond_ShouldSort() {
+		SmallArraySorter sorter = new SmallArraySorter(new ForkJoinPool(1));
+		Random random = new Random(47);
+		for (int n = 0; n <= SmallArraySorter.NETWORK_MAX + 16; n++) {
+			for (int round = 0; round < 50; round++) {
+				int[] original = TestData.randomInts(random, n, round % 2 == 0 ? 0 : 4);
+				int[] a = original.clone();
+				sorter.sort(a, 0, n);
+				assertSortedCopy(original, a);
+			}
+		}
+	}
+
+	@Test
+	public void testSort_SubRange_ShouldLeaveRestUntouched() {
+		SmallArraySorter sorter = new SmallArraySorter(new ForkJoinPool(1));
+		int[] a = {9, 8, 7, 6, 5, 4, 3, 2, 1, 0};
+		sorter.sort(a, 2, 7);
+		assertArrayEquals(new int[] {9, 8, 3, 4, 5, 6, 7, 2, 1, 0}, a);
+	}
+
+	@Test
+	public void testGetNetwork_ComparatorCounts_ShouldMatchBatcher() {
+		assertEquals(0, SmallArraySorter.getNetwork(1).length / 2);
+		assertEquals(5, SmallArraySorter.getNetwork(4).length / 2);
+		assertEquals(19, SmallArraySorter.getNetwork(8).length / 2);
+		assertEquals(63, SmallArraySorter.getNetwork(16).length / 2);
+		assertEquals(543, SmallArraySorter.getNetwork(64).length / 2);
+	}
+
+	@Test
+	public void testSortAll_SmallAndParallelBatches_ShouldSortEveryArray() {
+		SmallArraySorter sorter = new SmallArraySorter(new ForkJoinPool(4));
+		Random random = new Random(7);
+		for (int count : new int[] {0, 10, 20000}) {
+			int[][] originals = new int[count][];
+			int[][] arrays = new int[count][];
+			for (int i = 0; i < count; i++) {
+				originals[i] = TestData.randomInts(random, random.nextInt(80), 0);
+				arrays[i] = originals[i].clone();
+			}
+			sorter.sortAll(arrays);
+			for (int i = 0; i < count; i++) {
+				assertSortedCopy(originals[i], arrays[i]);
+			}
+		}
+	}
+
+	@Test
+	public void testSortSegments_UnevenAndEmptySegments_ShouldSortEachSegmentOnly() {
+		SmallArraySorter sorter = new SmallArraySorter(new ForkJoinPool(4));
+		Random random = new Random(11);
+		int segments = 10000;
+		int[] offsets = new int[segments + 1];
+		for (int i = 0; i < segments; i++) {
+			offsets[i + 1] = offsets[i] + (i % 7 == 0 ? 0 : random.nextInt(70));
+		}
+		int[] original = TestData.randomInts(random, offsets[segments], 1000);
+		int[] buffer = original.clone();
+		sorter.sortSegments(buffer, offsets);
+		for (int i = 0; i < segments; i++) {
+			int[] expected = Arrays.copyOfRange(original, offsets[i], offsets[i + 1]);
+			Arrays.sort(expected);
+			assertArrayEquals(expected, Arrays.copyOfRange(buffer, offsets[i], offsets[i + 1]));
+		}
+	}
+
+	@Test
+	public void testSortFixedLength_EqualArrays_ShouldSortEachArray() {
+		SmallArraySorter sorter = new SmallArraySorter(new ForkJoinPool(2));
+		int[] original = TestData.randomInts(new Random(3), 16 * 5000, 0);
+		int[] buffer = original.clone();
+		sorter.sortFixedLength(buffer, 16);
+		for (int from = 0; from < buffer.length; from += 16) {
+			assertSortedCopy(Arrays.copyOfRange(original, from, from + 16), Arrays.copyOfRange(buffer, from, from + 16));
+		}
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testSortSegments_DecreasingOffsets_ShouldThrow() {
+		new SmallArraySorter(new ForkJoinPool(1)).sortSegments(new int[10], new int[] {0, 6, 4, 10});
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testSortSegments_OffsetPastBuffer_ShouldThrow() {
+		new SmallArraySorter(new ForkJoinPool(1)).sortSegments(new int[10], new int[] {0, 11});
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testSortFixedLength_RaggedBuffer_ShouldThrow() {
+		new SmallArraySorter(new ForkJoinPool(1)).sortFixedLength(new int[10], 4);
+	}
+}
@@ -0,0 +1,66 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Future;
+
+import org.junit.Test;
+
+public class SortMetricsTest {
+
+	@Test
+	public void testSharedInstance_ConcurrentSorts_ShouldKeepCountsPerCall() throws Exception {
+		ConcurrentAlgorithmManager manager = new ConcurrentAlgorithmManager(4);
+		manager.addAlgorithm(new IntroSort());
+		List<Future<AlgorithmPerformance>> futures = new ArrayList<>();
+		List<ArrayDataStructure> inputs = new ArrayList<>();
+		for (int i = 0; i < 8; i++) {
+			ArrayDataStructure data = TestData.randomData(50000, i);
+			inputs.add(data);
+			futures.add(manager.parallelSort("Intro Sort", data));
+		}
+		for (int i = 0; i < 8; i++) {
+			AlgorithmPerformance concurrent = futures.get(i).get();
+			AlgorithmPerformance alone = new IntroSort().evaluatePerformance(TestData.randomData(50000, i));
+			assertEquals(alone.getComparisons(), concurrent.getComparisons());
+			assertEquals(alone.getSwaps(), concurrent.getSwaps());
+			int[] sorted = inputs.get(i).toArray();
+			int[] expected = Arrays.copyOf(sorted, sorted.length);
+			Arrays.sort(expected);
+			assertArrayEquals(expected, sorted);
+		}
+		manager.shutdown();
+	}
+
+	@Test
+	public void testParallelMergeSort_ForkedMetrics_ShouldSumAllMerges() {
+		SortMetrics parallel = new SortMetrics();
+		new ParallelMergeSort(4).sort(TestData.randomData(20000, 39), parallel);
+		SortMetrics sequential = new SortMetrics();
+		new ParallelMergeSort(1).sort(TestData.randomData(20000, 39), sequential);
+		assertTrue(parallel.getComparisons() > 0);
+		assertEquals(sequential.getComparisons(), parallel.getComparisons());
+	}
+
+	@Test
+	public void testDisabledMetrics_ShouldNeverCount() {
+		new IntroSort().sort(TestData.randomData(10000, 1), SortMetrics.DISABLED);
+		assertEquals(0, SortMetrics.DISABLED.getComparisons());
+		assertSame(SortMetrics.DISABLED, SortMetrics.DISABLED.fork());
+	}
+
+	@Test
+	public void testToPerformance_ShouldCarryLongCounters() {
+		SortMetrics metrics = new SortMetrics();
+		metrics.addComparisons(3L * Integer.MAX_VALUE);
+		metrics.swap();
+		metrics.addRuns(2);
+		AlgorithmPerformance performance = metrics.toPerformance(10, 20, 1);
+		assertEquals(3L * Integer.MAX_VALUE, performance.getComparisons());
+		assertEquals(1, performance.getSwaps());
+		assertEquals(2, performance.getRunCount());
+	}
+}
@@ -0,0 +1,78 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import org.junit.Test;
+
+public class SortedIndexTest {
+
+	private int referenceLowerBound(int[] sorted, int target) {
+		int low = 0;
+		int high = sorted.length;
+		while (low < high) {
+			int mid = (low + high) >>> 1;
+			if (sorted[mid] < target) {
+				low = mid + 1;
+			} else {
+				high = mid;
+			}
+		}
+		return low;
+	}
+
+	@Test
+	public void testLowerBound_AllSizes_ShouldMatchReference() {
+		Random random = new Random(34);
+		for (int n = 0; n < 300; n++) {
+			int[] sorted = new int[n];
+			for (int i = 0; i < n; i++) {
+				sorted[i] = random.nextInt(n / 2 + 1) * 3;
+			}
+			Arrays.sort(sorted);
+			SortedIndex index = new SortedIndex(sorted);
+			for (int target = -2; target <= n * 2 + 2; target++) {
+				int expected = referenceLowerBound(sorted, target);
+				assertEquals(expected, index.lowerBound(target));
+				assertEquals(expected < n && sorted[expected] == target ? expected : -1, index.search(target));
+			}
+		}
+	}
+
+	@Test
+	public void testBatchLookups_ShouldMatchSingleLookups() {
+		Random random = new Random(340);
+		int[] sorted = TestData.randomInts(random, 100003, 1000000);
+		Arrays.sort(sorted);
+		ArrayDataStructure data = TestData.arrayOf(sorted);
+		SortedIndex index = new SortedIndex(data);
+		int[] targets = TestData.randomInts(random, 20005, 1000000);
+		int[] found = index.search(targets);
+		int[] parallelFound = index.parallelSearch(targets);
+		int[] bounds = index.lowerBound(targets);
+		for (int i = 0; i < targets.length; i++) {
+			assertEquals(index.search(targets[i]), found[i]);
+			assertEquals(found[i], parallelFound[i]);
+			assertEquals(index.lowerBound(targets[i]), bounds[i]);
+		}
+	}
+
+	@Test
+	public void testRangeCount_ExtremeValues_ShouldCountInclusive() {
+		int[] sorted = {Integer.MIN_VALUE, -5, 0, 0, 0, 7, Integer.MAX_VALUE, Integer.MAX_VALUE};
+		SortedIndex index = new SortedIndex(sorted);
+		assertEquals(3, index.rangeCount(0, 0));
+		assertEquals(8, index.rangeCount(Integer.MIN_VALUE, Integer.MAX_VALUE));
+		assertEquals(2, index.rangeCount(8, Integer.MAX_VALUE));
+		assertEquals(0, index.rangeCount(1, 6));
+		assertEquals(6, index.search(Integer.MAX_VALUE));
+		assertEquals(0, index.search(Integer.MIN_VALUE));
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testConstructor_UnsortedInput_ShouldThrowException() {
+		new SortedIndex(new int[] {3, 1, 2});
+	}
+}
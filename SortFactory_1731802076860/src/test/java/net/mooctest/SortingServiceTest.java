@@ -0,0 +1,237 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class SortingServiceTest {
+
+	// Sorts with IntroSort after waiting for the gate, and records the order in which jobs started
+	private static class GatedSort extends IntroSort {
+		private CountDownLatch gate;
+		private List<Integer> started = Collections.synchronizedList(new ArrayList<>());
+
+		GatedSort(CountDownLatch gate) {
+			this.gate = gate;
+		}
+
+		@Override
+		public void sort(DataStructure data, SortMetrics metrics) {
+			started.add(data.size());
+			try {
+				gate.await();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+			super.sort(data, metrics);
+		}
+
+		@Override
+		public String getName() {
+			return "Gated Sort";
+		}
+	}
+
+	private void assertSorted(DataStructure data) {
+		int[] values = data.toArray();
+		int[] expected = Arrays.copyOf(values, values.length);
+		Arrays.sort(expected);
+		assertArrayEquals(expected, values);
+	}
+
+	@Test
+	public void testSubmitBatch_ManyJobs_ShouldSortAllInBatchOrder() throws Exception {
+		SortingService service = new SortingService(2, 50000);
+		service.addAlgorithms(new AlgorithmFactory());
+		List<SortJob> jobs = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			jobs.add(new SortJob(i % 2 == 0 ? "introsort" : "radixsort", TestData.randomData(1000 + i, i), i % 3));
+		}
+		List<AlgorithmPerformance> results = service.submitBatch(jobs).get(30, TimeUnit.SECONDS);
+		assertEquals(20, results.size());
+		for (SortJob job : jobs) {
+			assertSorted(job.getData());
+		}
+		assertEquals(20, service.getCompletedJobs());
+		assertEquals(0, service.getInFlightElements());
+		assertTrue(service.getMaxQueueDepth() <= 20);
+		service.shutdown();
+		assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testTrySubmit_BudgetExhausted_ShouldRejectAndCount() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+		SortingService service = new SortingService(1, 1000);
+		service.addAlgorithm(new GatedSort(gate));
+		CompletableFuture<AlgorithmPerformance> first = service.trySubmit(new SortJob("gatedsort",
+				TestData.randomData(800, 1)));
+		CompletableFuture<AlgorithmPerformance> second = service.trySubmit(new SortJob("gatedsort",
+				TestData.randomData(300, 2)));
+		try {
+			second.get();
+			fail("The second job exceeds the budget");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof ConcurrencyException);
+		}
+		CompletableFuture<AlgorithmPerformance> timedOut = service.submit(new SortJob("gatedsort",
+				TestData.randomData(300, 3)), 20, TimeUnit.MILLISECONDS);
+		assertTrue(timedOut.isCompletedExceptionally());
+		assertEquals(2, service.getRejectedJobs());
+		assertEquals(800, service.getInFlightElements());
+
+		gate.countDown();
+		first.get(10, TimeUnit.SECONDS);
+		// Room again once the first job has finished
+		service.trySubmit(new SortJob("gatedsort", TestData.randomData(300, 4))).get(10, TimeUnit.SECONDS);
+		service.shutdown();
+	}
+
+	@Test
+	public void testSubmit_BudgetExhausted_ShouldBlockUntilCapacityFrees() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+		SortingService service = new SortingService(1, 1000);
+		service.addAlgorithm(new GatedSort(gate));
+		CompletableFuture<AlgorithmPerformance> first = service.submit(new SortJob("gatedsort",
+				TestData.randomData(800, 1)));
+		CountDownLatch submitted = new CountDownLatch(1);
+		Thread producer = new Thread(() -> {
+			try {
+				service.submit(new SortJob("gatedsort", TestData.randomData(500, 2)));
+				submitted.countDown();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		});
+		producer.start();
+		assertFalse(submitted.await(100, TimeUnit.MILLISECONDS));
+		gate.countDown();
+		assertTrue(submitted.await(10, TimeUnit.SECONDS));
+		first.get(10, TimeUnit.SECONDS);
+		producer.join();
+		service.shutdown();
+		assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+		assertEquals(2, service.getCompletedJobs());
+	}
+
+	@Test
+	public void testSubmit_QueuedJobs_ShouldRunByPriorityThenSize() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+		GatedSort algo = new GatedSort(gate);
+		SortingService service = new SortingService(1, 100000);
+		service.addAlgorithm(algo);
+		List<CompletableFuture<AlgorithmPerformance>> futures = new ArrayList<>();
+		futures.add(service.submit(new SortJob("gatedsort", TestData.randomData(10, 1))));
+		futures.add(service.submit(new SortJob("gatedsort", TestData.randomData(500, 2), 0)));
+		futures.add(service.submit(new SortJob("gatedsort", TestData.randomData(200, 3), 0)));
+		futures.add(service.submit(new SortJob("gatedsort", TestData.randomData(900, 4), 5)));
+		assertEquals(3, service.getQueueDepth());
+		gate.countDown();
+		for (CompletableFuture<AlgorithmPerformance> future : futures) {
+			future.get(10, TimeUnit.SECONDS);
+		}
+		assertEquals(Arrays.asList(10, 900, 200, 500), algo.started);
+		assertTrue(service.getMaxWaitTime() > 0);
+		service.shutdown();
+	}
+
+	@Test
+	public void testSubmit_JobLargerThanBudget_ShouldRunAlone() throws Exception {
+		SortingService service = new SortingService(2, 100);
+		service.addAlgorithms(new AlgorithmFactory());
+		ArrayDataStructure data = TestData.randomData(5000, 5);
+		service.submit(new SortJob("introsort", data)).get(10, TimeUnit.SECONDS);
+		assertSorted(data);
+		service.shutdown();
+	}
+
+	@Test
+	public void testVirtualMode_AnyRuntime_ShouldSortWithAvailableExecutor() throws Exception {
+		SortingService service = new SortingService(2, 100000, SortingService.ExecutionMode.VIRTUAL);
+		service.addAlgorithms(new AlgorithmFactory());
+		assertNotEquals(SortingService.ExecutionMode.PLATFORM, service.getExecutionMode());
+		ArrayDataStructure data = TestData.randomData(10000, 6);
+		service.submit(new SortJob("heapsort", data)).get(10, TimeUnit.SECONDS);
+		assertSorted(data);
+		service.shutdown();
+		assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testAwaitTermination_SharedPool_ShouldLeavePoolRunning() throws Exception {
+		SortingService service = new SortingService(2, 100000, SortingService.ExecutionMode.FORK_JOIN);
+		service.addAlgorithms(new AlgorithmFactory());
+		ArrayDataStructure data = TestData.randomData(1000, 9);
+		service.submit(new SortJob("introsort", data)).get(10, TimeUnit.SECONDS);
+		service.shutdown();
+		assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+		assertSorted(data);
+		assertFalse(ExecutionResources.getShared().forkJoinPool(2).isShutdown());
+	}
+
+	@Test
+	public void testSubmit_AfterShutdown_ShouldReject() throws Exception {
+		SortingService service = new SortingService(1, 1000, SortingService.ExecutionMode.FORK_JOIN);
+		service.addAlgorithms(new AlgorithmFactory());
+		service.shutdown();
+		assertTrue(service.submit(new SortJob("introsort", TestData.randomData(10, 7))).isCompletedExceptionally());
+		assertEquals(1, service.getRejectedJobs());
+	}
+
+	@Test(expected = AlgorithmNotFoundException.class)
+	public void testSubmit_UnknownAlgorithm_ShouldThrowException() throws Exception {
+		SortingService service = new SortingService(1, 1000);
+		try {
+			service.submit(new SortJob("nosuchsort", TestData.randomData(10, 8)));
+		} finally {
+			service.shutdown();
+		}
+	}
+
+	@Test
+	public void testSubmit_MoreConcurrencyThanPoolThreads_ShouldKeepExtraJobsInPriorityQueue() throws Exception {
+		CountDownLatch gate = new CountDownLatch(1);
+		int threads = ExecutionResources.getShared().getMaxParallelism();
+		SortingService service = new SortingService(threads + 3, 100000);
+		service.addAlgorithm(new GatedSort(gate));
+		List<CompletableFuture<AlgorithmPerformance>> futures = new ArrayList<>();
+		for (int i = 0; i < threads + 3; i++) {
+			futures.add(service.submit(new SortJob("gatedsort", TestData.randomData(100, i))));
+		}
+		assertEquals(3, service.getQueueDepth());
+		gate.countDown();
+		for (CompletableFuture<AlgorithmPerformance> future : futures) {
+			future.get(10, TimeUnit.SECONDS);
+		}
+		service.shutdown();
+		assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+	}
+
+	@Test
+	public void testSubmit_ExecutorShutDown_ShouldFailJobAndReleaseBudget() throws Exception {
+		SortingService service = new SortingService(1, 1000);
+		service.addAlgorithms(new AlgorithmFactory());
+		ExecutionResources.shutdownShared();
+		CompletableFuture<AlgorithmPerformance> future = service.submit(new SortJob("introsort",
+				TestData.randomData(500, 1)));
+		try {
+			future.get(10, TimeUnit.SECONDS);
+			fail("Job on a shut down executor should fail");
+		} catch (ExecutionException e) {
+			assertTrue(e.getCause() instanceof ConcurrencyException);
+		}
+		assertEquals(0, service.getInFlightElements());
+		assertEquals(1, service.getFailedJobs());
+		service.shutdown();
+		assertTrue(service.awaitTermination(10, TimeUnit.SECONDS));
+	}
+}
@@ -0,0 +1,37 @@
+package net.mooctest;
+
+import java.util.Random;
+
+// Seeded inputs shared by the tests
+final class TestData {
+
+	private TestData() {
+	}
+
+	static int[] randomInts(int n, long seed) {
+		return randomInts(new Random(seed), n, 0);
+	}
+
+	// Values in [0, bound), or any int when bound is not positive
+	static int[] randomInts(int n, long seed, int bound) {
+		return randomInts(new Random(seed), n, bound);
+	}
+
+	static int[] randomInts(Random random, int n, int bound) {
+		int[] values = new int[n];
+		for (int i = 0; i < n; i++) {
+			values[i] = bound > 0 ? random.nextInt(bound) : random.nextInt();
+		}
+		return values;
+	}
+
+	static ArrayDataStructure arrayOf(int[] values) {
+		ArrayDataStructure data = new ArrayDataStructure(values.length);
+		data.fromArray(values);
+		return data;
+	}
+
+	static ArrayDataStructure randomData(int n, long seed) {
+		return arrayOf(randomInts(n, seed));
+	}
+}
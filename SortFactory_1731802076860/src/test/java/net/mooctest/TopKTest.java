@@ -0,0 +1,56 @@
+package net.mooctest;
+
+import static org.junit.Assert.*;
+
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+public class TopKTest {
+
+	@Test
+	public void testLargestAndSmallest_DataStructure_ShouldMatchSortedSlices() {
+		int[] values = TestData.randomInts(50000, 50000, 10000);
+		ArrayDataStructure data = TestData.arrayOf(values);
+		int[] sorted = Arrays.copyOf(values, values.length);
+		Arrays.sort(sorted);
+
+		int[] smallest = TopK.smallest(data, 100);
+		assertArrayEquals(Arrays.copyOf(sorted, 100), smallest);
+
+		int[] largest = TopK.largest(data, 100);
+		for (int i = 0; i < 100; i++) {
+			assertEquals(sorted[sorted.length - 1 - i], largest[i]);
+		}
+	}
+
+	@Test
+	public void testLargest_ParallelStream_ShouldMatchSequential() {
+		int[] values = TestData.randomInts(200000, 200000, 10000);
+		int[] sequential = TopK.largest(IntStream.of(values), 37);
+		int[] parallel = TopK.largest(IntStream.of(values).parallel(), 37);
+		assertArrayEquals(sequential, parallel);
+		assertArrayEquals(TopK.smallest(IntStream.of(values), 5), TopK.smallest(IntStream.of(values).parallel(), 5));
+	}
+
+	@Test
+	public void testLargest_KLargerThanInput_ShouldReturnEverything() {
+		assertArrayEquals(new int[] {3, 2, 1}, TopK.largest(IntStream.of(2, 3, 1), 10));
+		assertArrayEquals(new int[0], TopK.smallest(IntStream.of(2, 3, 1), 0));
+	}
+
+	@Test
+	public void testLargest_HugeKOnSmallInput_ShouldNotAllocateK() {
+		ArrayDataStructure data = new ArrayDataStructure(3);
+		data.fromArray(new int[] {5, 9, 1});
+		assertArrayEquals(new int[] {9, 5, 1}, TopK.largest(data, Integer.MAX_VALUE));
+		assertArrayEquals(new int[] {1, 5, 9}, TopK.smallest(data, Integer.MAX_VALUE));
+		assertArrayEquals(new int[] {1, 2, 3}, TopK.smallest(IntStream.of(2, 3, 1).parallel(), Integer.MAX_VALUE));
+	}
+
+	@Test(expected = InvalidDataException.class)
+	public void testSmallest_NegativeK_ShouldThrowException() {
+		TopK.smallest(IntStream.of(1), -1);
+	}
+}